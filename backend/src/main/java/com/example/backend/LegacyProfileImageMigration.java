@@ -0,0 +1,78 @@
+package com.example.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Moves images still stored in {@code user_profiles.profile_image} into the blob store on
+ * startup. Each image is streamed from the database and the column is cleared once the
+ * hash is recorded, so a restart continues where the previous run stopped.
+ */
+@Component
+public class LegacyProfileImageMigration implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LegacyProfileImageMigration.class);
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProfileImageService imageService;
+
+    public LegacyProfileImageMigration(JdbcTemplate jdbcTemplate, ProfileImageService imageService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageService = imageService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long lastId = 0;
+        int moved = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList(
+                    "select id from user_profiles where profile_image is not null and id > ? order by id limit ?",
+                    Long.class, lastId, BATCH_SIZE);
+            for (Long id : ids) {
+                lastId = id;
+                try {
+                    if (move(id)) {
+                        moved++;
+                    }
+                } catch (UncheckedIOException | DataAccessException ex) {
+                    LOGGER.warn("Could not move profile image of user profile {}", id, ex);
+                }
+            }
+        } while (ids.size() == BATCH_SIZE);
+        if (moved > 0) {
+            LOGGER.info("Moved {} profile images to the blob store", moved);
+        }
+    }
+
+    private boolean move(Long id) {
+        String hash = jdbcTemplate.query("select profile_image from user_profiles where id = ?", rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            try (InputStream content = rs.getBinaryStream(1)) {
+                return content != null ? imageService.store(content) : null;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, id);
+        if (hash == null) {
+            return false;
+        }
+        return jdbcTemplate.update(
+                "update user_profiles set profile_image_hash = ?, profile_image = null "
+                        + "where id = ? and profile_image is not null", hash, id) > 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend;
+
+/**
+ * The columns of a {@link UserProfile} needed to show a user in member lists and payment
+ * views. Queried with a constructor expression, so listings never load the full profile.
+ */
+public class MemberSummary {
+
+    private final Long id;
+    private final String uid;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final String profileImageHash;
+
+    public MemberSummary(Long id, String uid, String username, String firstName, String lastName,
+                         String profileImageHash) {
+        this.id = id;
+        this.uid = uid;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profileImageHash = profileImageHash;
+    }
+
+    /** Summary of an already loaded profile, {@code null} for {@code null}. */
+    public static MemberSummary of(UserProfile profile) {
+        if (profile == null) {
+            return null;
+        }
+        return new MemberSummary(profile.getId(), profile.getUid(), profile.getUsername(),
+                profile.getFirstName(), profile.getLastName(), profile.getProfileImageHash());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getProfileImageHash() {
+        return profileImageHash;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.backend;
+
+import com.example.backend.blob.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Profile images live in the {@link BlobStore}; the profile row only keeps the content
+ * hash and type. Every upload also gets a downsized PNG thumbnail for avatars. Uploads
+ * larger than {@code profile-images.max-pixels} are rejected before they are decoded.
+ */
+@Service
+public class ProfileImageService {
+
+    static final String THUMBNAIL = "thumb";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfileImageService.class);
+
+    private final UserProfileRepository repository;
+    private final BlobStore blobStore;
+    private final UserSearchIndex searchIndex;
+    private final int thumbnailSize;
+    private final long maxPixels;
+
+    public ProfileImageService(UserProfileRepository repository,
+                               BlobStore blobStore,
+                               UserSearchIndex searchIndex,
+                               @Value("${profile-images.thumbnail-size:128}") int thumbnailSize,
+                               @Value("${profile-images.max-pixels:40000000}") long maxPixels) {
+        this.repository = repository;
+        this.blobStore = blobStore;
+        this.searchIndex = searchIndex;
+        this.thumbnailSize = Math.max(16, thumbnailSize);
+        this.maxPixels = maxPixels;
+    }
+
+    @Transactional
+    public void upload(String uid, MultipartFile file) {
+        UserProfile user = findUser(uid);
+        String type = file.getContentType();
+        if (type == null || !type.startsWith("image/")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only images can be uploaded");
+        }
+        String hash;
+        try (InputStream content = file.getInputStream()) {
+            hash = store(content, true);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store file", e);
+        }
+        String previous = user.getProfileImageHash();
+        user.setProfileImageHash(hash);
+        user.setProfileImageType(type);
+        repository.save(user);
+        MemberSummary summary = MemberSummary.of(user);
+        afterCommit(() -> searchIndex.put(summary));
+        if (!hash.equals(previous)) {
+            afterCommit(() -> release(previous));
+        }
+    }
+
+    /**
+     * The stored image of a user, or its thumbnail. Images too small to be downsized, or
+     * in a format without a decoder, are served as uploaded in place of a thumbnail.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProfileImage> find(String uid, boolean thumbnail) {
+        UserProfile user = findUser(uid);
+        String hash = user.getProfileImageHash();
+        if (hash == null) {
+            return Optional.empty();
+        }
+        if (thumbnail) {
+            Optional<Resource> small = blobStore.getVariant(hash, THUMBNAIL);
+            if (small.isPresent()) {
+                return Optional.of(new ProfileImage(hash + "-" + THUMBNAIL, MediaType.IMAGE_PNG, small.get()));
+            }
+        }
+        MediaType type = user.getProfileImageType() != null
+                ? MediaType.parseMediaType(user.getProfileImageType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+        return blobStore.get(hash).map(resource -> new ProfileImage(hash, type, resource));
+    }
+
+    @Transactional
+    public void delete(String uid) {
+        UserProfile user = findUser(uid);
+        String previous = user.getProfileImageHash();
+        user.setProfileImageHash(null);
+        user.setProfileImageType(null);
+        repository.save(user);
+        MemberSummary summary = MemberSummary.of(user);
+        afterCommit(() -> searchIndex.put(summary));
+        afterCommit(() -> release(previous));
+    }
+
+    /**
+     * Streams image content into the blob store, adds its thumbnail and returns the hash.
+     * Images above the pixel limit get no thumbnail.
+     */
+    String store(InputStream content) throws IOException {
+        return store(content, false);
+    }
+
+    private String store(InputStream content, boolean rejectOversized) throws IOException {
+        String hash = blobStore.put(content).getHash();
+        if (blobStore.getVariant(hash, THUMBNAIL).isEmpty()) {
+            try {
+                writeThumbnail(hash, rejectOversized);
+            } catch (ResponseStatusException ex) {
+                release(hash);
+                throw ex;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Reads the dimensions from the image header first, so oversized images are never
+     * decoded into memory.
+     */
+    private void writeThumbnail(String hash, boolean rejectOversized) throws IOException {
+        Resource original = blobStore.get(hash).orElseThrow(() -> new IOException("Blob " + hash + " is missing"));
+        BufferedImage image;
+        try (InputStream in = original.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    if (rejectOversized) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "Images may have at most " + maxPixels + " pixels");
+                    }
+                    return;
+                }
+                if (Math.max(width, height) <= thumbnailSize) {
+                    return;
+                }
+                image = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+        double scale = (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight());
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "png", out);
+        blobStore.putVariant(hash, THUMBNAIL, new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Runs {@code task} once the surrounding transaction has committed, or right away
+     * without one. A rolled back change thus neither deletes the old blob nor shows up in
+     * the search index.
+     */
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    /**
+     * Blobs are shared by content, so one is only deleted when no profile uses it anymore.
+     * When run after a commit, this sees the references as of that point.
+     */
+    private void release(String hash) {
+        if (hash == null || repository.existsByProfileImageHash(hash)) {
+            return;
+        }
+        try {
+            blobStore.delete(hash);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete profile image blob {}", hash, e);
+        }
+    }
+
+    private UserProfile findUser(String uid) {
+        return repository.findByUid(uid)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    public static final class ProfileImage {
+        private final String etag;
+        private final MediaType contentType;
+        private final Resource resource;
+
+        ProfileImage(String etag, MediaType contentType, Resource resource) {
+            this.etag = etag;
+            this.contentType = contentType;
+            this.resource = resource;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public MediaType getContentType() {
+            return contentType;
+        }
+
+        public Resource getResource() {
+            return resource;
+        }
+    }
+}
@@ -11,16 +11,27 @@ import java.util.List;
 public class RiskController {
 
     private final RiskRepository riskRepository;
-    private final PublisherRepository publisherRepository;
+    private final RiskService riskService;
 
-    public RiskController(RiskRepository riskRepository, PublisherRepository publisherRepository) {
+    public RiskController(RiskRepository riskRepository, RiskService riskService) {
         this.riskRepository = riskRepository;
-        this.publisherRepository = publisherRepository;
+        this.riskService = riskService;
     }
 
+    /** Newest risks first, optionally filtered by status, category and publisher. */
     @GetMapping
-    public List<Risk> list() {
-        return riskRepository.findAll();
+    public List<RiskDto> list(@RequestParam(required = false) RiskStatus status,
+                              @RequestParam(required = false) String category,
+                              @RequestParam(required = false) Long publisherId,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(defaultValue = "50") int size) {
+        return riskService.list(status, category, publisherId, page, size);
+    }
+
+    /** Count, total value and expected loss per category and status. */
+    @GetMapping("/totals")
+    public List<RiskTotal> totals() {
+        return riskService.totals();
     }
 
     @GetMapping("/{id}")
@@ -31,29 +42,17 @@ public class RiskController {
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Risk create(@RequestBody Risk risk) {
-        if (risk.getPublisher() != null && risk.getPublisher().getId() == null) {
-            Publisher saved = publisherRepository.save(risk.getPublisher());
-            risk.setPublisher(saved);
-        }
-        return riskRepository.save(risk);
+        return riskService.create(risk);
     }
 
     @PutMapping("/{id}")
     public Risk update(@PathVariable Long id, @RequestBody Risk risk) {
-        Risk existing = riskRepository.findById(id).orElseThrow(() -> new RuntimeException("Risk not found"));
-        existing.setName(risk.getName());
-        existing.setDescription(risk.getDescription());
-        existing.setValue(risk.getValue());
-        existing.setDeclinationDate(risk.getDeclinationDate());
-        existing.setStatus(risk.getStatus());
-        existing.setRiskCategory(risk.getRiskCategory());
-        existing.setRiskProbability(risk.getRiskProbability());
-        return riskRepository.save(existing);
+        return riskService.update(id, risk);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
-        riskRepository.deleteById(id);
+        riskService.delete(id);
     }
 }
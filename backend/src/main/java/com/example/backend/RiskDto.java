@@ -0,0 +1,103 @@
+package com.example.backend;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A {@link Risk} as listed, with its publisher reduced to id and name. Queried with a
+ * constructor expression, so listings never load publishers one by one.
+ */
+public class RiskDto {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final BigDecimal value;
+    private final Long publisherId;
+    private final String publisherName;
+    private final LocalDate declinationDate;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final LocalDateTime publishedAt;
+    private final LocalDateTime withdrawnAt;
+    private final RiskStatus status;
+    private final String riskCategory;
+    private final Double riskProbability;
+
+    public RiskDto(Long id, String name, String description, BigDecimal value, Long publisherId,
+                   String publisherName, LocalDate declinationDate, LocalDateTime createdAt,
+                   LocalDateTime updatedAt, LocalDateTime publishedAt, LocalDateTime withdrawnAt,
+                   RiskStatus status, String riskCategory, Double riskProbability) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.value = value;
+        this.publisherId = publisherId;
+        this.publisherName = publisherName;
+        this.declinationDate = declinationDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.publishedAt = publishedAt;
+        this.withdrawnAt = withdrawnAt;
+        this.status = status;
+        this.riskCategory = riskCategory;
+        this.riskProbability = riskProbability;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public Long getPublisherId() {
+        return publisherId;
+    }
+
+    public String getPublisherName() {
+        return publisherName;
+    }
+
+    public LocalDate getDeclinationDate() {
+        return declinationDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public LocalDateTime getWithdrawnAt() {
+        return withdrawnAt;
+    }
+
+    public RiskStatus getStatus() {
+        return status;
+    }
+
+    public String getRiskCategory() {
+        return riskCategory;
+    }
+
+    public Double getRiskProbability() {
+        return riskProbability;
+    }
+}
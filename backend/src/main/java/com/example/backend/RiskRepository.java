@@ -1,6 +1,30 @@
 package com.example.backend;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface RiskRepository extends JpaRepository<Risk, Long> {
+
+    /** Newest first; {@code null} filters match every risk. */
+    @Query("select new com.example.backend.RiskDto(r.id, r.name, r.description, r.value, p.id, p.name, "
+            + "r.declinationDate, r.createdAt, r.updatedAt, r.publishedAt, r.withdrawnAt, r.status, "
+            + "r.riskCategory, r.riskProbability) from Risk r left join r.publisher p "
+            + "where (:status is null or r.status = :status) "
+            + "and (:category is null or r.riskCategory = :category) "
+            + "and (:publisherId is null or p.id = :publisherId) "
+            + "order by r.id desc")
+    List<RiskDto> findPage(@Param("status") RiskStatus status, @Param("category") String category,
+                           @Param("publisherId") Long publisherId, Pageable pageable);
+
+    /** Locks the risk so concurrent writes move its totals one after the other. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Risk r where r.id = :id")
+    Optional<Risk> findForUpdateById(@Param("id") Long id);
 }
@@ -0,0 +1,92 @@
+package com.example.backend;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Writes risks together with their {@link RiskTotal}: every create, update and delete moves
+ * the risk's count, value and expected loss in the same transaction, so the totals never
+ * need a scan of {@code risks}.
+ */
+@Service
+@Transactional
+public class RiskService {
+
+    static final int MAX_PAGE_SIZE = 200;
+
+    private final RiskRepository riskRepository;
+    private final RiskTotalRepository totalRepository;
+    private final PublisherRepository publisherRepository;
+
+    public RiskService(RiskRepository riskRepository,
+                       RiskTotalRepository totalRepository,
+                       PublisherRepository publisherRepository) {
+        this.riskRepository = riskRepository;
+        this.totalRepository = totalRepository;
+        this.publisherRepository = publisherRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RiskDto> list(RiskStatus status, String category, Long publisherId, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return riskRepository.findPage(status, category, publisherId, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RiskTotal> totals() {
+        return totalRepository.findNonEmpty();
+    }
+
+    public Risk create(Risk risk) {
+        if (risk.getId() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "New risks must not have an id");
+        }
+        if (risk.getPublisher() != null && risk.getPublisher().getId() == null) {
+            Publisher saved = publisherRepository.save(risk.getPublisher());
+            risk.setPublisher(saved);
+        }
+        Risk saved = riskRepository.save(risk);
+        count(saved, 1);
+        return saved;
+    }
+
+    public Risk update(Long id, Risk risk) {
+        Risk existing = riskRepository.findForUpdateById(id).orElseThrow(() -> new RuntimeException("Risk not found"));
+        count(existing, -1);
+        existing.setName(risk.getName());
+        existing.setDescription(risk.getDescription());
+        existing.setValue(risk.getValue());
+        existing.setDeclinationDate(risk.getDeclinationDate());
+        existing.setStatus(risk.getStatus());
+        existing.setRiskCategory(risk.getRiskCategory());
+        existing.setRiskProbability(risk.getRiskProbability());
+        Risk saved = riskRepository.save(existing);
+        count(saved, 1);
+        return saved;
+    }
+
+    public void delete(Long id) {
+        riskRepository.findForUpdateById(id).ifPresent(risk -> {
+            count(risk, -1);
+            riskRepository.delete(risk);
+        });
+    }
+
+    /** Adds ({@code sign} 1) or removes ({@code sign} -1) a risk from its category and status totals. */
+    private void count(Risk risk, int sign) {
+        BigDecimal value = risk.getValue() != null ? risk.getValue() : BigDecimal.ZERO;
+        BigDecimal loss = risk.getRiskProbability() != null
+                ? value.multiply(BigDecimal.valueOf(risk.getRiskProbability()))
+                : BigDecimal.ZERO;
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        totalRepository.add(risk.getRiskCategory() != null ? risk.getRiskCategory() : "",
+                risk.getStatus() != null ? risk.getStatus().name() : "",
+                sign, value.multiply(factor), loss.multiply(factor));
+    }
+}
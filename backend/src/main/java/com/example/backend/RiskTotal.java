@@ -0,0 +1,95 @@
+package com.example.backend;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Number, summed value and expected loss of the risks in one category and status, kept
+ * current as risks are created, updated and deleted. Risks without a category or status
+ * are counted under an empty string.
+ */
+@Entity
+@Table(name = "risk_totals")
+@IdClass(RiskTotal.Key.class)
+public class RiskTotal {
+    @Id
+    @Column(name = "risk_category")
+    private String riskCategory;
+
+    @Id
+    private String status;
+
+    @Column(name = "risk_count", nullable = false)
+    private Long riskCount;
+
+    @Column(name = "total_value", nullable = false)
+    private BigDecimal totalValue;
+
+    /** Sum of value times probability. */
+    @Column(name = "expected_loss", nullable = false)
+    private BigDecimal expectedLoss;
+
+    public RiskTotal() {
+    }
+
+    public RiskTotal(String riskCategory, String status, Long riskCount, BigDecimal totalValue,
+                     BigDecimal expectedLoss) {
+        this.riskCategory = riskCategory;
+        this.status = status;
+        this.riskCount = riskCount;
+        this.totalValue = totalValue;
+        this.expectedLoss = expectedLoss;
+    }
+
+    public String getRiskCategory() {
+        return riskCategory;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getRiskCount() {
+        return riskCount;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public BigDecimal getExpectedLoss() {
+        return expectedLoss;
+    }
+
+    public static class Key implements Serializable {
+        private String riskCategory;
+        private String status;
+
+        public Key() {
+        }
+
+        public Key(String riskCategory, String status) {
+            this.riskCategory = riskCategory;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(riskCategory, other.riskCategory) && Objects.equals(status, other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(riskCategory, status);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.backend;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface RiskTotalRepository extends JpaRepository<RiskTotal, RiskTotal.Key> {
+
+    /** Adds the given deltas to the totals of one category and status, creating the row if needed. */
+    @Modifying
+    @Query(value = "insert into risk_totals (risk_category, status, risk_count, total_value, expected_loss) "
+            + "values (:category, :status, :count, :value, :loss) "
+            + "on duplicate key update risk_count = risk_count + :count, total_value = total_value + :value, "
+            + "expected_loss = expected_loss + :loss", nativeQuery = true)
+    int add(@Param("category") String category, @Param("status") String status, @Param("count") long count,
+            @Param("value") BigDecimal value, @Param("loss") BigDecimal loss);
+
+    /**
+     * Read with a constructor expression, so the results are fresh copies and never managed
+     * instances left stale by {@link #add} earlier in the same transaction.
+     */
+    @Query("select new com.example.backend.RiskTotal(t.riskCategory, t.status, t.riskCount, t.totalValue, "
+            + "t.expectedLoss) from RiskTotal t where t.riskCount > 0 order by t.riskCategory, t.status")
+    List<RiskTotal> findNonEmpty();
+}
@@ -37,10 +37,10 @@ public class UserProfile {
     @Column(length = 2048)
     private String interests;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "profile_image")
-    private byte[] profileImage;
+    /** SHA-256 of the image in the blob store, see {@link ProfileImageService}. */
+    @JsonIgnore
+    @Column(name = "profile_image_hash", length = 64)
+    private String profileImageHash;
 
     private String profileImageType;
 
@@ -155,12 +155,12 @@ public class UserProfile {
         this.interests = interests;
     }
 
-    public byte[] getProfileImage() {
-        return profileImage;
+    public String getProfileImageHash() {
+        return profileImageHash;
     }
 
-    public void setProfileImage(byte[] profileImage) {
-        this.profileImage = profileImage;
+    public void setProfileImageHash(String profileImageHash) {
+        this.profileImageHash = profileImageHash;
     }
 
     public String getProfileImageType() {
@@ -1,6 +1,10 @@
 package com.example.backend;
 
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -13,11 +17,20 @@ import jakarta.validation.Valid;
 public class UserProfileController {
     private final UserProfileRepository repository;
     private final com.example.backend.jamiah.JamiahService jamiahService;
+    private final ProfileImageService imageService;
+    private final UsernameIndex usernameIndex;
+    private final UserSearchIndex searchIndex;
 
     public UserProfileController(UserProfileRepository repository,
-                                 com.example.backend.jamiah.JamiahService jamiahService) {
+                                 com.example.backend.jamiah.JamiahService jamiahService,
+                                 ProfileImageService imageService,
+                                 UsernameIndex usernameIndex,
+                                 UserSearchIndex searchIndex) {
         this.repository = repository;
         this.jamiahService = jamiahService;
+        this.imageService = imageService;
+        this.usernameIndex = usernameIndex;
+        this.searchIndex = searchIndex;
     }
 
     @GetMapping
@@ -31,6 +44,13 @@ public class UserProfileController {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
+    /** Profiles whose username or names start with every term of {@code q}, best matches first. */
+    @GetMapping("/search")
+    public List<MemberSummary> search(@RequestParam("q") String query,
+                                      @RequestParam(defaultValue = "20") int limit) {
+        return searchIndex.search(query, limit);
+    }
+
     @GetMapping("/{id}")
     public UserProfile get(@PathVariable Long id) {
         return repository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -38,22 +58,23 @@ public class UserProfileController {
 
     @GetMapping("/check")
     public boolean checkUsername(@RequestParam String username) {
-        return !repository.existsByUsername(username);
+        return !usernameIndex.isTaken(username);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public UserProfile create(@Valid @RequestBody UserProfile profile) {
-        if (repository.existsByUsername(profile.getUsername())) {
+        if (usernameIndex.isTaken(profile.getUsername())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already taken");
         }
-        return repository.save(profile);
+        return store(profile, null);
     }
 
     @PutMapping("/{id}")
     public UserProfile update(@PathVariable Long id, @Valid @RequestBody UserProfile profile) {
         UserProfile existing = repository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        if (!existing.getUsername().equals(profile.getUsername()) && repository.existsByUsername(profile.getUsername())) {
+        String previousUsername = existing.getUsername();
+        if (!previousUsername.equals(profile.getUsername()) && usernameIndex.isTaken(profile.getUsername())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already taken");
         }
         existing.setUsername(profile.getUsername());
@@ -68,7 +89,7 @@ public class UserProfileController {
         existing.setPaypalEmail(profile.getPaypalEmail());
         existing.setLanguage(profile.getLanguage());
         existing.setInterests(profile.getInterests());
-        return repository.save(existing);
+        return store(existing, previousUsername);
     }
 
     @PutMapping("/uid/{uid}")
@@ -76,12 +97,13 @@ public class UserProfileController {
         UserProfile entity = repository.findByUid(uid).orElse(null);
 
         // create new profile if none exists for the uid
+        String previousUsername = entity != null ? entity.getUsername() : null;
         if (entity == null) {
-            if (repository.existsByUsername(profile.getUsername())) {
+            if (usernameIndex.isTaken(profile.getUsername())) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already taken");
             }
             entity = new UserProfile();
-        } else if (!entity.getUsername().equals(profile.getUsername()) && repository.existsByUsername(profile.getUsername())) {
+        } else if (!entity.getUsername().equals(profile.getUsername()) && usernameIndex.isTaken(profile.getUsername())) {
             // update path but new username already taken
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already taken");
         }
@@ -98,7 +120,7 @@ public class UserProfileController {
         entity.setPaypalEmail(profile.getPaypalEmail());
         entity.setLanguage(profile.getLanguage());
         entity.setInterests(profile.getInterests());
-        return repository.save(entity);
+        return store(entity, previousUsername);
     }
 
     @PutMapping("/profile/{uid}")
@@ -108,40 +130,23 @@ public class UserProfileController {
 
     @PostMapping(value = "/uid/{uid}/image", consumes = org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE)
     public void uploadImage(@PathVariable String uid, @RequestParam("file") org.springframework.web.multipart.MultipartFile file) {
-        UserProfile user = repository.findByUid(uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        try {
-            user.setProfileImage(file.getBytes());
-            user.setProfileImageType(file.getContentType());
-            repository.save(user);
-        } catch (java.io.IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store file", e);
-        }
+        imageService.upload(uid, file);
     }
 
     @GetMapping("/uid/{uid}/image")
-    public org.springframework.http.ResponseEntity<byte[]> getImage(@PathVariable String uid) {
-        UserProfile user = repository.findByUid(uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        if (user.getProfileImage() == null) {
-            return org.springframework.http.ResponseEntity.noContent().build();
-        }
-        org.springframework.http.MediaType type = user.getProfileImageType() != null ?
-                org.springframework.http.MediaType.parseMediaType(user.getProfileImageType()) :
-                org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
-        return org.springframework.http.ResponseEntity.ok()
-                .contentType(type)
-                .body(user.getProfileImage());
+    public ResponseEntity<Resource> getImage(@PathVariable String uid) {
+        return imageResponse(imageService.find(uid, false));
+    }
+
+    @GetMapping("/uid/{uid}/image/thumbnail")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String uid) {
+        return imageResponse(imageService.find(uid, true));
     }
 
     @DeleteMapping("/uid/{uid}/image")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteImage(@PathVariable String uid) {
-        UserProfile user = repository.findByUid(uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        user.setProfileImage(null);
-        user.setProfileImageType(null);
-        repository.save(user);
+        imageService.delete(uid);
     }
 
     @GetMapping("/uid/{uid}/jamiahs")
@@ -152,6 +157,49 @@ public class UserProfileController {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(profile -> {
+            repository.delete(profile);
+            usernameIndex.remove(profile.getUsername());
+            searchIndex.remove(profile.getId());
+        });
+    }
+
+    /**
+     * Saves a profile and keeps the username and search indexes current. The index may not know names
+     * written by another instance yet, so a unique key violation on the username is
+     * reported like a taken name found up front.
+     */
+    private UserProfile store(UserProfile profile, String previousUsername) {
+        UserProfile saved;
+        try {
+            saved = repository.save(profile);
+        } catch (DataIntegrityViolationException ex) {
+            if (!profile.getUsername().equals(previousUsername) && repository.existsByUsername(profile.getUsername())) {
+                usernameIndex.add(profile.getUsername());
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already taken");
+            }
+            throw ex;
+        }
+        if (previousUsername != null && !previousUsername.equals(saved.getUsername())) {
+            usernameIndex.remove(previousUsername);
+        }
+        usernameIndex.add(saved.getUsername());
+        searchIndex.put(MemberSummary.of(saved));
+        return saved;
+    }
+
+    /**
+     * The hash is the ETag, so a revalidation with a matching If-None-Match is answered
+     * with 304 before the file is opened. The file is streamed as a resource, which also
+     * serves Range requests.
+     */
+    private static ResponseEntity<Resource> imageResponse(java.util.Optional<ProfileImageService.ProfileImage> image) {
+        return image
+                .map(found -> ResponseEntity.ok()
+                        .eTag(found.getEtag())
+                        .cacheControl(CacheControl.noCache().cachePublic())
+                        .contentType(found.getContentType())
+                        .body(found.getResource()))
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 }
@@ -1,5 +1,6 @@
 package com.example.backend;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Collection;
@@ -14,6 +15,25 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
 
     List<UserProfile> findByUidIn(Collection<String> uids);
 
+    boolean existsByProfileImageHash(String profileImageHash);
+
+    /** Rows are {@code [id, username]}, ordered by id, for walking all profiles in pages. */
+    @Query("select u.id, u.username from UserProfile u where u.id > :afterId order by u.id")
+    List<Object[]> findUsernamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Summaries ordered by id, for walking all profiles in pages. */
+    @Query("select new com.example.backend.MemberSummary(u.id, u.uid, u.username, u.firstName, u.lastName, "
+            + "u.profileImageHash) from UserProfile u where u.id > :afterId order by u.id")
+    List<MemberSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new com.example.backend.MemberSummary(u.id, u.uid, u.username, u.firstName, u.lastName, "
+            + "u.profileImageHash) from UserProfile u where u.uid = :uid")
+    Optional<MemberSummary> findSummaryByUid(@Param("uid") String uid);
+
+    @Query("select new com.example.backend.MemberSummary(u.id, u.uid, u.username, u.firstName, u.lastName, "
+            + "u.profileImageHash) from UserProfile u where u.uid in :uids")
+    List<MemberSummary> findSummariesByUidIn(@Param("uids") Collection<String> uids);
+
     @Query("select u from UserProfile u left join fetch u.jamiahs where u.uid = :uid")
     Optional<UserProfile> findWithJamiahsByUid(@Param("uid") String uid);
 }
@@ -0,0 +1,201 @@
+package com.example.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Prefix search over usernames and first and last names, held in memory. Every token is
+ * stored as {@code token + '\0' + id} in a sorted set, so the profiles matching a prefix
+ * are one contiguous range and a top-K lookup reads only K entries. Username matches
+ * rank before name matches.
+ * <p>
+ * Profile writes update the index once they are committed; a periodic rebuild from
+ * {@code user_profiles} picks up writes made by other instances.
+ */
+@Component
+public class UserSearchIndex {
+
+    static final int MAX_LIMIT = 50;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final char SEPARATOR = '\0';
+    private static final int BUILD_PAGE_SIZE = 5000;
+
+    private final UserProfileRepository repository;
+
+    private volatile Index index = new Index();
+    /** Writes made while a rebuild runs, keyed by id; an empty value records a removal. */
+    private Map<Long, Optional<MemberSummary>> pending;
+
+    public UserSearchIndex(UserProfileRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Up to {@code limit} profiles where every whitespace-separated term of {@code query}
+     * is a prefix of the username or of a name token, case-insensitively.
+     */
+    public List<MemberSummary> search(String query, int limit) {
+        List<String> terms = tokens(query);
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        // The longest term selects the fewest candidates; the others are checked per candidate.
+        String lead = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Index current = index;
+        Set<Long> seen = new LinkedHashSet<>();
+        List<MemberSummary> results = new ArrayList<>(max);
+        for (NavigableSet<String> keys : List.of(current.usernames, current.names)) {
+            for (String key : keys.subSet(lead, true, lead + Character.MAX_VALUE, false)) {
+                Long id = Long.valueOf(key.substring(key.indexOf(SEPARATOR) + 1));
+                if (!seen.add(id)) {
+                    continue;
+                }
+                MemberSummary profile = current.profiles.get(id);
+                if (profile != null && matchesAll(profile, terms)) {
+                    results.add(profile);
+                    if (results.size() == max) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /** Adds a profile or replaces its previous entry. */
+    public synchronized void put(MemberSummary profile) {
+        if (profile == null || profile.getId() == null) {
+            return;
+        }
+        index.put(profile);
+        if (pending != null) {
+            pending.put(profile.getId(), Optional.of(profile));
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        index.remove(id);
+        if (pending != null) {
+            pending.put(id, Optional.empty());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${users.search.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        Index next = new Index();
+        synchronized (this) {
+            pending = new HashMap<>();
+        }
+        try {
+            long lastId = 0;
+            List<MemberSummary> page;
+            do {
+                page = repository.findSummariesAfter(lastId, PageRequest.of(0, BUILD_PAGE_SIZE));
+                for (MemberSummary profile : page) {
+                    lastId = profile.getId();
+                    next.put(profile);
+                }
+            } while (page.size() == BUILD_PAGE_SIZE);
+            synchronized (this) {
+                // Writes seen during the build are newer than the rows read, removals included.
+                pending.forEach((id, change) -> change.ifPresentOrElse(next::put, () -> next.remove(id)));
+                index = next;
+            }
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+        LOGGER.debug("User search index rebuilt with {} profiles", next.profiles.size());
+    }
+
+    private static boolean matchesAll(MemberSummary profile, List<String> terms) {
+        List<String> tokens = new ArrayList<>(tokens(profile.getFirstName()));
+        tokens.addAll(tokens(profile.getLastName()));
+        if (profile.getUsername() != null) {
+            tokens.add(normalize(profile.getUsername()));
+        }
+        return terms.stream().allMatch(term -> tokens.stream().anyMatch(token -> token.startsWith(term)));
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : normalize(text).split("[\\s\\-]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replace(SEPARATOR, ' ');
+    }
+
+    private static final class Index {
+        private final Map<Long, MemberSummary> profiles = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<String> usernames = new ConcurrentSkipListSet<>();
+        private final ConcurrentSkipListSet<String> names = new ConcurrentSkipListSet<>();
+
+        void put(MemberSummary profile) {
+            MemberSummary previous = profiles.put(profile.getId(), profile);
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(profile);
+        }
+
+        void remove(Long id) {
+            MemberSummary previous = profiles.remove(id);
+            if (previous != null) {
+                unlink(previous);
+            }
+        }
+
+        private void link(MemberSummary profile) {
+            String suffix = SEPARATOR + profile.getId().toString();
+            if (profile.getUsername() != null) {
+                usernames.add(normalize(profile.getUsername()) + suffix);
+            }
+            nameTokens(profile).forEach(token -> names.add(token + suffix));
+        }
+
+        private void unlink(MemberSummary profile) {
+            String suffix = SEPARATOR + profile.getId().toString();
+            if (profile.getUsername() != null) {
+                usernames.remove(normalize(profile.getUsername()) + suffix);
+            }
+            nameTokens(profile).forEach(token -> names.remove(token + suffix));
+        }
+
+        private static List<String> nameTokens(MemberSummary profile) {
+            List<String> tokens = tokens(profile.getFirstName());
+            tokens.addAll(tokens(profile.getLastName()));
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Answers whether a username is taken without a query for most names that are free. A
+ * Bloom filter over all usernames rules out names that were never used; only possible
+ * hits go to the database, whose answers are kept in a bounded cache. Names are matched
+ * case-insensitively by the filter, so it only ever errs towards asking the database.
+ * <p>
+ * The filter is rebuilt from {@code user_profiles} on startup and periodically, which
+ * picks up names written by other instances and drops released ones. Until the first
+ * build has finished every check goes to the database.
+ */
+@Component
+public class UsernameIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsernameIndex.class);
+    private static final int WARM_UP_PAGE_SIZE = 5000;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final UserProfileRepository repository;
+    private final double falsePositiveRate;
+    private final Map<String, Boolean> cache;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    public UsernameIndex(UserProfileRepository repository,
+                         @Value("${usernames.index.false-positive-rate:0.01}") double falsePositiveRate,
+                         @Value("${usernames.index.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.falsePositiveRate = Math.min(Math.max(falsePositiveRate, 0.0001), 0.5);
+        int maxEntries = Math.max(1, cacheSize);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public boolean isTaken(String username) {
+        if (username == null) {
+            return false;
+        }
+        String key = normalize(username);
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(key)) {
+            return false;
+        }
+        Boolean cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean taken = repository.existsByUsername(username);
+        cache.put(key, taken);
+        return taken;
+    }
+
+    /** Records a username that was just stored. */
+    public void add(String username) {
+        if (username == null) {
+            return;
+        }
+        String key = normalize(username);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        cache.put(key, true);
+    }
+
+    /** Forgets the cached answer for a username that was released; the filter keeps it until the next rebuild. */
+    public void remove(String username) {
+        if (username != null) {
+            cache.remove(normalize(username));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${usernames.index.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        long count = repository.count();
+        BloomFilter next = new BloomFilter(Math.max(MIN_CAPACITY, count * 2), falsePositiveRate);
+        building = next;
+        try {
+            long lastId = 0;
+            List<Object[]> rows;
+            do {
+                rows = repository.findUsernamesAfter(lastId, PageRequest.of(0, WARM_UP_PAGE_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    if (row[1] != null) {
+                        next.put(normalize((String) row[1]));
+                    }
+                }
+            } while (rows.size() == WARM_UP_PAGE_SIZE);
+            filter = next;
+            cache.clear();
+        } finally {
+            building = null;
+        }
+        LOGGER.debug("Username index rebuilt for {} profiles", count);
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Fixed-size Bloom filter over a lock-free bit array, using double hashing of a 64-bit hash. */
+    static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, (size + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            // MurmurHash3 finalizer, so both halves used for double hashing are well mixed.
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.blob;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for binary files. A blob is keyed by the SHA-256 of its bytes,
+ * so storing the same content twice keeps one copy. Derived files such as thumbnails are
+ * stored as named variants next to the blob they were made from.
+ */
+public interface BlobStore {
+
+    /** Streams {@code content} into the store and returns its hash and size. */
+    StoredBlob put(InputStream content) throws IOException;
+
+    /** Stores a variant of the blob {@code hash}, replacing an existing one with the same name. */
+    void putVariant(String hash, String variant, InputStream content) throws IOException;
+
+    Optional<Resource> get(String hash);
+
+    Optional<Resource> getVariant(String hash, String variant);
+
+    /** Removes the blob and all its variants. Unknown hashes are ignored. */
+    void delete(String hash) throws IOException;
+}
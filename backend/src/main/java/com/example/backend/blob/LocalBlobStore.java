@@ -0,0 +1,136 @@
+package com.example.backend.blob;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlobStore} on a local directory. Blobs live at {@code <root>/<first two hash
+ * characters>/<hash>} and variants at {@code <hash>.<variant>} beside them. Content is
+ * written to a temporary file while it is hashed and then moved into place, so readers
+ * never see a partial blob and an upload is never held in memory.
+ */
+@Component
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT = Pattern.compile("[a-z0-9-]{1,32}");
+
+    private final Path root;
+    private final Path incoming;
+
+    public LocalBlobStore(@Value("${blobs.local.root:data/blobs}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+    }
+
+    @Override
+    public StoredBlob put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = createTempFile();
+        try {
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (!Files.exists(target)) {
+                moveIntoPlace(temp, target);
+            }
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void putVariant(String hash, String variant, InputStream content) throws IOException {
+        Path target = pathOf(hash, variant);
+        Path temp = createTempFile();
+        try {
+            try (InputStream in = content) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String hash) {
+        return existing(pathOf(hash));
+    }
+
+    @Override
+    public Optional<Resource> getVariant(String hash, String variant) {
+        return existing(pathOf(hash, variant));
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Path blob = pathOf(hash);
+        if (!Files.isDirectory(blob.getParent())) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(blob.getParent(), hash + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path pathOf(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path pathOf(String hash, String variant) {
+        if (variant == null || !VARIANT.matcher(variant).matches()) {
+            throw new IllegalArgumentException("Invalid blob variant");
+        }
+        Path blob = pathOf(hash);
+        return blob.resolveSibling(hash + "." + variant);
+    }
+
+    private Path createTempFile() throws IOException {
+        Files.createDirectories(incoming);
+        return Files.createTempFile(incoming, "blob-", ".part");
+    }
+
+    /** Same file system as the target, so the rename is atomic and replaces an existing file. */
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Optional<Resource> existing(Path path) {
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
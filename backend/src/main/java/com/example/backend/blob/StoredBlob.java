@@ -0,0 +1,21 @@
+package com.example.backend.blob;
+
+/** Hash and size of a blob written to a {@link BlobStore}. */
+public final class StoredBlob {
+
+    private final String hash;
+    private final long size;
+
+    public StoredBlob(String hash, long size) {
+        this.hash = hash;
+        this.size = size;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
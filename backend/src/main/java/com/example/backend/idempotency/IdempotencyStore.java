@@ -0,0 +1,143 @@
+package com.example.backend.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Persistent key to response store behind {@link IdempotencyKeyFilter}. Every operation
+ * runs in its own short transaction so the request being guarded never shares one with
+ * its idempotency record. A key is claimed by inserting an {@code IN_PROGRESS} row; the
+ * unique constraint decides between concurrent claimers, on this or any other instance.
+ */
+@Service
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration claimExpiry;
+    private final Duration waitTimeout;
+    private final long pollIntervalMs;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${idempotency.ttl-ms:86400000}") long ttlMs,
+                            @Value("${idempotency.claim-expiry-ms:3600000}") long claimExpiryMs,
+                            @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                            @Value("${idempotency.poll-interval-ms:100}") long pollIntervalMs) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.claimExpiry = Duration.ofMillis(claimExpiryMs);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.pollIntervalMs = Math.max(10L, pollIntervalMs);
+    }
+
+    /**
+     * Claims {@code key} for the described request. While another request holds the key
+     * this waits for it to finish, up to the configured wait timeout, and then reports it
+     * as busy. A claim is only taken over once its claim expiry has passed, which is far
+     * longer than any request runs, so it only frees keys whose owner died before
+     * completing or releasing them.
+     */
+    public Claim claim(String key, String method, String path, String requestHash) throws InterruptedException {
+        Instant deadline = Instant.now().plus(waitTimeout);
+        while (true) {
+            IdempotencyRecord existing = transactionTemplate.execute(status -> repository
+                    .findByIdempotencyKeyAndRequestMethodAndRequestPath(key, method, path)
+                    .orElse(null));
+            Instant now = Instant.now();
+            if (existing == null || existing.getExpiresAt().isBefore(now)) {
+                if (existing != null) {
+                    transactionTemplate.executeWithoutResult(status -> repository.deleteById(existing.getId()));
+                }
+                IdempotencyRecord created = tryInsert(key, method, path, requestHash);
+                if (created != null) {
+                    return new Claim(Claim.Outcome.ACQUIRED, created);
+                }
+                continue;
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                return new Claim(Claim.Outcome.MISMATCH, existing);
+            }
+            if (existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                return new Claim(Claim.Outcome.REPLAY, existing);
+            }
+            if (now.isAfter(deadline)) {
+                return new Claim(Claim.Outcome.BUSY, existing);
+            }
+            Thread.sleep(pollIntervalMs);
+        }
+    }
+
+    public void complete(Long recordId, int responseStatus, String contentType, String body) {
+        transactionTemplate.executeWithoutResult(status -> repository.findById(recordId).ifPresent(record -> {
+            record.setStatus(IdempotencyRecord.Status.COMPLETED);
+            record.setResponseStatus(responseStatus);
+            record.setResponseContentType(contentType);
+            record.setResponseBody(body);
+            record.setExpiresAt(Instant.now().plus(ttl));
+            repository.save(record);
+        }));
+    }
+
+    /** Drops a claim so the client can retry, used when the request did not succeed. */
+    public void release(Long recordId) {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteById(recordId));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteExpired(Instant.now()));
+    }
+
+    private IdempotencyRecord tryInsert(String key, String method, String path, String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(key);
+        record.setRequestMethod(method);
+        record.setRequestPath(path);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+        record.setExpiresAt(Instant.now().plus(claimExpiry));
+        try {
+            return transactionTemplate.execute(status -> repository.saveAndFlush(record));
+        } catch (DataIntegrityViolationException ex) {
+            return null;
+        }
+    }
+
+    public static final class Claim {
+        public enum Outcome {
+            ACQUIRED,
+            REPLAY,
+            MISMATCH,
+            BUSY
+        }
+
+        private final Outcome outcome;
+        private final IdempotencyRecord record;
+
+        Claim(Outcome outcome, IdempotencyRecord record) {
+            this.outcome = outcome;
+            this.record = record;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public IdempotencyRecord getRecord() {
+            return record;
+        }
+    }
+}
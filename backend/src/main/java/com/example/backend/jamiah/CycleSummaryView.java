@@ -0,0 +1,27 @@
+package com.example.backend.jamiah;
+
+import java.time.LocalDate;
+
+/**
+ * Per-cycle aggregates computed by {@link JamiahCycleRepository#findSummariesByJamiahId(Long)}.
+ * All counts already exclude the round's recipient.
+ */
+public interface CycleSummaryView {
+    Long getId();
+
+    Integer getCycleNumber();
+
+    LocalDate getStartDate();
+
+    Boolean getCompleted();
+
+    String getRecipientUid();
+
+    Long getOrderedPayers();
+
+    Long getMemberCount();
+
+    Long getPaidCount();
+
+    Long getReceiptCount();
+}
@@ -9,22 +9,27 @@ import com.example.backend.jamiah.dto.RoundDto;
 import com.example.backend.jamiah.dto.WalletDto;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/jamiahs")
 @Validated
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "ETag")
 public class JamiahController {
     private final JamiahService service;
     private final PaymentService paymentService;
+    private final JamiahStateVersions stateVersions;
 
-    public JamiahController(JamiahService service, PaymentService paymentService) {
+    public JamiahController(JamiahService service, PaymentService paymentService, JamiahStateVersions stateVersions) {
         this.service = service;
         this.paymentService = paymentService;
+        this.stateVersions = stateVersions;
     }
 
     @GetMapping
@@ -37,13 +42,26 @@ public class JamiahController {
         return service.findAllPublic();
     }
 
+    @GetMapping("/discover")
+    public com.example.backend.jamiah.dto.DiscoveryPageDto discover(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) RateInterval rateInterval,
+            @RequestParam(required = false) java.math.BigDecimal minRate,
+            @RequestParam(required = false) java.math.BigDecimal maxRate,
+            @RequestParam(required = false) Integer minFreeSeats,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return service.discover(query, language, rateInterval, minRate, maxRate, minFreeSeats, page, size);
+    }
+
     @GetMapping("/{id}")
     public JamiahDto get(@PathVariable String id) {
         return service.findByPublicId(id);
     }
 
     @GetMapping("/{id}/members")
-    public java.util.List<com.example.backend.UserProfile> members(@PathVariable String id) {
+    public java.util.List<com.example.backend.jamiah.dto.MemberDto> members(@PathVariable String id) {
         return service.getMembers(id);
     }
 
@@ -99,36 +117,57 @@ public class JamiahController {
     }
 
     @GetMapping("/{id}/cycles")
-    public java.util.List<JamiahCycle> cycles(@PathVariable String id) {
+    public java.util.List<com.example.backend.jamiah.dto.CycleDto> cycles(@PathVariable String id) {
         return service.getCycles(id);
     }
 
     @GetMapping("/{id}/cycles/summary")
     public java.util.List<com.example.backend.jamiah.dto.CycleSummaryDto> cycleSummary(@PathVariable String id,
-                                                                                       @RequestParam String uid) {
+                                                                                       @RequestParam String uid,
+                                                                                       WebRequest request) {
+        if (notModified(request, stateVersions.ownerJamiahTag(id, uid))) {
+            return null;
+        }
         return paymentService.getCycleSummaries(id, uid);
     }
 
     @GetMapping("/{id}/cycles/{cycleId}/round")
     public RoundDto round(@PathVariable String id,
                           @PathVariable Long cycleId,
-                          @RequestParam String uid) {
+                          @RequestParam String uid,
+                          WebRequest request) {
+        if (notModified(request, stateVersions.cycleTag(id, cycleId, uid))) {
+            return null;
+        }
         return paymentService.getRound(id, cycleId, uid);
     }
 
     @GetMapping("/{id}/cycles/{cycleId}/payments")
     public java.util.List<PaymentDto> payments(@PathVariable String id,
                                                @PathVariable Long cycleId,
-                                               @RequestParam String uid) {
+                                               @RequestParam String uid,
+                                               WebRequest request) {
+        if (notModified(request, stateVersions.cycleTag(id, cycleId, uid))) {
+            return null;
+        }
         return paymentService.getPayments(id, cycleId, uid);
     }
 
     @GetMapping("/{id}/wallets")
     public java.util.List<WalletDto> wallets(@PathVariable String id,
-                                             @RequestParam String uid) {
+                                             @RequestParam String uid,
+                                             WebRequest request) {
+        if (notModified(request, stateVersions.jamiahTag(id, uid))) {
+            return null;
+        }
         return paymentService.getWallets(id, uid);
     }
 
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String id, @RequestParam String uid) {
+        return paymentService.subscribe(id, uid);
+    }
+
     @PostMapping("/join")
     public JamiahDto join(@RequestParam String code, @RequestParam String uid) {
         return service.joinByInvitation(code, uid);
@@ -187,6 +226,16 @@ public class JamiahController {
         service.delete(id, uid);
     }
 
+    /**
+     * Answers a matching If-None-Match with 304 from the version stamp alone. Stamps are only
+     * returned to callers allowed to read the view, so everyone else falls through to the
+     * regular path and its 403/404. The caller uid is part of the URL, so per-caller
+     * responses never share a cache entry.
+     */
+    private boolean notModified(WebRequest request, String etag) {
+        return etag != null && request.checkNotModified(etag);
+    }
+
     static class StartRequest {
         private java.util.List<String> order;
 
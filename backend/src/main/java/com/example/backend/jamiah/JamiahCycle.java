@@ -3,11 +3,12 @@ package com.example.backend.jamiah;
 import jakarta.persistence.*;
 import lombok.Data;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.example.backend.UserProfile;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -30,15 +31,27 @@ public class JamiahCycle {
     private LocalDate startDate;
     private Boolean completed = false;
 
+    /** Date on which the round scheduler opens the next round if it is not open yet. */
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
     /**
-     * Order of members for the whole cycle (uids in payout order).
-     * Generated once at the beginning of the cycle and copied to subsequent rounds.
+     * Whether the next round was opened (or there is none). Only changed through
+     * {@link JamiahCycleRepository#markAdvanced} so concurrent openers cannot both win.
      */
-    @ElementCollection
-    @CollectionTable(name = "jamiah_cycle_order", joinColumns = @JoinColumn(name = "cycle_id"))
-    @Column(name = "member_uid")
-    @OrderColumn(name = "order_index")
-    private List<String> memberOrder = new ArrayList<>();
+    @JsonIgnore
+    @Column(name = "advanced", insertable = false, updatable = false)
+    private Boolean advanced;
+
+    /** Rotation whose payout order this round follows; shared by all rounds of the series. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rotation_id")
+    @JsonIgnore
+    private JamiahRotation rotation;
+
+    /** Position of this round's recipient in the rotation's payout order. */
+    @Column(name = "round_index")
+    private Integer roundIndex;
 
     /** Current recipient for this round. */
     @ManyToOne(fetch = FetchType.LAZY)
@@ -52,4 +65,14 @@ public class JamiahCycle {
     @OneToMany
     @JoinColumn(name = "cycle_id", referencedColumnName = "id")
     private Set<JamiahPayment> payments = new HashSet<>();
+
+    /** Bumped by {@link JamiahStateVersions} whenever this round's payments change. */
+    @JsonIgnore
+    @Column(name = "state_version", insertable = false, updatable = false)
+    private Long stateVersion;
+
+    /** Order of members for the whole series (uids in payout order), read from the rotation. */
+    public List<String> getMemberOrder() {
+        return rotation != null ? rotation.getMemberOrder() : Collections.emptyList();
+    }
 }
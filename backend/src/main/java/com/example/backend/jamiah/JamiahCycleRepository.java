@@ -1,8 +1,93 @@
 package com.example.backend.jamiah;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface JamiahCycleRepository extends JpaRepository<JamiahCycle, Long> {
     long countByJamiahId(Long jamiahId);
     java.util.List<JamiahCycle> findByJamiahId(Long jamiahId);
+
+    /**
+     * All cycles of a Jamiah with recipient and rotation, for the cycle listing. The payout
+     * order is loaded once per rotation rather than joined onto every cycle row.
+     */
+    @Query("select c from JamiahCycle c left join fetch c.recipient left join fetch c.rotation "
+            + "where c.jamiah.id = :jamiahId order by c.id")
+    java.util.List<JamiahCycle> findListingByJamiahId(@Param("jamiahId") Long jamiahId);
+
+    @Query("select c.id as id, c.cycleNumber as cycleNumber, c.startDate as startDate, c.completed as completed, "
+            + "r.uid as recipientUid, "
+            + "(select count(o) from JamiahCycle c2 join c2.rotation rot join rot.memberOrder o "
+            + "  where c2.id = c.id and (r.uid is null or o <> r.uid)) as orderedPayers, "
+            + "(select count(m) from Jamiah j join j.members m where j.id = c.jamiah.id) as memberCount, "
+            + "(select count(p) from JamiahPayment p where p.jamiahId = c.jamiah.id and p.cycleId = c.id "
+            + "  and p.confirmed = true and (r.uid is null or p.payerUid <> r.uid)) as paidCount, "
+            + "(select count(p) from JamiahPayment p where p.jamiahId = c.jamiah.id and p.cycleId = c.id "
+            + "  and p.recipientConfirmed = true and (r.uid is null or p.payerUid <> r.uid)) as receiptCount "
+            + "from JamiahCycle c left join c.recipient r "
+            + "where c.jamiah.id = :jamiahId order by c.cycleNumber")
+    java.util.List<CycleSummaryView> findSummariesByJamiahId(@Param("jamiahId") Long jamiahId);
+
+    /**
+     * Loads a round with everything its endpoints read besides the payments: Jamiah and
+     * members, recipient and payout order. Fetching both collections in one statement
+     * multiplies their rows, which stays small for the group sizes a Jamiah allows.
+     */
+    @Query("select c from JamiahCycle c join fetch c.jamiah j left join fetch j.members "
+            + "left join fetch c.recipient left join fetch c.rotation rot left join fetch rot.memberOrder "
+            + "where c.id = :id")
+    java.util.Optional<JamiahCycle> findRoundById(@Param("id") Long id);
+
+    /**
+     * Rounds whose due date passed without the next round being opened. Rows locked by
+     * another instance are skipped (lock timeout -2 maps to SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select c from JamiahCycle c where c.advanced = false and c.dueDate <= :today order by c.dueDate, c.id")
+    java.util.List<JamiahCycle> findDueForUpdate(@Param("today") java.time.LocalDate today, Pageable pageable);
+
+    /** Loads what opening the next round reads for already locked rounds. */
+    @Query("select distinct c from JamiahCycle c join fetch c.jamiah left join fetch c.recipient "
+            + "left join fetch c.rotation rot left join fetch rot.memberOrder where c.id in :ids")
+    java.util.List<JamiahCycle> findForAdvanceByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+    /**
+     * Ids of open rounds whose contributions are due by {@code remindUntil}, after
+     * {@code afterId} in id order so callers can page through them by key.
+     */
+    @Query("select c.id from JamiahCycle c where c.completed = false and c.startDate <= :today "
+            + "and c.dueDate <= :remindUntil and c.id > :afterId order by c.id")
+    java.util.List<Long> findRemindableIds(@Param("today") java.time.LocalDate today,
+                                           @Param("remindUntil") java.time.LocalDate remindUntil,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    /** Claims opening the round after {@code id}; returns 0 when it was already opened. */
+    @Modifying
+    @Query("update JamiahCycle c set c.advanced = true where c.id = :id and c.advanced = false")
+    int markAdvanced(@Param("id") Long id);
+
+    /** Version of a round the caller may see as owner or member of its Jamiah; empty otherwise. */
+    @Query("select c.stateVersion from JamiahCycle c join c.jamiah j where c.id = :cycleId "
+            + "and j.publicId = :publicId and (j.ownerId = :uid or exists ("
+            + "select m.id from Jamiah j2 join j2.members m where j2.id = j.id and m.uid = :uid))")
+    java.util.Optional<Long> findStateVersionForMember(@Param("publicId") java.util.UUID publicId,
+                                                       @Param("cycleId") Long cycleId,
+                                                       @Param("uid") String uid);
+
+    @Modifying
+    @Query("update JamiahCycle c set c.stateVersion = c.stateVersion + 1 where c.id = :id")
+    int incrementStateVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query("update JamiahCycle c set c.stateVersion = c.stateVersion + 1 where c.jamiah.id = :jamiahId")
+    int incrementStateVersionsByJamiahId(@Param("jamiahId") Long jamiahId);
 }
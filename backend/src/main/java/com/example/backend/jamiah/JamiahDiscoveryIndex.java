@@ -0,0 +1,470 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.jamiah.dto.DiscoveryPageDto;
+import com.example.backend.jamiah.dto.JamiahDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read model behind public Jamiah discovery. {@link Postings} hold an inverted index from
+ * name and description tokens to Jamiahs plus bitsets per language and rate interval, so a
+ * search intersects bitsets instead of querying {@code jamiah}. Query terms match token
+ * prefixes; name hits rank above description hits.
+ * <p>
+ * Writes update the postings in place once their transaction commits, touching only the
+ * bits of that Jamiah. The index is built when the application is ready and rebuilt
+ * periodically to pick up writes made by other instances; until the first build, searches
+ * read from the database.
+ */
+@Component
+public class JamiahDiscoveryIndex {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JamiahDiscoveryIndex.class);
+    private static final int BUILD_PAGE_SIZE = 1000;
+    private static final BitSet NONE = new BitSet();
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.entry().id, Comparator.reverseOrder());
+
+    private final JamiahRepository repository;
+    private final BigDecimal[] rateBounds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Guarded by {@link #lock}. */
+    private Postings postings = new Postings();
+    /** Writes applied while a rebuild runs, keyed by id; an empty value records a removal. */
+    private Map<Long, Optional<Entry>> pending;
+    private volatile boolean built;
+
+    public JamiahDiscoveryIndex(JamiahRepository repository,
+                                @Value("${jamiah.discovery.rate-bounds:25,50,100,250,500}") BigDecimal[] rateBounds) {
+        this.repository = repository;
+        this.rateBounds = rateBounds.clone();
+        Arrays.sort(this.rateBounds);
+    }
+
+    /**
+     * Every public Jamiah in creation order. The full listing costs a pass over all rows
+     * either way, so it is read from the database and matches what the caller's
+     * transaction sees.
+     */
+    public List<JamiahDto> all() {
+        return new ArrayList<>(load().values());
+    }
+
+    /**
+     * Public Jamiahs matching every term of {@code text} and all given filters, best matches
+     * first. {@code minFreeSeats} also admits Jamiahs without a member limit.
+     */
+    public DiscoveryPageDto search(String text, String language, RateInterval rateInterval,
+                                   BigDecimal minRate, BigDecimal maxRate, Integer minFreeSeats,
+                                   int page, int size) {
+        List<String> terms = new ArrayList<>(tokens(text));
+        List<Hit> hits;
+        if (built) {
+            lock.readLock().lock();
+            try {
+                hits = postings.hits(terms, language, rateInterval, minRate, maxRate, minFreeSeats);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } else {
+            hits = Postings.of(load()).hits(terms, language, rateInterval, minRate, maxRate, minFreeSeats);
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String facet : List.of("language", "rateInterval", "rate", "freeSeats")) {
+            facets.put(facet, new TreeMap<>());
+        }
+        for (Hit hit : hits) {
+            Entry entry = hit.entry();
+            count(facets, "language", entry.language);
+            count(facets, "rateInterval", entry.dto.getRateInterval() != null ? entry.dto.getRateInterval().name() : null);
+            count(facets, "rate", rateBucket(entry.dto.getRateAmount()));
+            count(facets, "freeSeats", seatBucket(entry.freeSeats));
+        }
+        hits.sort(RANKING);
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageIndex = Math.max(page, 0);
+        long from = (long) pageIndex * pageSize;
+        List<JamiahDto> items = new ArrayList<>(pageSize);
+        for (long i = from; i < hits.size() && i < from + pageSize; i++) {
+            items.add(hits.get((int) i).entry().dto);
+        }
+        DiscoveryPageDto result = new DiscoveryPageDto();
+        result.setItems(items);
+        result.setTotal(hits.size());
+        result.setPage(pageIndex);
+        result.setSize(pageSize);
+        result.setFacets(facets);
+        return result;
+    }
+
+    /** Indexes or drops a saved Jamiah, depending on whether it is public. */
+    public void put(Jamiah jamiah) {
+        if (jamiah == null || jamiah.getId() == null) {
+            return;
+        }
+        Entry entry = Boolean.TRUE.equals(jamiah.getIsPublic())
+                ? new Entry(jamiah.getId(), listing(jamiah, jamiah.getMembers() != null ? jamiah.getMembers().size() : 0))
+                : null;
+        write(jamiah.getId(), entry);
+    }
+
+    public void remove(Long jamiahId) {
+        if (jamiahId != null) {
+            write(jamiahId, null);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Jamiah discovery index not built, searching the database until the next rebuild", ex);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${jamiah.discovery.rebuild-interval-ms:300000}",
+            fixedDelayString = "${jamiah.discovery.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Postings next = Postings.of(load());
+            lock.writeLock().lock();
+            try {
+                // Writes seen during the build are newer than the rows read, removals included.
+                pending.forEach((id, change) -> change.ifPresentOrElse(next::put, () -> next.remove(id)));
+                postings = next;
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.debug("Jamiah discovery index rebuilt with {} public Jamiahs", next.slotById.size());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /** Public listings by id, in id order. */
+    private Map<Long, JamiahDto> load() {
+        Map<Long, JamiahDto> listings = new LinkedHashMap<>();
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = repository.findPublicListingRowsAfter(lastId, PageRequest.of(0, BUILD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                listings.put(lastId, listing(row));
+            }
+        } while (rows.size() == BUILD_PAGE_SIZE);
+        return listings;
+    }
+
+    /** Applies the write once the surrounding transaction commits, or right away outside one. */
+    private void write(Long id, Entry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(id, entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(id, entry);
+            }
+        });
+    }
+
+    private void apply(Long id, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (entry == null) {
+                postings.remove(id);
+            } else {
+                postings.put(entry);
+            }
+            if (pending != null) {
+                pending.put(id, Optional.ofNullable(entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private String rateBucket(BigDecimal rate) {
+        if (rate == null) {
+            return null;
+        }
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : rateBounds) {
+            if (rate.compareTo(bound) < 0) {
+                return lower.toPlainString() + "-" + bound.toPlainString();
+            }
+            lower = bound;
+        }
+        return lower.toPlainString() + "+";
+    }
+
+    private static String seatBucket(Integer freeSeats) {
+        if (freeSeats == null) {
+            return "unlimited";
+        }
+        if (freeSeats <= 0) {
+            return "full";
+        }
+        return freeSeats == 1 ? "1" : freeSeats < 5 ? "2-4" : "5+";
+    }
+
+    private static void count(Map<String, Map<String, Long>> facets, String facet, String value) {
+        if (value != null) {
+            facets.get(facet).merge(value, 1L, Long::sum);
+        }
+    }
+
+    /** Listing fields only; invitation codes and payment account details stay out of the index. */
+    private static JamiahDto listing(Jamiah jamiah, int memberCount) {
+        JamiahDto dto = new JamiahDto();
+        dto.setId(jamiah.getPublicId());
+        dto.setOwnerId(jamiah.getOwnerId());
+        dto.setName(jamiah.getName());
+        dto.setDescription(jamiah.getDescription());
+        dto.setLanguage(jamiah.getLanguage());
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize(jamiah.getMaxGroupSize());
+        dto.setMaxMembers(jamiah.getMaxMembers());
+        dto.setCurrentMembers(memberCount);
+        dto.setCycleCount(jamiah.getCycleCount());
+        dto.setRateAmount(jamiah.getRateAmount());
+        dto.setRateInterval(jamiah.getRateInterval());
+        dto.setStartDate(jamiah.getStartDate());
+        dto.setPaymentMethod(jamiah.getPaymentMethod());
+        return dto;
+    }
+
+    /** Row layout of {@link JamiahRepository#findPublicListingRowsAfter}. */
+    private static JamiahDto listing(Object[] row) {
+        JamiahDto dto = new JamiahDto();
+        dto.setId((UUID) row[1]);
+        dto.setOwnerId((String) row[2]);
+        dto.setName((String) row[3]);
+        dto.setDescription((String) row[4]);
+        dto.setLanguage((String) row[5]);
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize((Integer) row[6]);
+        dto.setMaxMembers((Integer) row[7]);
+        dto.setCycleCount((Integer) row[8]);
+        dto.setRateAmount((BigDecimal) row[9]);
+        dto.setRateInterval((RateInterval) row[10]);
+        dto.setStartDate((LocalDate) row[11]);
+        dto.setPaymentMethod((String) row[12]);
+        dto.setCurrentMembers(((Number) row[13]).intValue());
+        return dto;
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text != null) {
+            for (String token : normalize(text).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Hit(Entry entry, int score) {
+    }
+
+    private static final class Entry {
+        private final Long id;
+        private final JamiahDto dto;
+        private final Set<String> nameTokens;
+        private final Set<String> descriptionTokens;
+        private final String language;
+        /** {@code null} without a member limit. */
+        private final Integer freeSeats;
+
+        private Entry(Long id, JamiahDto dto) {
+            this.id = id;
+            this.dto = dto;
+            this.nameTokens = tokens(dto.getName());
+            this.descriptionTokens = tokens(dto.getDescription());
+            this.language = dto.getLanguage() != null && !dto.getLanguage().isBlank() ? normalize(dto.getLanguage()) : null;
+            this.freeSeats = dto.getMaxMembers() != null
+                    ? Math.max(0, dto.getMaxMembers() - dto.getCurrentMembers())
+                    : null;
+        }
+
+        private boolean accepts(BigDecimal minRate, BigDecimal maxRate, Integer minFreeSeats) {
+            BigDecimal rate = dto.getRateAmount();
+            if ((minRate != null || maxRate != null) && rate == null) {
+                return false;
+            }
+            if (minRate != null && rate.compareTo(minRate) < 0) {
+                return false;
+            }
+            if (maxRate != null && rate.compareTo(maxRate) > 0) {
+                return false;
+            }
+            return minFreeSeats == null || freeSeats == null || freeSeats >= minFreeSeats;
+        }
+
+        /** Per term 3 for a whole name token, 2 for a name prefix, 1 for a description match. */
+        private int score(List<String> terms) {
+            int score = 0;
+            for (String term : terms) {
+                if (nameTokens.contains(term)) {
+                    score += 3;
+                } else if (nameTokens.stream().anyMatch(token -> token.startsWith(term))) {
+                    score += 2;
+                } else if (descriptionTokens.stream().anyMatch(token -> token.startsWith(term))) {
+                    score += 1;
+                }
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Mutable postings, guarded by the index lock. Each Jamiah keeps its slot across updates;
+     * a removal leaves a hole that the next rebuild compacts.
+     */
+    private static final class Postings {
+        /** Bit positions below refer to this list; {@code null} marks a removed Jamiah. */
+        private final List<Entry> slots = new ArrayList<>();
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final TreeMap<String, BitSet> tokens = new TreeMap<>();
+        private final Map<String, BitSet> languages = new HashMap<>();
+        private final Map<RateInterval, BitSet> intervals = new EnumMap<>(RateInterval.class);
+
+        static Postings of(Map<Long, JamiahDto> listings) {
+            Postings postings = new Postings();
+            listings.forEach((id, dto) -> postings.put(new Entry(id, dto)));
+            return postings;
+        }
+
+        private void put(Entry entry) {
+            Integer slot = slotById.get(entry.id);
+            if (slot == null) {
+                slot = slots.size();
+                slots.add(entry);
+                slotById.put(entry.id, slot);
+            } else {
+                mark(slots.get(slot), slot, false);
+                slots.set(slot, entry);
+            }
+            mark(entry, slot, true);
+            live.set(slot);
+        }
+
+        private void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                mark(slots.get(slot), slot, false);
+                slots.set(slot, null);
+                live.clear(slot);
+            }
+        }
+
+        private List<Hit> hits(List<String> terms, String language, RateInterval rateInterval,
+                               BigDecimal minRate, BigDecimal maxRate, Integer minFreeSeats) {
+            BitSet matches = (BitSet) live.clone();
+            for (String term : terms) {
+                BitSet any = new BitSet(slots.size());
+                tokens.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(any::or);
+                matches.and(any);
+            }
+            if (language != null && !language.isBlank()) {
+                matches.and(languages.getOrDefault(normalize(language), NONE));
+            }
+            if (rateInterval != null) {
+                matches.and(intervals.getOrDefault(rateInterval, NONE));
+            }
+            List<Hit> hits = new ArrayList<>();
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                Entry entry = slots.get(i);
+                if (entry.accepts(minRate, maxRate, minFreeSeats)) {
+                    hits.add(new Hit(entry, entry.score(terms)));
+                }
+            }
+            return hits;
+        }
+
+        private void mark(Entry entry, int slot, boolean set) {
+            for (String token : entry.nameTokens) {
+                mark(tokens, token, slot, set);
+            }
+            for (String token : entry.descriptionTokens) {
+                mark(tokens, token, slot, set);
+            }
+            if (entry.language != null) {
+                mark(languages, entry.language, slot, set);
+            }
+            if (entry.dto.getRateInterval() != null) {
+                mark(intervals, entry.dto.getRateInterval(), slot, set);
+            }
+        }
+
+        /** Sets or clears one bit, dropping bitsets that become empty. */
+        private static <K> void mark(Map<K, BitSet> postings, K key, int slot, boolean set) {
+            if (set) {
+                postings.computeIfAbsent(key, k -> new BitSet()).set(slot);
+                return;
+            }
+            BitSet bits = postings.get(key);
+            if (bits != null) {
+                bits.clear(slot);
+                if (bits.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+}
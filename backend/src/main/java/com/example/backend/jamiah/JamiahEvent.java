@@ -0,0 +1,73 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.jamiah.dto.JamiahEventDto;
+import com.example.backend.jamiah.dto.PaymentDto;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Application event delivered to {@link JamiahEventBroadcaster} once the publishing
+ * transaction has committed. {@code audience} limits delivery to the given uids plus
+ * the owner; {@code null} means every subscribed member.
+ */
+public class JamiahEvent {
+    private final Long jamiahId;
+    private final Set<String> audience;
+    private final JamiahEventDto payload;
+
+    private JamiahEvent(Long jamiahId, Set<String> audience, JamiahEventDto payload) {
+        this.jamiahId = jamiahId;
+        this.audience = audience;
+        this.payload = payload;
+    }
+
+    public static JamiahEvent paymentUpdated(Long jamiahId, Long cycleId, Long paymentId, String payerUid,
+                                             PaymentDto.PaymentStatus status) {
+        JamiahEventDto payload = new JamiahEventDto();
+        payload.setType(JamiahEventDto.Type.PAYMENT_UPDATED);
+        payload.setCycleId(cycleId);
+        payload.setPaymentId(paymentId);
+        payload.setPayerUid(payerUid);
+        payload.setStatus(status);
+        return new JamiahEvent(jamiahId, null, payload);
+    }
+
+    public static JamiahEvent roundCompleted(Long jamiahId, Long cycleId, String recipientUid) {
+        JamiahEventDto payload = new JamiahEventDto();
+        payload.setType(JamiahEventDto.Type.ROUND_COMPLETED);
+        payload.setCycleId(cycleId);
+        payload.setRecipientUid(recipientUid);
+        return new JamiahEvent(jamiahId, null, payload);
+    }
+
+    public static JamiahEvent roundOpened(Long jamiahId, Long cycleId, String recipientUid) {
+        JamiahEventDto payload = new JamiahEventDto();
+        payload.setType(JamiahEventDto.Type.ROUND_OPENED);
+        payload.setCycleId(cycleId);
+        payload.setRecipientUid(recipientUid);
+        return new JamiahEvent(jamiahId, null, payload);
+    }
+
+    /** Balances are only visible to the wallet's member and the owner, mirroring getWallets. */
+    public static JamiahEvent walletUpdated(Long jamiahId, String memberUid, BigDecimal balance, BigDecimal reserved) {
+        JamiahEventDto payload = new JamiahEventDto();
+        payload.setType(JamiahEventDto.Type.WALLET_UPDATED);
+        payload.setMemberUid(memberUid);
+        payload.setBalance(balance);
+        payload.setReserved(reserved);
+        return new JamiahEvent(jamiahId, memberUid != null ? Set.of(memberUid) : Set.of(), payload);
+    }
+
+    public Long getJamiahId() {
+        return jamiahId;
+    }
+
+    public Set<String> getAudience() {
+        return audience;
+    }
+
+    public JamiahEventDto getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.backend.jamiah;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans out {@link JamiahEvent}s to the SSE subscribers of a Jamiah. Connections are held
+ * as async requests, so idle subscribers cost no request thread. Publishing only appends to
+ * a bounded queue per subscriber; a small sender pool drains each queue on its own, so one
+ * slow client never delays the others. Subscribers whose queue overflows or whose current
+ * write takes longer than the send timeout are disconnected. Heartbeats run on the
+ * broadcaster's own timer rather than the shared scheduler.
+ * Subscribers only receive events of the instance they are connected to and should
+ * reload the round after reconnecting.
+ */
+@Component
+public class JamiahEventBroadcaster {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JamiahEventBroadcaster.class);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService timer;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final int maxQueued;
+
+    public JamiahEventBroadcaster(@Value("${jamiah.events.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${jamiah.events.heartbeat-ms:25000}") long heartbeatMs,
+                                  @Value("${jamiah.events.send-timeout-ms:10000}") long sendTimeoutMs,
+                                  @Value("${jamiah.events.max-queued:100}") int maxQueued,
+                                  @Value("${jamiah.events.sender-threads:4}") int senderThreads) {
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.maxQueued = Math.max(1, maxQueued);
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), daemon("jamiah-events"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon("jamiah-events-heartbeat"));
+        if (heartbeatMs > 0) {
+            timer.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public SseEmitter subscribe(Long jamiahId, String uid, boolean owner) {
+        SseEmitter emitter = createEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(jamiahId, emitter, uid, owner);
+        subscribers.compute(jamiahId, (id, group) -> {
+            Set<Subscriber> target = group != null ? group : ConcurrentHashMap.<Subscriber>newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        Runnable remove = subscriber::close;
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(ignored -> remove.run());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(JamiahEvent event) {
+        Set<Subscriber> group = subscribers.get(event.getJamiahId());
+        if (group == null) {
+            return;
+        }
+        for (Subscriber subscriber : group) {
+            if (subscriber.accepts(event)) {
+                subscriber.offer(() -> SseEmitter.event()
+                        .name(event.getPayload().getType().name())
+                        .data(event.getPayload(), MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /** Closes the streams of callers who are no longer allowed to follow the Jamiah. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(JamiahMembershipChanged change) {
+        Set<Subscriber> group = subscribers.get(change.getJamiahId());
+        if (group == null) {
+            return;
+        }
+        for (Subscriber subscriber : group) {
+            if (!change.allows(subscriber.uid) && subscriber.close()) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /** Keeps idle connections open through proxies and disconnects clients that stopped reading. */
+    void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> {
+            if (subscriber.stalled(now)) {
+                subscriber.drop(new IOException("send timed out"));
+            } else {
+                subscriber.offer(() -> SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    int subscriberCount(Long jamiahId) {
+        Set<Subscriber> group = subscribers.get(jamiahId);
+        return group != null ? group.size() : 0;
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.jamiahId, (id, group) -> {
+            group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+        private final Long jamiahId;
+        private final SseEmitter emitter;
+        private final String uid;
+        private final boolean owner;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long sendingSince;
+
+        private Subscriber(Long jamiahId, SseEmitter emitter, String uid, boolean owner) {
+            this.jamiahId = jamiahId;
+            this.emitter = emitter;
+            this.uid = uid;
+            this.owner = owner;
+        }
+
+        private boolean accepts(JamiahEvent event) {
+            return event.getAudience() == null || owner || event.getAudience().contains(uid);
+        }
+
+        private void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                drop(new IOException("too many undelivered events"));
+                return;
+            }
+            queue.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> next;
+                while (!closed.get() && (next = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    sendingSince = System.nanoTime();
+                    try {
+                        emitter.send(next.get());
+                    } catch (IOException | IllegalStateException ex) {
+                        drop(ex);
+                        return;
+                    } finally {
+                        sendingSince = 0;
+                    }
+                }
+            } finally {
+                draining.set(false);
+                if (!closed.get() && !queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private boolean stalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > sendTimeoutNanos;
+        }
+
+        private void drop(Exception reason) {
+            if (close()) {
+                LOGGER.debug("Dropping event subscriber for jamiah {}: {}", jamiahId, reason.getMessage());
+                emitter.completeWithError(reason);
+            }
+        }
+
+        /** Returns whether this call closed the subscriber. */
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            queue.clear();
+            unsubscribe(this);
+            return true;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.jamiah;
 
+import com.example.backend.jamiah.dto.CycleDto;
 import com.example.backend.jamiah.dto.JamiahDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -15,4 +16,10 @@ public interface JamiahMapper {
     @Mapping(target = "publicId", source = "id")
     @Mapping(target = "members", ignore = true)
     Jamiah toEntity(JamiahDto dto);
+
+    CycleDto toCycleDto(JamiahCycle cycle);
+
+    CycleDto.Recipient toCycleRecipient(com.example.backend.UserProfile profile);
+
+    java.util.List<CycleDto> toCycleDtos(java.util.List<JamiahCycle> cycles);
 }
@@ -0,0 +1,32 @@
+package com.example.backend.jamiah;
+
+import java.util.Set;
+
+/**
+ * Published when the members of a Jamiah change or the Jamiah is deleted. Once the change
+ * has committed, {@link JamiahEventBroadcaster} closes the streams of everyone who is no
+ * longer the owner or a member.
+ */
+public class JamiahMembershipChanged {
+    private final Long jamiahId;
+    private final String ownerUid;
+    private final Set<String> memberUids;
+
+    public JamiahMembershipChanged(Long jamiahId, String ownerUid, Set<String> memberUids) {
+        this.jamiahId = jamiahId;
+        this.ownerUid = ownerUid;
+        this.memberUids = Set.copyOf(memberUids);
+    }
+
+    public static JamiahMembershipChanged deleted(Long jamiahId) {
+        return new JamiahMembershipChanged(jamiahId, null, Set.of());
+    }
+
+    public Long getJamiahId() {
+        return jamiahId;
+    }
+
+    public boolean allows(String uid) {
+        return uid != null && (uid.equals(ownerUid) || memberUids.contains(uid));
+    }
+}
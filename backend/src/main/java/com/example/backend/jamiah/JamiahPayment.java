@@ -38,4 +38,8 @@ public class JamiahPayment {
 
     @Column(name = "stripe_payment_intent_id")
     private String stripePaymentIntentId;
+
+    /** Number of amount updates sent for the PaymentIntent; keys the next update. */
+    @Column(name = "intent_revision", nullable = false)
+    private Integer intentRevision = 0;
 }
@@ -6,13 +6,45 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface JamiahPaymentRepository extends JpaRepository<JamiahPayment, Long> {
+public interface JamiahPaymentRepository extends JpaRepository<JamiahPayment, Long>, JamiahPaymentRepositoryCustom {
     java.util.Optional<JamiahPayment> findByJamiahIdAndCycleIdAndPayerUid(Long jamiahId, Long cycleId, String payerUid);
 
     java.util.List<JamiahPayment> findAllByJamiahIdAndCycleId(Long jamiahId, Long cycleId);
 
+    /** Unpaid contributions of the given rounds with their due dates, read through the (confirmed, cycle_id) index. */
+    @Query("select p.payerUid as payerUid, p.jamiahId as jamiahId, p.cycleId as cycleId, c.dueDate as dueDate "
+            + "from JamiahPayment p join JamiahCycle c on c.id = p.cycleId "
+            + "where p.confirmed = false and p.cycleId in :cycleIds")
+    java.util.List<OpenPaymentView> findOpenByCycleIdIn(@Param("cycleIds") java.util.Collection<Long> cycleIds);
+
+    /**
+     * Payments of a round together with the summary columns of the payer. Rows are
+     * {@code [payment, id, uid, username, firstName, lastName, profileImageHash]}, the
+     * payer columns being {@code null} for payers without a profile.
+     */
+    @Query("select p, u.id, u.uid, u.username, u.firstName, u.lastName, u.profileImageHash "
+            + "from JamiahPayment p left join UserProfile u on u.uid = p.payerUid "
+            + "where p.jamiahId = :jamiahId and p.cycleId = :cycleId")
+    java.util.List<Object[]> findAllWithPayerByJamiahIdAndCycleId(@Param("jamiahId") Long jamiahId,
+                                                                  @Param("cycleId") Long cycleId);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select p from JamiahPayment p where p.jamiahId = :jamiahId and p.cycleId = :cycleId")
     java.util.List<JamiahPayment> findAllByJamiahIdAndCycleIdForUpdate(@Param("jamiahId") Long jamiahId,
                                                                       @Param("cycleId") Long cycleId);
+
+    /**
+     * Loads the requested payments of {@code uid} together with their cycle and Jamiah,
+     * restricted to Jamiahs the caller owns or belongs to. Rows are {@code [payment, cycle, jamiah]}.
+     */
+    @Query("select p, c, j from JamiahPayment p, JamiahCycle c join c.jamiah j "
+            + "where p.id in :ids and c.id = p.cycleId and j.id = p.jamiahId and p.payerUid = :uid "
+            + "and (j.ownerId = :uid or exists (select m.id from Jamiah jm join jm.members m "
+            + "where jm.id = j.id and m.uid = :uid))")
+    java.util.List<Object[]> findAuthorizedForPayer(@Param("ids") java.util.Collection<Long> ids,
+                                                    @Param("uid") String uid);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from JamiahPayment p where p.id in :ids order by p.id")
+    java.util.List<JamiahPayment> findAllByIdInForUpdate(@Param("ids") java.util.Collection<Long> ids);
 }
@@ -0,0 +1,14 @@
+package com.example.backend.jamiah;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+public interface JamiahPaymentRepositoryCustom {
+
+    /**
+     * Inserts one open payment per payer with a single multi-row statement per chunk.
+     *
+     * @return number of inserted rows
+     */
+    int insertOpenPayments(Long jamiahId, Long cycleId, BigDecimal amount, Collection<String> payerUids);
+}
@@ -0,0 +1,49 @@
+package com.example.backend.jamiah;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+class JamiahPaymentRepositoryImpl implements JamiahPaymentRepositoryCustom {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertOpenPayments(Long jamiahId, Long cycleId, BigDecimal amount, Collection<String> payerUids) {
+        if (payerUids == null || payerUids.isEmpty()) {
+            return 0;
+        }
+        // Payment ids are IDENTITY columns, which rules out Hibernate's JDBC batching;
+        // a multi-row VALUES list keeps opening a round at one statement per chunk.
+        List<String> uids = new ArrayList<>(payerUids);
+        int inserted = 0;
+        for (int start = 0; start < uids.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<String> chunk = uids.subList(start, Math.min(start + MAX_ROWS_PER_STATEMENT, uids.size()));
+            StringBuilder sql = new StringBuilder("insert into jamiah_payments "
+                    + "(jamiah_id, cycle_id, payer_uid, amount, confirmed, recipient_confirmed) values ");
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(?1, ?2, ?").append(i + 4).append(", ?3, false, false)");
+            }
+            Query query = entityManager.createNativeQuery(sql.toString())
+                    .setParameter(1, jamiahId)
+                    .setParameter(2, cycleId)
+                    .setParameter(3, amount);
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 4, chunk.get(i));
+            }
+            inserted += query.executeUpdate();
+        }
+        return inserted;
+    }
+}
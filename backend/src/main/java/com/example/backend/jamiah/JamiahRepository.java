@@ -35,11 +35,36 @@ public interface JamiahRepository extends JpaRepository<Jamiah, Long> {
     @Query("select count(m) from Jamiah j join j.members m where j.id = :id")
     long countMembers(@Param("id") Long id);
 
+    /**
+     * Members of a Jamiah with the owner id and the status of the member's join request,
+     * if any. Rows are {@code [id, uid, username, firstName, lastName, profileImageHash,
+     * ownerId, requestStatus]}, ordered by username.
+     */
+    @Query("select m.id, m.uid, m.username, m.firstName, m.lastName, m.profileImageHash, j.ownerId, r.status "
+            + "from Jamiah j join j.members m "
+            + "left join JamiahJoinRequest r on r.jamiah = j and r.user = m "
+            + "where j.id = :id order by m.username")
+    java.util.List<Object[]> findMemberRowsById(@Param("id") Long id);
+
+    @Query("select count(m) > 0 from Jamiah j join j.members m where j.id = :id and m.uid = :uid")
+    boolean isMember(@Param("id") Long id, @Param("uid") String uid);
+
     /**
      * Find all public Jamiahs.
      */
     java.util.List<Jamiah> findByIsPublicTrue();
 
+    /**
+     * Listing columns of public Jamiahs, ordered by id, for walking them in pages. Rows are
+     * {@code [id, publicId, ownerId, name, description, language, maxGroupSize, maxMembers,
+     * cycleCount, rateAmount, rateInterval, startDate, paymentMethod, memberCount]}.
+     */
+    @Query("select j.id, j.publicId, j.ownerId, j.name, j.description, j.language, j.maxGroupSize, "
+            + "j.maxMembers, j.cycleCount, j.rateAmount, j.rateInterval, j.startDate, j.paymentMethod, "
+            + "size(j.members) from Jamiah j where j.isPublic = true and j.id > :afterId order by j.id")
+    java.util.List<Object[]> findPublicListingRowsAfter(@Param("afterId") Long afterId,
+                                                        org.springframework.data.domain.Pageable pageable);
+
     /**
      * Fetch a Jamiah with members by numeric id.
      */
@@ -0,0 +1,39 @@
+package com.example.backend.jamiah;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payout order of one series of rounds. It is written once when the series starts and
+ * every {@link JamiahCycle} of the series refers to it together with its position.
+ */
+@Data
+@Entity
+@Table(name = "jamiah_rotations")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class JamiahRotation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "jamiah_id", nullable = false)
+    @JsonIgnore
+    private Jamiah jamiah;
+
+    /** Member uids in payout order. */
+    @ElementCollection
+    @CollectionTable(name = "jamiah_rotation_order", joinColumns = @JoinColumn(name = "rotation_id"))
+    @Column(name = "member_uid")
+    @OrderColumn(name = "order_index")
+    private List<String> memberOrder = new ArrayList<>();
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,6 @@
+package com.example.backend.jamiah;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JamiahRotationRepository extends JpaRepository<JamiahRotation, Long> {
+}
@@ -27,8 +27,14 @@ public class JamiahService {
     private final JamiahMapper mapper;
     private final com.example.backend.UserProfileRepository userRepository;
     private final JamiahCycleRepository cycleRepository;
+    private final JamiahRotationRepository rotationRepository;
+    private final JamiahPaymentRepository paymentRepository;
     private final JamiahJoinRequestRepository joinRequestRepository;
     private final com.example.backend.wallet.WalletService walletService;
+    private final RoundSnapshotCache roundSnapshotCache;
+    private final JamiahStateVersions stateVersions;
+    private final JamiahDiscoveryIndex discoveryIndex;
+    private final org.springframework.context.ApplicationEventPublisher eventPublisher;
 
     private static final Logger log = LoggerFactory.getLogger(JamiahService.class);
 
@@ -45,14 +51,26 @@ public class JamiahService {
                          JamiahMapper mapper,
                          com.example.backend.UserProfileRepository userRepository,
                          JamiahCycleRepository cycleRepository,
+                         JamiahRotationRepository rotationRepository,
+                         JamiahPaymentRepository paymentRepository,
                          JamiahJoinRequestRepository joinRequestRepository,
-                         com.example.backend.wallet.WalletService walletService) {
+                         com.example.backend.wallet.WalletService walletService,
+                         RoundSnapshotCache roundSnapshotCache,
+                         JamiahStateVersions stateVersions,
+                         JamiahDiscoveryIndex discoveryIndex,
+                         org.springframework.context.ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
         this.mapper = mapper;
         this.userRepository = userRepository;
         this.cycleRepository = cycleRepository;
+        this.rotationRepository = rotationRepository;
+        this.paymentRepository = paymentRepository;
         this.joinRequestRepository = joinRequestRepository;
         this.walletService = walletService;
+        this.roundSnapshotCache = roundSnapshotCache;
+        this.stateVersions = stateVersions;
+        this.discoveryIndex = discoveryIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<JamiahDto> findAll() {
@@ -62,12 +80,21 @@ public class JamiahService {
     }
 
     /**
-     * Retrieve all public Jamiahs.
+     * Retrieve all public Jamiahs as listings, without invitation codes or payment details.
      */
     public List<JamiahDto> findAllPublic() {
-        return repository.findByIsPublicTrue().stream()
-                .map(mapper::toDto)
-                .collect(Collectors.toList());
+        return discoveryIndex.all();
+    }
+
+    /**
+     * Search public Jamiahs by name and description with facet filters, served from the
+     * discovery index.
+     */
+    public com.example.backend.jamiah.dto.DiscoveryPageDto discover(String query, String language,
+                                                                    RateInterval rateInterval,
+                                                                    BigDecimal minRate, BigDecimal maxRate,
+                                                                    Integer minFreeSeats, int page, int size) {
+        return discoveryIndex.search(query, language, rateInterval, minRate, maxRate, minFreeSeats, page, size);
     }
 
     public JamiahDto create(JamiahDto dto) {
@@ -87,6 +114,7 @@ public class JamiahService {
         }
         Jamiah saved = repository.save(entity);
         provisionWallets(saved);
+        discoveryIndex.put(saved);
         return mapper.toDto(saved);
     }
 
@@ -107,6 +135,7 @@ public class JamiahService {
         }
         Jamiah saved = repository.save(j);
         provisionWallets(saved);
+        discoveryIndex.put(saved);
         return mapper.toDto(saved);
     }
 
@@ -125,7 +154,10 @@ public class JamiahService {
         entity.setRateInterval(dto.getRateInterval());
         entity.setStartDate(dto.getStartDate());
         applyPaymentSettings(entity, dto);
-        return mapper.toDto(repository.save(entity));
+        jamiahChanged(entity.getId());
+        Jamiah saved = repository.save(entity);
+        discoveryIndex.put(saved);
+        return mapper.toDto(saved);
     }
 
     public JamiahDto update(String publicId, JamiahDto dto, String uid) {
@@ -143,7 +175,10 @@ public class JamiahService {
         entity.setRateInterval(dto.getRateInterval());
         entity.setStartDate(dto.getStartDate());
         applyPaymentSettings(entity, dto);
-        return mapper.toDto(repository.save(entity));
+        jamiahChanged(entity.getId());
+        Jamiah saved = repository.save(entity);
+        discoveryIndex.put(saved);
+        return mapper.toDto(saved);
     }
 
     public JamiahDto update(String publicId, JamiahDto dto) {
@@ -219,6 +254,9 @@ public class JamiahService {
             user.getJamiahs().add(entity);
             repository.save(entity);
             provisionWallets(entity);
+            jamiahChanged(entity.getId());
+            membersChanged(entity);
+            discoveryIndex.put(entity);
         }
         return mapper.toDto(entity);
     }
@@ -241,6 +279,9 @@ public class JamiahService {
             user.getJamiahs().add(entity);
             repository.save(entity);
             provisionWallets(entity);
+            jamiahChanged(entity.getId());
+            membersChanged(entity);
+            discoveryIndex.put(entity);
         }
         return mapper.toDto(entity);
     }
@@ -323,6 +364,9 @@ public class JamiahService {
             req.getUser().getJamiahs().add(jamiah);
             repository.save(jamiah);
             provisionWallets(jamiah);
+            jamiahChanged(jamiah.getId());
+            membersChanged(jamiah);
+            discoveryIndex.put(jamiah);
         } else {
             req.setStatus(JamiahJoinRequest.Status.REJECTED);
         }
@@ -354,38 +398,48 @@ public class JamiahService {
     }
 
     /**
-     * Retrieve all members of the Jamiah identified by the public id.
+     * Members of a Jamiah with their join origin, read with one joined query. Only a
+     * per-origin count is logged, at debug level.
      */
-    public java.util.List<com.example.backend.UserProfile> getMembers(String publicId) {
+    public java.util.List<com.example.backend.jamiah.dto.MemberDto> getMembers(String publicId) {
         Jamiah base = getByPublicId(publicId);
-        Jamiah withMembers = repository.findWithMembersById(base.getId())
-                .orElse(base);
-        java.util.List<JamiahJoinRequest> requests = joinRequestRepository.findByJamiah(withMembers);
-        Map<Long, JamiahJoinRequest.Status> statusByUserId = new HashMap<>();
-        for (JamiahJoinRequest req : requests) {
-            if (req.getUser() != null && req.getUser().getId() != null) {
-                statusByUserId.put(req.getUser().getId(), req.getStatus());
-            }
-        }
-
-        for (com.example.backend.UserProfile member : withMembers.getMembers()) {
-            JamiahJoinRequest.Status status = statusByUserId.get(member.getId());
+        java.util.List<Object[]> rows = repository.findMemberRowsById(base.getId());
+        java.util.List<com.example.backend.jamiah.dto.MemberDto> members = new java.util.ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            com.example.backend.jamiah.dto.MemberDto member = new com.example.backend.jamiah.dto.MemberDto();
+            member.setId((Long) row[0]);
+            member.setUid((String) row[1]);
+            member.setUsername((String) row[2]);
+            member.setFirstName((String) row[3]);
+            member.setLastName((String) row[4]);
+            member.setProfileImageHash((String) row[5]);
+            JamiahJoinRequest.Status status = (JamiahJoinRequest.Status) row[7];
+            member.setJoinRequestStatus(status);
             if (status != null) {
-                log.info("User {} returned as member; join request status: {}", member.getUid(), status);
-            } else if (withMembers.getOwnerId() != null && withMembers.getOwnerId().equals(member.getUid())) {
-                log.info("User {} returned as member; reason: owner", member.getUid());
+                member.setJoinOrigin(com.example.backend.jamiah.dto.MemberDto.JoinOrigin.JOIN_REQUEST);
+            } else if (row[6] != null && row[6].equals(member.getUid())) {
+                member.setJoinOrigin(com.example.backend.jamiah.dto.MemberDto.JoinOrigin.OWNER);
             } else {
-                log.info("User {} returned as member; reason: directly added", member.getUid());
+                member.setJoinOrigin(com.example.backend.jamiah.dto.MemberDto.JoinOrigin.DIRECT);
             }
+            members.add(member);
         }
-
-        return new java.util.ArrayList<>(withMembers.getMembers());
+        if (log.isDebugEnabled()) {
+            log.debug("Returning {} members of Jamiah {}: {}", members.size(), base.getId(), members.stream()
+                    .collect(java.util.stream.Collectors.groupingBy(
+                            com.example.backend.jamiah.dto.MemberDto::getJoinOrigin,
+                            java.util.stream.Collectors.counting())));
+        }
+        return members;
     }
 
     public void delete(String publicId, String uid) {
         Jamiah entity = getByPublicId(publicId);
         ensureOwner(entity, uid);
         repository.delete(entity);
+        roundSnapshotCache.evictJamiah(entity.getId());
+        eventPublisher.publishEvent(JamiahMembershipChanged.deleted(entity.getId()));
+        discoveryIndex.remove(entity.getId());
     }
 
     public void delete(String publicId) {
@@ -414,6 +468,19 @@ public class JamiahService {
         }
     }
 
+    private void jamiahChanged(Long jamiahId) {
+        roundSnapshotCache.evictJamiah(jamiahId);
+        stateVersions.touchAll(jamiahId);
+    }
+
+    private void membersChanged(Jamiah jamiah) {
+        eventPublisher.publishEvent(new JamiahMembershipChanged(jamiah.getId(), jamiah.getOwnerId(),
+                jamiah.getMembers().stream()
+                        .map(com.example.backend.UserProfile::getUid)
+                        .filter(java.util.Objects::nonNull)
+                        .collect(java.util.stream.Collectors.toSet())));
+    }
+
     private void provisionWallets(Jamiah jamiah) {
         if (jamiah == null || walletService == null) {
             return;
@@ -484,24 +551,38 @@ public class JamiahService {
         if (jamiah.getStartDate() == null) {
             jamiah.setStartDate(LocalDate.now());
             repository.save(jamiah);
+            discoveryIndex.put(withMembers);
         }
         provisionWallets(withMembers);
         JamiahCycle cycle = new JamiahCycle();
         cycle.setJamiah(jamiah);
         cycle.setCycleNumber(1);
         cycle.setStartDate(jamiah.getStartDate());
+        cycle.setDueDate(RateInterval.orDefault(jamiah.getRateInterval()).after(jamiah.getStartDate()));
         cycle.setCompleted(false);
-        cycle.setMemberOrder(order == null ? null : new java.util.ArrayList<>(order));
+        JamiahRotation rotation = new JamiahRotation();
+        rotation.setJamiah(jamiah);
+        rotation.setMemberOrder(new java.util.ArrayList<>(order));
+        cycle.setRotation(rotationRepository.save(rotation));
+        cycle.setRoundIndex(0);
         String firstUid = order.get(0);
         com.example.backend.UserProfile first = userRepository.findByUid(firstUid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
         cycle.setRecipient(first);
-        return cycleRepository.save(cycle);
+        JamiahCycle saved = cycleRepository.save(cycle);
+        if (jamiah.getRateAmount() != null) {
+            // Open payments exist from the start so reminders find them before anyone views the round.
+            paymentRepository.insertOpenPayments(jamiah.getId(), saved.getId(), jamiah.getRateAmount(),
+                    order.stream().distinct().filter(payerUid -> !payerUid.equals(firstUid))
+                            .collect(java.util.stream.Collectors.toList()));
+        }
+        stateVersions.touchJamiah(jamiah.getId());
+        return saved;
     }
 
-    public java.util.List<JamiahCycle> getCycles(String jamiahPublicId) {
+    public java.util.List<com.example.backend.jamiah.dto.CycleDto> getCycles(String jamiahPublicId) {
         Jamiah jamiah = getByPublicId(jamiahPublicId);
-        return cycleRepository.findByJamiahId(jamiah.getId());
+        return mapper.toCycleDtos(cycleRepository.findListingByJamiahId(jamiah.getId()));
     }
 
 
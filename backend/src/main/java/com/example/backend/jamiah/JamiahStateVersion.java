@@ -0,0 +1,20 @@
+package com.example.backend.jamiah;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/** ETag version of the Jamiah level views, maintained by {@link JamiahStateVersions}. */
+@Data
+@Entity
+@Table(name = "jamiah_state_versions")
+public class JamiahStateVersion {
+    @Id
+    @Column(name = "jamiah_id")
+    private Long jamiahId;
+
+    @Column(nullable = false)
+    private Long version;
+}
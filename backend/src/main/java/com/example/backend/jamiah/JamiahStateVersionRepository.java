@@ -0,0 +1,28 @@
+package com.example.backend.jamiah;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface JamiahStateVersionRepository extends JpaRepository<JamiahStateVersion, Long> {
+
+    @Modifying
+    @Query(value = "insert into jamiah_state_versions (jamiah_id, version) values (:jamiahId, 1) "
+            + "on duplicate key update version = version + 1", nativeQuery = true)
+    int increment(@Param("jamiahId") Long jamiahId);
+
+    /** Version of a Jamiah the caller owns or belongs to; empty for anyone else. */
+    @Query("select coalesce(v.version, 0L) from Jamiah j left join JamiahStateVersion v on v.jamiahId = j.id "
+            + "where j.publicId = :publicId and (j.ownerId = :uid or exists ("
+            + "select m.id from Jamiah j2 join j2.members m where j2.id = j.id and m.uid = :uid))")
+    Optional<Long> findVersionForMember(@Param("publicId") UUID publicId, @Param("uid") String uid);
+
+    /** Version of a Jamiah owned by the caller; empty for anyone else. */
+    @Query("select coalesce(v.version, 0L) from Jamiah j left join JamiahStateVersion v on v.jamiahId = j.id "
+            + "where j.publicId = :publicId and j.ownerId = :uid")
+    Optional<Long> findVersionForOwner(@Param("publicId") UUID publicId, @Param("uid") String uid);
+}
@@ -0,0 +1,172 @@
+package com.example.backend.jamiah;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Version stamps backing the ETags of the polled payment endpoints. Mutations only record
+ * what they touched; the stamps are bumped once per Jamiah and round after the transaction
+ * commits, in a short transaction of their own. Business transactions therefore never hold
+ * a lock on a version row, and a stamp read by any instance never runs ahead of the data.
+ */
+@Component
+public class JamiahStateVersions {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JamiahStateVersions.class);
+
+    private final JamiahStateVersionRepository versionRepository;
+    private final JamiahCycleRepository cycleRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JamiahStateVersions(JamiahStateVersionRepository versionRepository,
+                               JamiahCycleRepository cycleRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.versionRepository = versionRepository;
+        this.cycleRepository = cycleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Wallet or Jamiah level change; invalidates the wallet and summary views. */
+    public void touchJamiah(Long jamiahId) {
+        record(pending -> pending.addJamiah(jamiahId));
+    }
+
+    /** Payment change within one round; invalidates that round and the Jamiah level views. */
+    public void touchCycle(Long jamiahId, Long cycleId) {
+        record(pending -> {
+            pending.addJamiah(jamiahId);
+            if (cycleId != null) {
+                pending.cycleIds.add(cycleId);
+            }
+        });
+    }
+
+    /** Membership or settings change; every round renders differently afterwards. */
+    public void touchAll(Long jamiahId) {
+        record(pending -> {
+            pending.addJamiah(jamiahId);
+            if (jamiahId != null) {
+                pending.allCyclesOf.add(jamiahId);
+            }
+        });
+    }
+
+    /**
+     * Returns the ETag for Jamiah level views the caller may read as owner or member, or
+     * {@code null} when the id cannot be resolved cheaply (legacy ids, unknown Jamiah) or the
+     * caller has no access; callers then take the regular path and its error handling.
+     */
+    public String jamiahTag(String publicId, String callerUid) {
+        UUID uuid = parse(publicId);
+        if (uuid == null || callerUid == null) {
+            return null;
+        }
+        return versionRepository.findVersionForMember(uuid, callerUid)
+                .map(version -> "\"j" + version + "\"")
+                .orElse(null);
+    }
+
+    /** Like {@link #jamiahTag} for views only the owner may read. */
+    public String ownerJamiahTag(String publicId, String callerUid) {
+        UUID uuid = parse(publicId);
+        if (uuid == null || callerUid == null) {
+            return null;
+        }
+        return versionRepository.findVersionForOwner(uuid, callerUid)
+                .map(version -> "\"j" + version + "\"")
+                .orElse(null);
+    }
+
+    public String cycleTag(String publicId, Long cycleId, String callerUid) {
+        UUID uuid = parse(publicId);
+        if (uuid == null || cycleId == null || callerUid == null) {
+            return null;
+        }
+        return cycleRepository.findStateVersionForMember(uuid, cycleId, callerUid)
+                .map(version -> "\"c" + cycleId + "-" + version + "\"")
+                .orElse(null);
+    }
+
+    /** Collects the change for the surrounding transaction, or bumps right away without one. */
+    private void record(Consumer<Pending> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Pending immediate = new Pending();
+            change.accept(immediate);
+            bump(immediate);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(JamiahStateVersions.this);
+                }
+            });
+            pending = created;
+        }
+        change.accept(pending);
+    }
+
+    /** Applies the bumps in id order, so concurrent committers lock the rows in the same order. */
+    private void bump(Pending pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                pending.jamiahIds.forEach(versionRepository::increment);
+                pending.cycleIds.forEach(cycleRepository::incrementStateVersion);
+                pending.allCyclesOf.forEach(cycleRepository::incrementStateVersionsByJamiahId);
+            });
+        } catch (RuntimeException ex) {
+            // The change itself is committed; pollers may get stale 304 answers until the next bump.
+            LOGGER.warn("Could not bump state versions for Jamiahs {}: {}", pending.jamiahIds, ex.getMessage());
+        }
+    }
+
+    private UUID parse(String publicId) {
+        if (publicId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(publicId);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static final class Pending {
+        private final TreeSet<Long> jamiahIds = new TreeSet<>();
+        private final TreeSet<Long> cycleIds = new TreeSet<>();
+        private final TreeSet<Long> allCyclesOf = new TreeSet<>();
+
+        private void addJamiah(Long jamiahId) {
+            if (jamiahId != null) {
+                jamiahIds.add(jamiahId);
+            }
+        }
+
+        private boolean isEmpty() {
+            return jamiahIds.isEmpty() && cycleIds.isEmpty() && allCyclesOf.isEmpty();
+        }
+    }
+}
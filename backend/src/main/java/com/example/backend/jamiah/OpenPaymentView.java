@@ -0,0 +1,14 @@
+package com.example.backend.jamiah;
+
+import java.time.LocalDate;
+
+/** Unpaid contribution as read by {@link JamiahPaymentRepository#findOpenByCycleIdIn}. */
+public interface OpenPaymentView {
+    String getPayerUid();
+
+    Long getJamiahId();
+
+    Long getCycleId();
+
+    LocalDate getDueDate();
+}
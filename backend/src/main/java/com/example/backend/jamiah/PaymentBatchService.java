@@ -0,0 +1,365 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.MemberSummary;
+import com.example.backend.UserProfileRepository;
+import com.example.backend.jamiah.dto.PaymentBatchItemDto;
+import com.example.backend.jamiah.dto.PaymentDto;
+import com.example.backend.payment.StripePaymentProvider;
+import com.example.backend.wallet.JamiahWallet;
+import com.example.backend.wallet.WalletService;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-payment variants of the {@link PaymentService} operations. Authorization and
+ * bookkeeping run in short transactions while the Stripe calls in between run concurrently
+ * on a bounded pool shared by all batch requests, so no database connection is held while
+ * waiting for Stripe.
+ */
+@Service
+public class PaymentBatchService {
+
+    private final JamiahPaymentRepository paymentRepository;
+    private final JamiahRepository jamiahRepository;
+    private final UserProfileRepository userRepository;
+    private final StripePaymentProvider stripePaymentProvider;
+    private final PaymentService paymentService;
+    private final WalletService walletService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService stripeExecutor;
+    private final int maxBatchSize;
+
+    public PaymentBatchService(JamiahPaymentRepository paymentRepository,
+                               JamiahRepository jamiahRepository,
+                               UserProfileRepository userRepository,
+                               StripePaymentProvider stripePaymentProvider,
+                               PaymentService paymentService,
+                               WalletService walletService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${stripe.batch.parallelism:4}") int parallelism,
+                               @Value("${stripe.batch.max-size:50}") int maxBatchSize) {
+        this.paymentRepository = paymentRepository;
+        this.jamiahRepository = jamiahRepository;
+        this.userRepository = userRepository;
+        this.stripePaymentProvider = stripePaymentProvider;
+        this.paymentService = paymentService;
+        this.walletService = walletService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.stripeExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "stripe-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public List<PaymentBatchItemDto> initiatePayments(List<Long> paymentIds, String callerUid) {
+        List<Long> ids = normalize(paymentIds, callerUid);
+        Map<Long, PaymentBatchItemDto> results = new HashMap<>();
+        List<Item> items = authorize(ids, callerUid, results, true);
+        callStripe(items, Item::initiate, results);
+        List<Item> succeeded = items.stream().filter(item -> item.paymentIntent != null).toList();
+        if (!succeeded.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> recordInitiations(succeeded, callerUid, results));
+        }
+        return collect(ids, results);
+    }
+
+    /**
+     * Confirms several payments of the caller. The PaymentIntents are retrieved in parallel;
+     * afterwards a single transaction locks the payments and the caller's wallets (each in
+     * id order and with one statement, matching the order used by receipt confirmation) and
+     * applies all credits and payment flags.
+     */
+    public List<PaymentBatchItemDto> confirmPayments(List<Long> paymentIds, String callerUid) {
+        List<Long> ids = normalize(paymentIds, callerUid);
+        Map<Long, PaymentBatchItemDto> results = new HashMap<>();
+        List<Item> items = authorize(ids, callerUid, results, false);
+        callStripe(items, Item::retrieve, results);
+        List<Item> settled = new ArrayList<>();
+        for (Item item : items) {
+            if (item.paymentIntent == null) {
+                continue;
+            }
+            String error = paymentService.settlementError(item.paymentIntent, item.expectedAmount);
+            if (error != null) {
+                results.put(item.paymentId, failure(item.paymentId, HttpStatus.BAD_REQUEST, error));
+            } else {
+                settled.add(item);
+            }
+        }
+        if (!settled.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> recordConfirmations(settled, callerUid, results));
+        }
+        return collect(ids, results);
+    }
+
+    private List<Item> authorize(List<Long> ids, String callerUid, Map<Long, PaymentBatchItemDto> results,
+                                 boolean initiation) {
+        List<Item> items = new ArrayList<>();
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            for (Object[] row : paymentRepository.findAuthorizedForPayer(ids, callerUid)) {
+                JamiahPayment payment = (JamiahPayment) row[0];
+                JamiahCycle cycle = (JamiahCycle) row[1];
+                Jamiah jamiah = (Jamiah) row[2];
+                if (cycle.getRecipient() != null && callerUid.equals(cycle.getRecipient().getUid())) {
+                    results.put(payment.getId(), failure(payment.getId(), HttpStatus.BAD_REQUEST,
+                            "Recipient can't pay in own round"));
+                } else if (jamiah.getRateAmount() == null) {
+                    results.put(payment.getId(), failure(payment.getId(), HttpStatus.BAD_REQUEST,
+                            "Rate not configured"));
+                } else if (!initiation && payment.getStripePaymentIntentId() == null) {
+                    results.put(payment.getId(), failure(payment.getId(), HttpStatus.BAD_REQUEST,
+                            "Payment has not been initiated"));
+                } else {
+                    items.add(new Item(payment, cycle, jamiah, callerUid, initiation));
+                }
+            }
+        });
+        return items;
+    }
+
+    private void callStripe(List<Item> items, StripeCall call, Map<Long, PaymentBatchItemDto> results) {
+        CompletableFuture<?>[] calls = items.stream()
+                .map(item -> CompletableFuture.runAsync(() -> {
+                    try {
+                        item.paymentIntent = call.apply(item);
+                    } catch (StripeException | RuntimeException ex) {
+                        item.failure = ex;
+                    }
+                }, stripeExecutor))
+                .toArray(CompletableFuture<?>[]::new);
+        CompletableFuture.allOf(calls).join();
+        for (Item item : items) {
+            if (item.failure != null) {
+                results.put(item.paymentId, failure(item.paymentId, HttpStatus.BAD_GATEWAY,
+                        item.failure.getMessage()));
+            }
+        }
+    }
+
+    private void recordInitiations(List<Item> items, String callerUid, Map<Long, PaymentBatchItemDto> results) {
+        MemberSummary payer = userRepository.findSummaryByUid(callerUid).orElse(null);
+        Map<Long, JamiahPayment> current = paymentRepository.findAllById(paymentIds(items)).stream()
+                .collect(Collectors.toMap(JamiahPayment::getId, Function.identity()));
+        List<JamiahPayment> changed = new ArrayList<>();
+        for (Item item : items) {
+            JamiahPayment payment = current.get(item.paymentId);
+            if (payment == null) {
+                continue;
+            }
+            boolean dirty = false;
+            if (payment.getStripePaymentIntentId() == null) {
+                payment.setStripePaymentIntentId(item.paymentIntent.getId());
+                dirty = true;
+            }
+            if (payment.getAmount() == null || payment.getAmount().compareTo(item.expectedAmount) != 0) {
+                payment.setAmount(item.expectedAmount);
+                dirty = true;
+            }
+            if (item.amountUpdated && PaymentService.intentRevision(payment) <= item.intentRevision) {
+                payment.setIntentRevision(item.intentRevision + 1);
+                dirty = true;
+            }
+            if (dirty) {
+                changed.add(payment);
+            }
+        }
+        paymentRepository.saveAll(changed);
+        roundsChanged(items);
+        for (Item item : items) {
+            JamiahPayment payment = current.get(item.paymentId);
+            if (payment == null) {
+                continue;
+            }
+            PaymentDto dto = paymentService.toDto(payment, payer, item.expectedAmount);
+            paymentService.publishPaymentUpdate(payment, dto);
+            dto.setStripePaymentIntentId(item.paymentIntent.getId());
+            dto.setClientSecret(item.paymentIntent.getClientSecret());
+            dto.setPublishableKey(paymentService.getPublishableKey());
+            results.put(item.paymentId, PaymentBatchItemDto.success(item.paymentId, dto));
+        }
+    }
+
+    private void recordConfirmations(List<Item> items, String callerUid, Map<Long, PaymentBatchItemDto> results) {
+        MemberSummary payer = userRepository.findSummaryByUid(callerUid).orElse(null);
+        if (payer == null || payer.getId() == null) {
+            HttpStatus status = payer == null ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            String error = payer == null ? "User not found" : "Payer profile incomplete";
+            items.forEach(item -> results.put(item.paymentId, failure(item.paymentId, status, error)));
+            return;
+        }
+        Map<Long, JamiahPayment> payments = paymentRepository.findAllByIdInForUpdate(paymentIds(items)).stream()
+                .collect(Collectors.toMap(JamiahPayment::getId, Function.identity()));
+        Map<Long, Jamiah> jamiahs = jamiahRepository.findAllById(
+                        items.stream().map(item -> item.jamiahId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Jamiah::getId, Function.identity()));
+        Map<Long, JamiahWallet> wallets = walletService.lockAll(jamiahs.values(),
+                userRepository.getReferenceById(payer.getId()));
+
+        Map<Long, BigDecimal> credits = new LinkedHashMap<>();
+        List<Item> applied = new ArrayList<>();
+        Instant now = Instant.now();
+        for (Item item : items) {
+            JamiahPayment payment = payments.get(item.paymentId);
+            JamiahWallet wallet = wallets.get(item.jamiahId);
+            if (payment == null) {
+                continue;
+            }
+            if (wallet == null) {
+                results.put(item.paymentId, failure(item.paymentId, HttpStatus.CONFLICT, "Wallet missing"));
+                continue;
+            }
+            if (!Boolean.TRUE.equals(payment.getConfirmed())) {
+                if (Boolean.TRUE.equals(wallet.getLockedForPayments())) {
+                    results.put(item.paymentId, failure(item.paymentId, HttpStatus.CONFLICT,
+                            "Wallet is locked for outgoing payments"));
+                    continue;
+                }
+                credits.merge(item.jamiahId, item.expectedAmount, BigDecimal::add);
+                payment.setConfirmed(true);
+                payment.setPaidAt(now);
+            }
+            payment.setAmount(item.expectedAmount);
+            applied.add(item);
+        }
+        credits.forEach((jamiahId, amount) ->
+                wallets.put(jamiahId, walletService.creditLocked(wallets.get(jamiahId), amount, true)));
+        paymentRepository.saveAll(applied.stream().map(item -> payments.get(item.paymentId)).toList());
+        roundsChanged(applied);
+
+        for (Item item : applied) {
+            JamiahPayment payment = payments.get(item.paymentId);
+            PaymentDto dto = paymentService.toDto(payment, payer, item.expectedAmount);
+            paymentService.publishPaymentUpdate(payment, dto);
+            results.put(item.paymentId, PaymentBatchItemDto.success(item.paymentId, dto,
+                    paymentService.toWalletDto(wallets.get(item.jamiahId), jamiahs.get(item.jamiahId), payer)));
+        }
+    }
+
+    private void roundsChanged(List<Item> items) {
+        items.stream()
+                .map(item -> List.of(item.jamiahId, item.cycleId))
+                .distinct()
+                .forEach(key -> paymentService.roundChanged(key.get(0), key.get(1)));
+    }
+
+    private List<Long> normalize(List<Long> paymentIds, String callerUid) {
+        if (callerUid == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        List<Long> ids = paymentIds == null ? List.of() : new ArrayList<>(paymentIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        if (ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "paymentIds required");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchSize + " payments per request");
+        }
+        return ids;
+    }
+
+    private List<PaymentBatchItemDto> collect(List<Long> ids, Map<Long, PaymentBatchItemDto> results) {
+        List<PaymentBatchItemDto> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ordered.add(results.getOrDefault(id, failure(id, HttpStatus.NOT_FOUND, "Payment not found")));
+        }
+        return ordered;
+    }
+
+    private static List<Long> paymentIds(List<Item> items) {
+        return items.stream().map(item -> item.paymentId).toList();
+    }
+
+    private static PaymentBatchItemDto failure(Long paymentId, HttpStatus status, String error) {
+        return PaymentBatchItemDto.failure(paymentId, status.value(), error);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stripeExecutor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface StripeCall {
+        PaymentIntent apply(Item item) throws StripeException;
+    }
+
+    /**
+     * Everything needed for the Stripe call, captured while the authorization transaction
+     * is open so the worker threads never touch lazy entity state.
+     */
+    private final class Item {
+        private final Long paymentId;
+        private final Long jamiahId;
+        private final Long cycleId;
+        private final String existingIntentId;
+        private final int intentRevision;
+        private final BigDecimal expectedAmount;
+        private final Map<String, Object> createParams;
+        private volatile PaymentIntent paymentIntent;
+        private volatile boolean amountUpdated;
+        private volatile Exception failure;
+
+        private Item(JamiahPayment payment, JamiahCycle cycle, Jamiah jamiah, String payerUid, boolean initiation) {
+            this.paymentId = payment.getId();
+            this.jamiahId = jamiah.getId();
+            this.cycleId = cycle.getId();
+            this.existingIntentId = payment.getStripePaymentIntentId();
+            this.intentRevision = PaymentService.intentRevision(payment);
+            this.expectedAmount = jamiah.getRateAmount();
+            this.createParams = initiation && existingIntentId == null
+                    ? paymentService.paymentIntentParams(jamiah, cycle, payerUid, expectedAmount)
+                    : null;
+        }
+
+        private PaymentIntent initiate() throws StripeException {
+            if (existingIntentId == null) {
+                return stripePaymentProvider.createPaymentIntent(createParams,
+                        paymentService.paymentIntentKey(paymentId, expectedAmount));
+            }
+            PaymentIntent intent = stripePaymentProvider.retrievePaymentIntent(existingIntentId);
+            Long stripeAmount = intent.getAmount();
+            if (stripeAmount == null || stripeAmount != paymentService.toStripeAmount(expectedAmount)) {
+                intent = stripePaymentProvider.updatePaymentIntent(existingIntentId,
+                        paymentService.amountUpdateParams(expectedAmount),
+                        paymentService.amountUpdateKey(existingIntentId, intentRevision, expectedAmount));
+                amountUpdated = true;
+            }
+            return intent;
+        }
+
+        private PaymentIntent retrieve() throws StripeException {
+            return stripePaymentProvider.retrievePaymentIntent(existingIntentId);
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package com.example.backend.jamiah;
 
+import com.example.backend.jamiah.dto.PaymentBatchItemDto;
 import com.example.backend.jamiah.dto.PaymentConfirmationDto;
 import com.example.backend.jamiah.dto.PaymentDto;
 import com.example.backend.jamiah.dto.RoundDto;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/payments")
 @CrossOrigin(origins = "*")
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentBatchService paymentBatchService;
+    private final PaymentReminderService reminderService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService,
+                             PaymentBatchService paymentBatchService,
+                             PaymentReminderService reminderService) {
         this.paymentService = paymentService;
+        this.paymentBatchService = paymentBatchService;
+        this.reminderService = reminderService;
+    }
+
+    @GetMapping("/reminders")
+    public List<PaymentReminder> reminders(@RequestParam String uid) {
+        return reminderService.getReminders(uid);
+    }
+
+    @PostMapping("/initiate")
+    public List<PaymentBatchItemDto> initiateBatch(@RequestParam String uid,
+                                                   @RequestBody PaymentBatchRequest request) {
+        return paymentBatchService.initiatePayments(request.getPaymentIds(), uid);
     }
 
     @PostMapping("/{paymentId}/initiate")
@@ -21,6 +41,12 @@ public class PaymentController {
         return paymentService.initiatePayment(paymentId, uid);
     }
 
+    @PostMapping("/confirm")
+    public List<PaymentBatchItemDto> confirmBatch(@RequestParam String uid,
+                                                  @RequestBody PaymentBatchRequest request) {
+        return paymentBatchService.confirmPayments(request.getPaymentIds(), uid);
+    }
+
     @PostMapping("/{paymentId}/confirm")
     public PaymentConfirmationDto confirm(@PathVariable Long paymentId,
                                           @RequestParam String uid) {
@@ -61,4 +87,16 @@ public class PaymentController {
             this.uid = uid;
         }
     }
+
+    public static class PaymentBatchRequest {
+        private List<Long> paymentIds;
+
+        public List<Long> getPaymentIds() {
+            return paymentIds;
+        }
+
+        public void setPaymentIds(List<Long> paymentIds) {
+            this.paymentIds = paymentIds;
+        }
+    }
 }
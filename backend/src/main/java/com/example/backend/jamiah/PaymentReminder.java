@@ -0,0 +1,43 @@
+package com.example.backend.jamiah;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Reminder about unpaid contributions, at most one per member and day. It points at the
+ * earliest due round among the member's open payments found in that run.
+ */
+@Data
+@Entity
+@Table(name = "payment_reminders",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"member_uid", "reminder_date"}))
+public class PaymentReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "member_uid", nullable = false)
+    private String memberUid;
+
+    @Column(name = "reminder_date", nullable = false)
+    private LocalDate reminderDate;
+
+    @Column(name = "jamiah_id", nullable = false)
+    private Long jamiahId;
+
+    @Column(name = "cycle_id", nullable = false)
+    private Long cycleId;
+
+    @Column(name = "open_payments", nullable = false)
+    private Integer openPayments;
+
+    /** Whether the round's due date had already passed. */
+    @Column(name = "overdue", nullable = false)
+    private Boolean overdue;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,56 @@
+package com.example.backend.jamiah;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily dunning run. Pages through open rounds by id, one transaction per chunk. When
+ * several instances run at the same time, the unique (member, day) key rejects the chunk
+ * another instance already wrote and the run moves on.
+ */
+@Component
+public class PaymentReminderJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentReminderJob.class);
+
+    private final PaymentReminderService reminderService;
+    private final int chunkSize;
+
+    public PaymentReminderJob(PaymentReminderService reminderService,
+                              @Value("${jamiah.reminders.chunk-size:500}") int chunkSize) {
+        this.reminderService = reminderService;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Scheduled(cron = "${jamiah.reminders.cron:0 0 8 * * *}")
+    public void sendReminders() {
+        LocalDate today = LocalDate.now();
+        long started = System.currentTimeMillis();
+        long afterId = 0L;
+        int rounds = 0;
+        int written = 0;
+        while (true) {
+            List<Long> cycleIds = reminderService.findRemindableCycleIds(today, afterId, chunkSize);
+            if (cycleIds.isEmpty()) {
+                break;
+            }
+            try {
+                written += reminderService.remind(cycleIds, today);
+            } catch (DataIntegrityViolationException ex) {
+                LOGGER.info("Reminders for rounds {}-{} were written concurrently",
+                        cycleIds.get(0), cycleIds.get(cycleIds.size() - 1));
+            }
+            rounds += cycleIds.size();
+            afterId = cycleIds.get(cycleIds.size() - 1);
+        }
+        LOGGER.info("Reminder run checked {} rounds and wrote {} reminders in {} ms",
+                rounds, written, System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.jamiah;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface PaymentReminderRepository extends JpaRepository<PaymentReminder, Long>, PaymentReminderRepositoryCustom {
+
+    @Query("select r.memberUid from PaymentReminder r where r.reminderDate = :date and r.memberUid in :uids")
+    List<String> findRemindedMemberUids(@Param("date") LocalDate date, @Param("uids") Collection<String> uids);
+
+    List<PaymentReminder> findByMemberUidOrderByReminderDateDesc(String memberUid, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.example.backend.jamiah;
+
+import java.util.List;
+
+public interface PaymentReminderRepositoryCustom {
+
+    /**
+     * Inserts the reminders with a single multi-row statement per chunk.
+     *
+     * @return number of inserted rows
+     */
+    int insertAll(List<PaymentReminder> reminders);
+}
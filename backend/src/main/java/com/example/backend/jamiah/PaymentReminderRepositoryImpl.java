@@ -0,0 +1,53 @@
+package com.example.backend.jamiah;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+
+class PaymentReminderRepositoryImpl implements PaymentReminderRepositoryCustom {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final int COLUMNS = 6;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertAll(List<PaymentReminder> reminders) {
+        if (reminders == null || reminders.isEmpty()) {
+            return 0;
+        }
+        int inserted = 0;
+        for (int start = 0; start < reminders.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<PaymentReminder> chunk = reminders.subList(start, Math.min(start + MAX_ROWS_PER_STATEMENT, reminders.size()));
+            StringBuilder sql = new StringBuilder("insert into payment_reminders "
+                    + "(member_uid, reminder_date, jamiah_id, cycle_id, open_payments, overdue) values ");
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                int base = i * COLUMNS;
+                sql.append("(?").append(base + 1);
+                for (int column = 2; column <= COLUMNS; column++) {
+                    sql.append(", ?").append(base + column);
+                }
+                sql.append(')');
+            }
+            Query query = entityManager.createNativeQuery(sql.toString());
+            for (int i = 0; i < chunk.size(); i++) {
+                PaymentReminder reminder = chunk.get(i);
+                int base = i * COLUMNS;
+                query.setParameter(base + 1, reminder.getMemberUid());
+                query.setParameter(base + 2, reminder.getReminderDate());
+                query.setParameter(base + 3, reminder.getJamiahId());
+                query.setParameter(base + 4, reminder.getCycleId());
+                query.setParameter(base + 5, reminder.getOpenPayments());
+                query.setParameter(base + 6, reminder.getOverdue());
+            }
+            inserted += query.executeUpdate();
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.jamiah;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes payment reminders for members with unpaid contributions. Rounds are read in
+ * chunks by id and their open payments through the (confirmed, cycle_id) index, so a run
+ * never holds more than one chunk in memory.
+ */
+@Service
+@Transactional
+public class PaymentReminderService {
+
+    private static final int MAX_LISTED_REMINDERS = 50;
+
+    private final JamiahCycleRepository cycleRepository;
+    private final JamiahPaymentRepository paymentRepository;
+    private final PaymentReminderRepository reminderRepository;
+    private final int leadDays;
+
+    public PaymentReminderService(JamiahCycleRepository cycleRepository,
+                                  JamiahPaymentRepository paymentRepository,
+                                  PaymentReminderRepository reminderRepository,
+                                  @Value("${jamiah.reminders.lead-days:3}") int leadDays) {
+        this.cycleRepository = cycleRepository;
+        this.paymentRepository = paymentRepository;
+        this.reminderRepository = reminderRepository;
+        this.leadDays = Math.max(0, leadDays);
+    }
+
+    /** Next chunk of rounds whose contributions are due within the lead time or overdue. */
+    @Transactional(readOnly = true)
+    public List<Long> findRemindableCycleIds(LocalDate today, Long afterId, int limit) {
+        return cycleRepository.findRemindableIds(today, today.plusDays(leadDays), afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Writes one reminder per member with open payments in {@code cycleIds}, skipping
+     * members already reminded on {@code today}. Returns the number of reminders written.
+     */
+    public int remind(Collection<Long> cycleIds, LocalDate today) {
+        if (cycleIds.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<OpenPaymentView>> byMember = new LinkedHashMap<>();
+        for (OpenPaymentView payment : paymentRepository.findOpenByCycleIdIn(cycleIds)) {
+            if (payment.getPayerUid() != null) {
+                byMember.computeIfAbsent(payment.getPayerUid(), uid -> new ArrayList<>()).add(payment);
+            }
+        }
+        if (byMember.isEmpty()) {
+            return 0;
+        }
+        Set<String> reminded = new HashSet<>(reminderRepository.findRemindedMemberUids(today, byMember.keySet()));
+        List<PaymentReminder> reminders = new ArrayList<>();
+        for (Map.Entry<String, List<OpenPaymentView>> entry : byMember.entrySet()) {
+            if (reminded.contains(entry.getKey())) {
+                continue;
+            }
+            OpenPaymentView earliest = entry.getValue().stream()
+                    .min(Comparator.comparing(OpenPaymentView::getDueDate, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .orElseThrow();
+            PaymentReminder reminder = new PaymentReminder();
+            reminder.setMemberUid(entry.getKey());
+            reminder.setReminderDate(today);
+            reminder.setJamiahId(earliest.getJamiahId());
+            reminder.setCycleId(earliest.getCycleId());
+            reminder.setOpenPayments(entry.getValue().size());
+            reminder.setOverdue(earliest.getDueDate() != null && earliest.getDueDate().isBefore(today));
+            reminders.add(reminder);
+        }
+        return reminderRepository.insertAll(reminders);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PaymentReminder> getReminders(String uid) {
+        return reminderRepository.findByMemberUidOrderByReminderDateDesc(uid, PageRequest.of(0, MAX_LISTED_REMINDERS));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.jamiah;
 
+import com.example.backend.MemberSummary;
 import com.example.backend.UserProfile;
 import com.example.backend.UserProfileRepository;
 import com.example.backend.jamiah.dto.CycleSummaryDto;
@@ -13,10 +14,13 @@ import com.example.backend.wallet.WalletService;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -46,6 +50,10 @@ public class PaymentService {
     private final UserProfileRepository userRepository;
     private final StripePaymentProvider stripePaymentProvider;
     private final WalletService walletService;
+    private final RoundSnapshotCache roundSnapshotCache;
+    private final JamiahStateVersions stateVersions;
+    private final JamiahEventBroadcaster eventBroadcaster;
+    private final ApplicationEventPublisher eventPublisher;
     private final String publishableKey;
 
     public PaymentService(JamiahPaymentRepository paymentRepository,
@@ -54,6 +62,10 @@ public class PaymentService {
                           UserProfileRepository userRepository,
                           StripePaymentProvider stripePaymentProvider,
                           WalletService walletService,
+                          RoundSnapshotCache roundSnapshotCache,
+                          JamiahStateVersions stateVersions,
+                          JamiahEventBroadcaster eventBroadcaster,
+                          ApplicationEventPublisher eventPublisher,
                           @Value("${stripe.publishable-key:}") String publishableKey) {
         this.paymentRepository = paymentRepository;
         this.cycleRepository = cycleRepository;
@@ -61,6 +73,10 @@ public class PaymentService {
         this.userRepository = userRepository;
         this.stripePaymentProvider = stripePaymentProvider;
         this.walletService = walletService;
+        this.roundSnapshotCache = roundSnapshotCache;
+        this.stateVersions = stateVersions;
+        this.eventBroadcaster = eventBroadcaster;
+        this.eventPublisher = eventPublisher;
         this.publishableKey = publishableKey;
     }
 
@@ -68,14 +84,18 @@ public class PaymentService {
         if (callerUid == null) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         }
-        JamiahCycle cycle = cycleRepository.findById(cycleId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        Jamiah jamiah = ensureMatchesPublicId(cycle.getJamiah().getId(), jamiahPublicId);
-        Jamiah jamiahWithMembers = jamiahRepository.findWithMembersById(jamiah.getId()).orElse(jamiah);
-        ensureMembership(callerUid, jamiahWithMembers);
-        List<JamiahPayment> payments = ensurePaymentsForCycle(jamiahWithMembers, cycle);
-        Map<String, UserProfile> users = loadUsers(payments, cycle);
-        return buildRoundDto(cycle, jamiahWithMembers, payments, users);
+        RoundDto cached = roundSnapshotCache.find(cycleId, jamiahPublicId, callerUid);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = roundSnapshotCache.currentGeneration();
+        JamiahCycle cycle = loadRound(cycleId, jamiahPublicId);
+        Jamiah jamiah = cycle.getJamiah();
+        ensureMembership(callerUid, jamiah);
+        RoundPayments round = loadRoundPayments(jamiah, cycle);
+        RoundDto dto = buildRoundDto(cycle, jamiah, round.payments, round.users);
+        roundSnapshotCache.store(generation, jamiah, participantUids(jamiah), dto);
+        return dto;
     }
 
     public PaymentDto initiatePayment(Long paymentId, String callerUid) {
@@ -105,25 +125,18 @@ public class PaymentService {
                 Long stripeAmount = paymentIntent.getAmount();
                 long expectedStripeAmount = toStripeAmount(expectedAmount);
                 if (stripeAmount == null || stripeAmount != expectedStripeAmount) {
-                    Map<String, Object> params = new HashMap<>();
-                    params.put("amount", expectedStripeAmount);
-                    params.put("payment_method_types", List.of("card"));
-                    paymentIntent = stripePaymentProvider.updatePaymentIntent(payment.getStripePaymentIntentId(), params);
+                    int revision = intentRevision(payment);
+                    paymentIntent = stripePaymentProvider.updatePaymentIntent(payment.getStripePaymentIntentId(),
+                            amountUpdateParams(expectedAmount),
+                            amountUpdateKey(payment.getStripePaymentIntentId(), revision, expectedAmount));
+                    payment.setIntentRevision(revision + 1);
+                    payment.setAmount(expectedAmount);
+                    paymentRepository.save(payment);
                 }
             } else {
-                Map<String, Object> params = new HashMap<>();
-                params.put("amount", toStripeAmount(expectedAmount));
-                params.put("currency", DEFAULT_CURRENCY);
-                params.put("payment_method_types", List.of("card"));
-                Map<String, String> metadata = new HashMap<>();
-                metadata.put("jamiahId", jamiah.getId().toString());
-                metadata.put("cycleId", cycle.getId().toString());
-                metadata.put("payerUid", callerUid);
-                params.put("metadata", metadata);
-                if (jamiah.getName() != null) {
-                    params.put("description", String.format("Jamiah %s – Runde %d", jamiah.getName(), cycle.getCycleNumber()));
-                }
-                paymentIntent = stripePaymentProvider.createPaymentIntent(params);
+                paymentIntent = stripePaymentProvider.createPaymentIntent(
+                        paymentIntentParams(jamiah, cycle, callerUid, expectedAmount),
+                        paymentIntentKey(payment.getId(), expectedAmount));
                 payment.setStripePaymentIntentId(paymentIntent.getId());
                 payment.setAmount(expectedAmount);
                 paymentRepository.save(payment);
@@ -136,8 +149,10 @@ public class PaymentService {
             payment.setAmount(expectedAmount);
             paymentRepository.save(payment);
         }
-        UserProfile payer = userRepository.findByUid(payment.getPayerUid()).orElse(null);
+        roundChanged(cycle);
+        MemberSummary payer = userRepository.findSummaryByUid(payment.getPayerUid()).orElse(null);
         PaymentDto dto = toDto(payment, payer, expectedAmount);
+        publishPaymentUpdate(payment, dto);
         dto.setStripePaymentIntentId(paymentIntent.getId());
         dto.setClientSecret(paymentIntent.getClientSecret());
         dto.setPublishableKey(publishableKey);
@@ -159,10 +174,8 @@ public class PaymentService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         }
 
-        JamiahCycle cycle = cycleRepository.findById(cycleId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        Jamiah jamiah = ensureMatchesPublicId(cycle.getJamiah().getId(), jamiahPublicId);
-        Jamiah jamiahWithMembers = jamiahRepository.findWithMembersById(jamiah.getId()).orElse(jamiah);
+        JamiahCycle cycle = loadRound(cycleId, jamiahPublicId);
+        Jamiah jamiahWithMembers = cycle.getJamiah();
         ensureMembership(callerUid, jamiahWithMembers);
 
         if (cycle.getRecipient() != null && callerUid.equals(cycle.getRecipient().getUid())) {
@@ -174,13 +187,15 @@ public class PaymentService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount mismatch");
         }
 
-        UserProfile payerProfile = userRepository.findByUid(payerUid)
+        RoundPayments round = loadRoundPayments(jamiahWithMembers, cycle);
+        MemberSummary payerProfile = Optional.ofNullable(round.users.get(payerUid))
+                .or(() -> userRepository.findSummaryByUid(payerUid))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payer not found"));
         if (payerProfile.getId() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payer profile incomplete");
         }
 
-        List<JamiahPayment> payments = ensurePaymentsForCycle(jamiahWithMembers, cycle);
+        List<JamiahPayment> payments = round.payments;
         JamiahPayment payment = payments.stream()
                 .filter(p -> Objects.equals(payerUid, p.getPayerUid()))
                 .findFirst()
@@ -199,8 +214,9 @@ public class PaymentService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payment already confirmed with different amount");
         }
 
-        walletService.ensureBalance(jamiahWithMembers, payerProfile, expectedAmount);
-        walletService.reserve(jamiahWithMembers, payerProfile, expectedAmount);
+        UserProfile payerRef = userRepository.getReferenceById(payerProfile.getId());
+        walletService.ensureBalance(jamiahWithMembers, payerRef, expectedAmount);
+        walletService.reserve(jamiahWithMembers, payerRef, expectedAmount);
 
         payment.setJamiahId(jamiahWithMembers.getId());
         payment.setCycleId(cycle.getId());
@@ -211,8 +227,11 @@ public class PaymentService {
             payment.setPaidAt(Instant.now());
         }
         payment = paymentRepository.save(payment);
+        roundChanged(cycle);
 
-        return toDto(payment, payerProfile, expectedAmount);
+        PaymentDto dto = toDto(payment, payerProfile, expectedAmount);
+        publishPaymentUpdate(payment, dto);
+        return dto;
     }
 
     public PaymentConfirmationDto confirmPayment(Long paymentId, String callerUid) {
@@ -244,19 +263,9 @@ public class PaymentService {
         } catch (StripeException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, ex.getMessage(), ex);
         }
-        if (!STRIPE_SUCCESS_STATUS.equalsIgnoreCase(paymentIntent.getStatus())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "PaymentIntent not completed");
-        }
-        Long stripeAmount = paymentIntent.getAmount();
-        if (stripeAmount == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Stripe amount missing");
-        }
-        BigDecimal settledAmount = fromStripeAmount(stripeAmount);
-        if (expectedAmount.compareTo(settledAmount) != 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount mismatch");
-        }
-        if (paymentIntent.getCurrency() != null && !DEFAULT_CURRENCY.equalsIgnoreCase(paymentIntent.getCurrency())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported currency");
+        String settlementError = settlementError(paymentIntent, expectedAmount);
+        if (settlementError != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, settlementError);
         }
 
         UserProfile payer = userRepository.findByUid(callerUid)
@@ -276,10 +285,13 @@ public class PaymentService {
             payment.setAmount(expectedAmount);
             paymentRepository.save(payment);
         }
+        roundChanged(cycle);
 
         PaymentConfirmationDto confirmation = new PaymentConfirmationDto();
-        confirmation.setPayment(toDto(payment, payer, expectedAmount));
-        confirmation.setWallet(toWalletDto(wallet, jamiahWithMembers, payer));
+        MemberSummary payerSummary = MemberSummary.of(payer);
+        confirmation.setPayment(toDto(payment, payerSummary, expectedAmount));
+        publishPaymentUpdate(payment, confirmation.getPayment());
+        confirmation.setWallet(toWalletDto(wallet, jamiahWithMembers, payerSummary));
         return confirmation;
     }
 
@@ -316,27 +328,22 @@ public class PaymentService {
         if (callerUid == null) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         }
-        JamiahCycle cycle = cycleRepository.findById(cycleId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        Jamiah jamiah = ensureMatchesPublicId(cycle.getJamiah().getId(), jamiahPublicId);
+        JamiahCycle cycle = loadRound(cycleId, jamiahPublicId);
         if (cycle.getRecipient() == null || cycle.getRecipient().getUid() == null ||
                 !cycle.getRecipient().getUid().equals(callerUid)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         }
-        Jamiah jamiahWithMembers = jamiahRepository.findWithMembersById(jamiah.getId()).orElse(jamiah);
+        Jamiah jamiahWithMembers = cycle.getJamiah();
         ensurePaymentsForCycle(jamiahWithMembers, cycle);
 
         String recipientUid = cycle.getRecipient().getUid();
         List<JamiahPayment> payments = paymentRepository
                 .findAllByJamiahIdAndCycleIdForUpdate(jamiahWithMembers.getId(), cycle.getId());
-        Map<String, UserProfile> users = loadUsers(payments, cycle);
-        UserProfile recipientProfile = users.getOrDefault(recipientUid, cycle.getRecipient());
-        if (recipientProfile == null || recipientProfile.getId() == null) {
-            recipientProfile = userRepository.findByUid(recipientUid)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipient not found"));
-            users.put(recipientUid, recipientProfile);
+        Map<String, MemberSummary> users = loadUsers(payments, cycle);
+        MemberSummary effectiveRecipient = users.get(recipientUid);
+        if (effectiveRecipient == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipient not found");
         }
-        UserProfile effectiveRecipient = recipientProfile;
 
         BigDecimal expectedAmount = requireRateAmount(jamiahWithMembers);
         boolean allPaid = payments.stream()
@@ -355,21 +362,23 @@ public class PaymentService {
             if (effectiveRecipient.getId() == null) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Recipient profile incomplete");
             }
+            // Transfers only need the profile ids, so references stand in for the entities.
+            Map<Long, UserProfile> references = new HashMap<>();
             Map<UserProfile, BigDecimal> transferRequests = new LinkedHashMap<>();
             for (JamiahPayment payment : newlyConfirmed) {
-                UserProfile payerProfile = users.get(payment.getPayerUid());
+                MemberSummary payerProfile = users.get(payment.getPayerUid());
                 if (payerProfile == null) {
-                    payerProfile = userRepository.findByUid(payment.getPayerUid())
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payer not found"));
-                    users.put(payment.getPayerUid(), payerProfile);
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Payer not found");
                 }
                 if (payerProfile.getId() == null) {
                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payer profile incomplete");
                 }
                 BigDecimal transferAmount = payment.getAmount() != null ? payment.getAmount() : expectedAmount;
-                transferRequests.merge(payerProfile, transferAmount, BigDecimal::add);
+                transferRequests.merge(references.computeIfAbsent(payerProfile.getId(), userRepository::getReferenceById),
+                        transferAmount, BigDecimal::add);
             }
-            walletService.transfer(jamiahWithMembers, transferRequests, effectiveRecipient);
+            walletService.transfer(jamiahWithMembers, transferRequests,
+                    userRepository.getReferenceById(effectiveRecipient.getId()));
         }
 
         Instant now = Instant.now();
@@ -395,7 +404,12 @@ public class PaymentService {
         }
         cycleRepository.save(cycle);
         if (!wasCompleted) {
-            startNextRoundIfNeeded(cycle);
+            startNextRoundIfNeeded(cycle, users);
+        }
+        roundSnapshotCache.evictJamiah(jamiahWithMembers.getId());
+        stateVersions.touchCycle(jamiahWithMembers.getId(), cycle.getId());
+        if (!wasCompleted) {
+            eventPublisher.publishEvent(JamiahEvent.roundCompleted(jamiahWithMembers.getId(), cycle.getId(), recipientUid));
         }
 
         List<WalletDto> walletDtos = collectWalletDtos(jamiahWithMembers, payments, users, effectiveRecipient);
@@ -409,15 +423,14 @@ public class PaymentService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         }
 
-        JamiahCycle cycle = cycleRepository.findById(cycleId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        Jamiah jamiah = ensureMatchesPublicId(cycle.getJamiah().getId(), jamiahPublicId);
-        Jamiah jamiahWithMembers = jamiahRepository.findWithMembersById(jamiah.getId()).orElse(jamiah);
-        ensureMembership(callerUid, jamiahWithMembers);
+        JamiahCycle cycle = loadRound(cycleId, jamiahPublicId);
+        Jamiah jamiah = cycle.getJamiah();
+        ensureMembership(callerUid, jamiah);
 
-        List<JamiahPayment> payments = ensurePaymentsForCycle(jamiahWithMembers, cycle);
-        Map<String, UserProfile> users = loadUsers(payments, cycle);
-        BigDecimal expectedAmount = requireRateAmount(jamiahWithMembers);
+        RoundPayments round = loadRoundPayments(jamiah, cycle);
+        List<JamiahPayment> payments = round.payments;
+        Map<String, MemberSummary> users = round.users;
+        BigDecimal expectedAmount = requireRateAmount(jamiah);
 
         boolean isOwner = jamiah.getOwnerId() != null && jamiah.getOwnerId().equals(callerUid);
         boolean isRecipient = cycle.getRecipient() != null && callerUid.equals(cycle.getRecipient().getUid());
@@ -450,7 +463,7 @@ public class PaymentService {
         if (!isOwner) {
             UserProfile member = callerProfile.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
             JamiahWallet wallet = walletService.getOrCreateWallet(jamiahWithMembers, member);
-            WalletDto dto = toWalletDto(wallet, jamiahWithMembers, member);
+            WalletDto dto = toWalletDto(wallet, jamiahWithMembers, MemberSummary.of(member));
             return java.util.List.of(dto);
         }
         List<UserProfile> members = new ArrayList<>(jamiahWithMembers.getMembers());
@@ -468,12 +481,26 @@ public class PaymentService {
             if (wallet == null) {
                 wallet = walletService.getOrCreateWallet(jamiahWithMembers, member);
             }
-            dtos.add(toWalletDto(wallet, jamiahWithMembers, member));
+            dtos.add(toWalletDto(wallet, jamiahWithMembers, MemberSummary.of(member)));
         }
         dtos.sort(Comparator.comparing(WalletDto::getUsername, Comparator.nullsLast(String::compareToIgnoreCase)));
         return dtos;
     }
 
+    /**
+     * Opens the live event stream of a Jamiah for one of its members or its owner.
+     */
+    public SseEmitter subscribe(String jamiahPublicId, String callerUid) {
+        if (callerUid == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        Jamiah jamiah = findJamiahByPublicId(jamiahPublicId);
+        Jamiah jamiahWithMembers = jamiahRepository.findWithMembersById(jamiah.getId()).orElse(jamiah);
+        ensureMembership(callerUid, jamiahWithMembers);
+        boolean isOwner = callerUid.equals(jamiahWithMembers.getOwnerId());
+        return eventBroadcaster.subscribe(jamiahWithMembers.getId(), callerUid, isOwner);
+    }
+
     public List<CycleSummaryDto> getCycleSummaries(String jamiahPublicId, String callerUid) {
         UUID uuid = null;
         try {
@@ -486,31 +513,22 @@ public class PaymentService {
         if (jamiah.getOwnerId() == null || !jamiah.getOwnerId().equals(callerUid)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         }
-        List<JamiahCycle> cycles = cycleRepository.findByJamiahId(jamiah.getId());
-        return cycles.stream()
-                .sorted(Comparator.comparing(JamiahCycle::getCycleNumber))
-                .map(cycle -> {
-                    String recipientUid = cycle.getRecipient() != null ? cycle.getRecipient().getUid() : null;
-                    long totalPayers = cycle.getMemberOrder() != null && !cycle.getMemberOrder().isEmpty()
-                            ? cycle.getMemberOrder().stream().filter(uid -> !Objects.equals(uid, recipientUid)).count()
-                            : jamiahRepository.countMembers(jamiah.getId()) - (recipientUid != null ? 1 : 0);
-                    List<JamiahPayment> payments = paymentRepository
-                            .findAllByJamiahIdAndCycleId(jamiah.getId(), cycle.getId());
-                    long paidCount = payments.stream()
-                            .filter(p -> Boolean.TRUE.equals(p.getConfirmed()) && !Objects.equals(p.getPayerUid(), recipientUid))
-                            .count();
-                    long receiptCount = payments.stream()
-                            .filter(p -> Boolean.TRUE.equals(p.getRecipientConfirmed()) && !Objects.equals(p.getPayerUid(), recipientUid))
-                            .count();
+        return cycleRepository.findSummariesByJamiahId(jamiah.getId()).stream()
+                .map(view -> {
+                    String recipientUid = view.getRecipientUid();
+                    long orderedPayers = Optional.ofNullable(view.getOrderedPayers()).orElse(0L);
+                    long totalPayers = orderedPayers > 0
+                            ? orderedPayers
+                            : Optional.ofNullable(view.getMemberCount()).orElse(0L) - (recipientUid != null ? 1 : 0);
                     CycleSummaryDto dto = new CycleSummaryDto();
-                    dto.setId(cycle.getId());
-                    dto.setCycleNumber(cycle.getCycleNumber());
-                    dto.setStartDate(cycle.getStartDate());
-                    dto.setCompleted(Boolean.TRUE.equals(cycle.getCompleted()));
+                    dto.setId(view.getId());
+                    dto.setCycleNumber(view.getCycleNumber());
+                    dto.setStartDate(view.getStartDate());
+                    dto.setCompleted(Boolean.TRUE.equals(view.getCompleted()));
                     dto.setRecipientUid(recipientUid);
                     dto.setTotalPayers((int) totalPayers);
-                    dto.setPaidCount((int) paidCount);
-                    dto.setReceiptCount((int) receiptCount);
+                    dto.setPaidCount(Optional.ofNullable(view.getPaidCount()).orElse(0L).intValue());
+                    dto.setReceiptCount(Optional.ofNullable(view.getReceiptCount()).orElse(0L).intValue());
                     return dto;
                 }).collect(Collectors.toList());
     }
@@ -525,7 +543,7 @@ public class PaymentService {
     private RoundDto buildRoundDto(JamiahCycle cycle,
                                    Jamiah jamiah,
                                    List<JamiahPayment> payments,
-                                   Map<String, UserProfile> users) {
+                                   Map<String, MemberSummary> users) {
         RoundDto dto = new RoundDto();
         dto.setId(cycle.getId());
         dto.setCycleNumber(cycle.getCycleNumber());
@@ -537,7 +555,10 @@ public class PaymentService {
         if (cycle.getRecipient() != null) {
             String recipientUid = cycle.getRecipient().getUid();
             recipientDto.setUid(recipientUid);
-            UserProfile profile = users.getOrDefault(recipientUid, cycle.getRecipient());
+            MemberSummary profile = users.get(recipientUid);
+            if (profile == null) {
+                profile = MemberSummary.of(cycle.getRecipient());
+            }
             if (profile != null) {
                 recipientDto.setUsername(profile.getUsername());
                 recipientDto.setFirstName(profile.getFirstName());
@@ -561,7 +582,7 @@ public class PaymentService {
         return dto;
     }
 
-    private Map<String, UserProfile> loadUsers(List<JamiahPayment> payments, JamiahCycle cycle) {
+    private Map<String, MemberSummary> loadUsers(List<JamiahPayment> payments, JamiahCycle cycle) {
         Set<String> uids = payments.stream()
                 .map(JamiahPayment::getPayerUid)
                 .filter(Objects::nonNull)
@@ -570,13 +591,82 @@ public class PaymentService {
             uids.add(cycle.getRecipient().getUid());
         }
         if (uids.isEmpty()) {
-            return java.util.Collections.emptyMap();
+            return new HashMap<>();
         }
-        return userRepository.findByUidIn(uids).stream()
-                .collect(Collectors.toMap(UserProfile::getUid, profile -> profile));
+        return userRepository.findSummariesByUidIn(uids).stream()
+                .collect(Collectors.toMap(MemberSummary::getUid, profile -> profile, (first, second) -> first,
+                        HashMap::new));
+    }
+
+    String getPublishableKey() {
+        return publishableKey;
+    }
+
+    Map<String, Object> paymentIntentParams(Jamiah jamiah, JamiahCycle cycle, String payerUid, BigDecimal amount) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("amount", toStripeAmount(amount));
+        params.put("currency", DEFAULT_CURRENCY);
+        params.put("payment_method_types", List.of("card"));
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("jamiahId", jamiah.getId().toString());
+        metadata.put("cycleId", cycle.getId().toString());
+        metadata.put("payerUid", payerUid);
+        params.put("metadata", metadata);
+        if (jamiah.getName() != null) {
+            params.put("description", String.format("Jamiah %s – Runde %d", jamiah.getName(), cycle.getCycleNumber()));
+        }
+        return params;
+    }
+
+    /**
+     * Returns why {@code paymentIntent} does not settle a payment of {@code expectedAmount},
+     * or {@code null} if it does.
+     */
+    String settlementError(PaymentIntent paymentIntent, BigDecimal expectedAmount) {
+        if (!STRIPE_SUCCESS_STATUS.equalsIgnoreCase(paymentIntent.getStatus())) {
+            return "PaymentIntent not completed";
+        }
+        Long stripeAmount = paymentIntent.getAmount();
+        if (stripeAmount == null) {
+            return "Stripe amount missing";
+        }
+        if (expectedAmount.compareTo(fromStripeAmount(stripeAmount)) != 0) {
+            return "Amount mismatch";
+        }
+        if (paymentIntent.getCurrency() != null && !DEFAULT_CURRENCY.equalsIgnoreCase(paymentIntent.getCurrency())) {
+            return "Unsupported currency";
+        }
+        return null;
+    }
+
+    /**
+     * Idempotency key for creating the PaymentIntent of a payment. The amount is part of the
+     * key because Stripe rejects a reused key with different parameters.
+     */
+    String paymentIntentKey(Long paymentId, BigDecimal amount) {
+        return "payment-" + paymentId + "-intent-" + toStripeAmount(amount);
     }
 
-    private PaymentDto toDto(JamiahPayment payment, UserProfile user, BigDecimal defaultAmount) {
+    /**
+     * Idempotency key of an amount update. The revision counts the earlier updates of the
+     * intent, so changing back to a previous amount gets a fresh key.
+     */
+    String amountUpdateKey(String paymentIntentId, int revision, BigDecimal amount) {
+        return "payment-intent-" + paymentIntentId + "-rev-" + revision + "-amount-" + toStripeAmount(amount);
+    }
+
+    static int intentRevision(JamiahPayment payment) {
+        return payment.getIntentRevision() != null ? payment.getIntentRevision() : 0;
+    }
+
+    Map<String, Object> amountUpdateParams(BigDecimal amount) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("amount", toStripeAmount(amount));
+        params.put("payment_method_types", List.of("card"));
+        return params;
+    }
+
+    PaymentDto toDto(JamiahPayment payment, MemberSummary user, BigDecimal defaultAmount) {
         PaymentDto dto = new PaymentDto();
         dto.setId(payment.getId());
         PaymentDto.UserRef ref = new PaymentDto.UserRef();
@@ -605,7 +695,7 @@ public class PaymentService {
         return dto;
     }
 
-    private WalletDto toWalletDto(JamiahWallet wallet, Jamiah jamiah, UserProfile member) {
+    WalletDto toWalletDto(JamiahWallet wallet, Jamiah jamiah, MemberSummary member) {
         WalletDto dto = new WalletDto();
         dto.setMemberId(member.getUid());
         dto.setUsername(member.getUsername());
@@ -622,44 +712,33 @@ public class PaymentService {
 
     private List<WalletDto> collectWalletDtos(Jamiah jamiah,
                                               List<JamiahPayment> payments,
-                                              Map<String, UserProfile> users,
-                                              UserProfile recipient) {
-        LinkedHashMap<String, UserProfile> participants = new LinkedHashMap<>();
+                                              Map<String, MemberSummary> users,
+                                              MemberSummary recipient) {
+        LinkedHashMap<String, MemberSummary> participants = new LinkedHashMap<>();
         if (recipient != null && recipient.getUid() != null) {
             participants.put(recipient.getUid(), recipient);
         }
         for (JamiahPayment payment : payments) {
-            String payerUid = payment.getPayerUid();
-            if (payerUid == null) {
-                continue;
-            }
-            UserProfile profile = users.get(payerUid);
-            if (profile == null) {
-                profile = userRepository.findByUid(payerUid).orElse(null);
-                if (profile != null) {
-                    users.put(payerUid, profile);
-                }
-            }
+            MemberSummary profile = payment.getPayerUid() != null ? users.get(payment.getPayerUid()) : null;
             if (profile != null && profile.getUid() != null) {
                 participants.putIfAbsent(profile.getUid(), profile);
             }
         }
-        List<UserProfile> memberProfiles = participants.values().stream()
-                .filter(Objects::nonNull)
+        List<MemberSummary> memberProfiles = participants.values().stream()
                 .filter(profile -> profile.getId() != null)
                 .collect(Collectors.toList());
         if (memberProfiles.isEmpty()) {
             return java.util.Collections.emptyList();
         }
         List<Long> memberIds = memberProfiles.stream()
-                .map(UserProfile::getId)
+                .map(MemberSummary::getId)
                 .collect(Collectors.toList());
         Map<Long, JamiahWallet> wallets = walletService.findAllByMembers(jamiah, memberIds);
         List<WalletDto> walletDtos = new ArrayList<>();
-        for (UserProfile profile : memberProfiles) {
+        for (MemberSummary profile : memberProfiles) {
             JamiahWallet wallet = wallets.get(profile.getId());
             if (wallet == null) {
-                wallet = walletService.getOrCreateWallet(jamiah, profile);
+                wallet = walletService.getOrCreateWallet(jamiah, userRepository.getReferenceById(profile.getId()));
             }
             walletDtos.add(toWalletDto(wallet, jamiah, profile));
         }
@@ -670,8 +749,17 @@ public class PaymentService {
     private List<JamiahPayment> ensurePaymentsForCycle(Jamiah jamiah, JamiahCycle cycle) {
         List<JamiahPayment> payments = paymentRepository
                 .findAllByJamiahIdAndCycleId(jamiah.getId(), cycle.getId());
-        Map<String, JamiahPayment> byUid = payments.stream()
-                .collect(Collectors.toMap(JamiahPayment::getPayerUid, payment -> payment, (existing, replacement) -> existing));
+        Set<String> existing = payments.stream()
+                .map(JamiahPayment::getPayerUid)
+                .collect(Collectors.toSet());
+        if (insertMissingPayments(jamiah, cycle, existing)) {
+            payments = paymentRepository.findAllByJamiahIdAndCycleId(jamiah.getId(), cycle.getId());
+        }
+        return payments;
+    }
+
+    /** Inserts open payments for payers of the round that have none yet; returns whether any were added. */
+    private boolean insertMissingPayments(Jamiah jamiah, JamiahCycle cycle, Set<String> existingPayerUids) {
         String recipientUid = cycle.getRecipient() != null ? cycle.getRecipient().getUid() : null;
         List<String> order = cycle.getMemberOrder();
         List<String> payerUids = new ArrayList<>();
@@ -688,23 +776,40 @@ public class PaymentService {
                 .filter(uid -> !Objects.equals(uid, recipientUid))
                 .distinct()
                 .collect(Collectors.toList());
-        boolean created = false;
-        for (String uid : uniquePayers) {
-            if (!byUid.containsKey(uid)) {
-                JamiahPayment newPayment = new JamiahPayment();
-                newPayment.setJamiahId(jamiah.getId());
-                newPayment.setCycleId(cycle.getId());
-                newPayment.setPayerUid(uid);
-                newPayment.setAmount(jamiah.getRateAmount());
-                paymentRepository.save(newPayment);
-                byUid.put(uid, newPayment);
-                created = true;
-            }
+        List<String> missing = uniquePayers.stream()
+                .filter(uid -> !existingPayerUids.contains(uid))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return false;
         }
-        if (created) {
-            payments = paymentRepository.findAllByJamiahIdAndCycleId(jamiah.getId(), cycle.getId());
+        paymentRepository.insertOpenPayments(jamiah.getId(), cycle.getId(), jamiah.getRateAmount(), missing);
+        stateVersions.touchCycle(jamiah.getId(), cycle.getId());
+        return true;
+    }
+
+    void publishPaymentUpdate(JamiahPayment payment, PaymentDto dto) {
+        eventPublisher.publishEvent(JamiahEvent.paymentUpdated(payment.getJamiahId(), payment.getCycleId(), payment.getId(),
+                payment.getPayerUid(), dto.getStatus()));
+    }
+
+    void roundChanged(JamiahCycle cycle) {
+        roundChanged(cycle.getJamiah() != null ? cycle.getJamiah().getId() : null, cycle.getId());
+    }
+
+    void roundChanged(Long jamiahId, Long cycleId) {
+        roundSnapshotCache.evictCycle(jamiahId, cycleId);
+        stateVersions.touchCycle(jamiahId, cycleId);
+    }
+
+    private Set<String> participantUids(Jamiah jamiah) {
+        Set<String> uids = jamiah.getMembers().stream()
+                .map(UserProfile::getUid)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        if (jamiah.getOwnerId() != null) {
+            uids.add(jamiah.getOwnerId());
         }
-        return payments;
+        return uids;
     }
 
     private void ensureMembership(String uid, Jamiah jamiah) {
@@ -715,6 +820,56 @@ public class PaymentService {
         }
     }
 
+    /**
+     * Loads a round with its Jamiah, members, recipient and payout order in one statement
+     * and checks that it belongs to the requested Jamiah without another lookup.
+     */
+    private JamiahCycle loadRound(Long cycleId, String jamiahPublicId) {
+        JamiahCycle cycle = cycleRepository.findRoundById(cycleId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Jamiah jamiah = cycle.getJamiah();
+        if (jamiahPublicId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Jamiah id required");
+        }
+        boolean matches = (jamiah.getPublicId() != null && jamiahPublicId.equalsIgnoreCase(jamiah.getPublicId().toString()))
+                || jamiahPublicId.equalsIgnoreCase(
+                        UUID.nameUUIDFromBytes(jamiah.getId().toString().getBytes()).toString());
+        if (!matches) {
+            // Resolve the requested id to answer 404 or 400 like the other endpoints do.
+            ensureMatchesPublicId(jamiah.getId(), jamiahPublicId);
+        }
+        return cycle;
+    }
+
+    /**
+     * Payments of the round, created on first access, with summaries of payers and
+     * recipient. Reads payments and payer summaries with a single statement.
+     */
+    private RoundPayments loadRoundPayments(Jamiah jamiah, JamiahCycle cycle) {
+        List<Object[]> rows = paymentRepository.findAllWithPayerByJamiahIdAndCycleId(jamiah.getId(), cycle.getId());
+        Set<String> existing = rows.stream()
+                .map(row -> ((JamiahPayment) row[0]).getPayerUid())
+                .collect(Collectors.toSet());
+        if (insertMissingPayments(jamiah, cycle, existing)) {
+            rows = paymentRepository.findAllWithPayerByJamiahIdAndCycleId(jamiah.getId(), cycle.getId());
+        }
+        List<JamiahPayment> payments = new ArrayList<>(rows.size());
+        Map<String, MemberSummary> users = new HashMap<>();
+        for (Object[] row : rows) {
+            JamiahPayment payment = (JamiahPayment) row[0];
+            payments.add(payment);
+            if (row[1] != null) {
+                users.put(payment.getPayerUid(), new MemberSummary((Long) row[1], (String) row[2], (String) row[3],
+                        (String) row[4], (String) row[5], (String) row[6]));
+            }
+        }
+        UserProfile recipient = cycle.getRecipient();
+        if (recipient != null && recipient.getUid() != null) {
+            users.putIfAbsent(recipient.getUid(), MemberSummary.of(recipient));
+        }
+        return new RoundPayments(payments, users);
+    }
+
     private Jamiah ensureMatchesPublicId(Long jamiahId, String publicId) {
         Jamiah jamiah = findJamiahByPublicId(publicId);
         if (!jamiah.getId().equals(jamiahId)) {
@@ -737,34 +892,85 @@ public class PaymentService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
-    private void startNextRoundIfNeeded(JamiahCycle current) {
+    /**
+     * Opens the next round for up to {@code limit} rounds whose due date has passed. Rows
+     * another instance is working on are skipped, so schedulers on several instances share
+     * the backlog. Returns the number of due rounds handled.
+     */
+    public int advanceDueRounds(java.time.LocalDate today, int limit) {
+        List<JamiahCycle> locked = cycleRepository.findDueForUpdate(today, PageRequest.of(0, limit));
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        List<JamiahCycle> due = cycleRepository.findForAdvanceByIdIn(locked.stream()
+                .map(JamiahCycle::getId)
+                .collect(Collectors.toList()));
+        Set<String> nextUids = new HashSet<>();
+        for (JamiahCycle cycle : due) {
+            int nextIndex = nextRoundIndex(cycle);
+            if (nextIndex >= 0) {
+                nextUids.add(cycle.getMemberOrder().get(nextIndex));
+            }
+        }
+        Map<String, MemberSummary> profiles = nextUids.isEmpty() ? new HashMap<>()
+                : userRepository.findSummariesByUidIn(nextUids).stream()
+                        .collect(Collectors.toMap(MemberSummary::getUid, profile -> profile, (first, second) -> first));
+        for (JamiahCycle cycle : due) {
+            startNextRoundIfNeeded(cycle, profiles);
+        }
+        return locked.size();
+    }
+
+    /**
+     * Opens the round after {@code current} with its payments unless that already happened,
+     * through an earlier receipt confirmation or the round scheduler.
+     */
+    private JamiahCycle startNextRoundIfNeeded(JamiahCycle current, Map<String, MemberSummary> profiles) {
+        if (cycleRepository.markAdvanced(current.getId()) == 0) {
+            return null;
+        }
+        int nextIndex = nextRoundIndex(current);
+        if (nextIndex < 0) {
+            return null;
+        }
+        String nextUid = current.getMemberOrder().get(nextIndex);
+        Long nextUserId = Optional.ofNullable(profiles.get(nextUid))
+                .or(() -> userRepository.findSummaryByUid(nextUid))
+                .map(MemberSummary::getId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        Jamiah jamiah = current.getJamiah();
+        RateInterval interval = RateInterval.orDefault(jamiah.getRateInterval());
+        JamiahCycle next = new JamiahCycle();
+        next.setJamiah(jamiah);
+        next.setCycleNumber(current.getCycleNumber() + 1);
+        next.setStartDate(interval.after(current.getStartDate()));
+        next.setDueDate(interval.after(next.getStartDate()));
+        next.setCompleted(false);
+        next.setRotation(current.getRotation());
+        next.setRoundIndex(nextIndex);
+        next.setRecipient(userRepository.getReferenceById(nextUserId));
+        cycleRepository.save(next);
+        if (!insertMissingPayments(jamiah, next, Set.of())) {
+            stateVersions.touchJamiah(jamiah.getId());
+        }
+        roundSnapshotCache.evictJamiah(jamiah.getId());
+        eventPublisher.publishEvent(JamiahEvent.roundOpened(jamiah.getId(), next.getId(), nextUid));
+        return next;
+    }
+
+    /** Position of the next round's recipient in the payout order, or -1 after the last round. */
+    private int nextRoundIndex(JamiahCycle current) {
         List<String> order = current.getMemberOrder();
         if (order == null || current.getRecipient() == null) {
-            return;
-        }
-        int idx = order.indexOf(current.getRecipient().getUid());
-        if (idx >= 0 && idx < order.size() - 1) {
-            JamiahCycle next = new JamiahCycle();
-            next.setJamiah(current.getJamiah());
-            next.setCycleNumber(current.getCycleNumber() + 1);
-            java.time.LocalDate nextStart = current.getStartDate();
-            if (current.getJamiah().getRateInterval() == RateInterval.MONTHLY) {
-                nextStart = nextStart.plusMonths(1);
-            } else {
-                nextStart = nextStart.plusWeeks(1);
-            }
-            next.setStartDate(nextStart);
-            next.setCompleted(false);
-            next.setMemberOrder(order == null ? null : new ArrayList<>(order));
-            String nextUid = order.get(idx + 1);
-            UserProfile nextUser = userRepository.findByUid(nextUid)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-            next.setRecipient(nextUser);
-            cycleRepository.save(next);
+            return -1;
         }
+        int idx = current.getRoundIndex() != null
+                ? current.getRoundIndex()
+                : order.indexOf(current.getRecipient().getUid());
+        return idx >= 0 && idx < order.size() - 1 ? idx + 1 : -1;
     }
 
-    private long toStripeAmount(BigDecimal amount) {
+    long toStripeAmount(BigDecimal amount) {
         try {
             return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
         } catch (ArithmeticException ex) {
@@ -772,7 +978,17 @@ public class PaymentService {
         }
     }
 
-    private BigDecimal fromStripeAmount(Long amount) {
+    BigDecimal fromStripeAmount(Long amount) {
         return BigDecimal.valueOf(amount).movePointLeft(2);
     }
+
+    private static final class RoundPayments {
+        private final List<JamiahPayment> payments;
+        private final Map<String, MemberSummary> users;
+
+        private RoundPayments(List<JamiahPayment> payments, Map<String, MemberSummary> users) {
+            this.payments = payments;
+            this.users = users;
+        }
+    }
 }
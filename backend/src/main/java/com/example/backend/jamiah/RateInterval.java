@@ -1,6 +1,18 @@
 package com.example.backend.jamiah;
 
+import java.time.LocalDate;
+
 public enum RateInterval {
     WEEKLY,
-    MONTHLY
+    MONTHLY;
+
+    /** Jamiahs without a rate interval have always run weekly. */
+    public static RateInterval orDefault(RateInterval interval) {
+        return interval != null ? interval : WEEKLY;
+    }
+
+    /** Start of the round following one that starts on {@code date}. */
+    public LocalDate after(LocalDate date) {
+        return this == MONTHLY ? date.plusMonths(1) : date.plusWeeks(1);
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.backend.jamiah;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Opens the next round of every round whose due date passed, whether or not its recipient
+ * confirmed receipt. Each batch runs in its own transaction and locks its rounds with
+ * SKIP LOCKED, so several instances drain the backlog without processing a round twice.
+ */
+@Component
+public class RoundScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoundScheduler.class);
+
+    private final PaymentService paymentService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public RoundScheduler(PaymentService paymentService,
+                          @Value("${jamiah.rounds.batch-size:100}") int batchSize,
+                          @Value("${jamiah.rounds.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.paymentService = paymentService;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+    }
+
+    @Scheduled(fixedDelayString = "${jamiah.rounds.interval-ms:60000}",
+            initialDelayString = "${jamiah.rounds.initial-delay-ms:60000}")
+    public void advanceDueRounds() {
+        LocalDate today = LocalDate.now();
+        long started = System.nanoTime();
+        int processed = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int handled;
+            try {
+                handled = paymentService.advanceDueRounds(today, batchSize);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Advancing due rounds failed, retrying next run: {}", ex.getMessage());
+                break;
+            }
+            processed += handled;
+            if (handled < batchSize) {
+                break;
+            }
+        }
+        if (processed > 0) {
+            long elapsedMs = Math.max(1L, (System.nanoTime() - started) / 1_000_000L);
+            LOGGER.info("Advanced {} due rounds in {} ms ({} rounds/s)",
+                    processed, elapsedMs, String.format("%.1f", processed * 1000d / elapsedMs));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.jamiah.dto.PaymentDto;
+import com.example.backend.jamiah.dto.RoundDto;
+import com.example.backend.jamiah.dto.WalletDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory read model of {@link RoundDto} per cycle. Snapshots are only stored after the
+ * building transaction commits and every payment or membership mutation evicts them after
+ * its own commit. Each eviction stamps its Jamiah with the next value of a sequence, so a
+ * slow rebuild that started before that stamp is not stored, while rebuilds for other
+ * Jamiahs are unaffected. The TTL bounds staleness caused by changes made on other
+ * instances.
+ */
+@Component
+public class RoundSnapshotCache {
+
+    private final ConcurrentHashMap<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> evictedAt = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    /** Builds started before this value are rejected; raised when {@link #evictedAt} is cleared. */
+    private volatile long evictedBefore;
+    private final Duration ttl;
+    private final int maxEntries;
+
+    public RoundSnapshotCache(@Value("${jamiah.round-cache.ttl-ms:30000}") long ttlMs,
+                              @Value("${jamiah.round-cache.max-entries:10000}") int maxEntries) {
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns a copy of the cached round if the caller is allowed to see it, {@code null}
+     * if nothing usable is cached. Authorization failures are left to the uncached path so
+     * callers get the same errors as before.
+     */
+    public RoundDto find(Long cycleId, String jamiahPublicId, String callerUid) {
+        if (cycleId == null || ttl.isZero()) {
+            return null;
+        }
+        Snapshot snapshot = snapshots.get(cycleId);
+        if (snapshot == null) {
+            return null;
+        }
+        if (snapshot.createdAt.plus(ttl).isBefore(Instant.now())) {
+            snapshots.remove(cycleId, snapshot);
+            return null;
+        }
+        if (!snapshot.matches(jamiahPublicId) || callerUid == null || !snapshot.participants.contains(callerUid)) {
+            return null;
+        }
+        return copy(snapshot.round);
+    }
+
+    /** Read before loading a round and passed back to {@link #store}. */
+    public long currentGeneration() {
+        return sequence.get();
+    }
+
+    /**
+     * Stores a freshly built round once the surrounding transaction has committed, unless
+     * its Jamiah was evicted since {@code builtAtGeneration} was read.
+     */
+    public void store(long builtAtGeneration, Jamiah jamiah, Set<String> participants, RoundDto round) {
+        if (ttl.isZero() || round == null || round.getId() == null || jamiah == null || jamiah.getId() == null) {
+            return;
+        }
+        Snapshot snapshot = new Snapshot(jamiah.getId(),
+                jamiah.getPublicId() != null ? jamiah.getPublicId().toString() : null,
+                Set.copyOf(participants), copy(round));
+        Long cycleId = round.getId();
+        afterCommit(() -> {
+            if (isStale(snapshot.jamiahId, builtAtGeneration)) {
+                return;
+            }
+            if (snapshots.size() >= maxEntries) {
+                pruneExpired();
+            }
+            if (snapshots.size() < maxEntries) {
+                snapshots.put(cycleId, snapshot);
+                // An eviction that ran between the check and the put must still win.
+                if (isStale(snapshot.jamiahId, builtAtGeneration)) {
+                    snapshots.remove(cycleId, snapshot);
+                }
+            }
+        });
+    }
+
+    public void evictCycle(Long jamiahId, Long cycleId) {
+        afterCommit(() -> {
+            markEvicted(jamiahId);
+            if (cycleId != null) {
+                snapshots.remove(cycleId);
+            }
+        });
+    }
+
+    public void evictJamiah(Long jamiahId) {
+        afterCommit(() -> {
+            markEvicted(jamiahId);
+            if (jamiahId != null) {
+                snapshots.values().removeIf(snapshot -> jamiahId.equals(snapshot.jamiahId));
+            }
+        });
+    }
+
+    private void markEvicted(Long jamiahId) {
+        long stamp = sequence.incrementAndGet();
+        if (jamiahId == null) {
+            evictedBefore = stamp;
+            return;
+        }
+        evictedAt.merge(jamiahId, stamp, Math::max);
+        if (evictedAt.size() > maxEntries) {
+            evictedBefore = stamp;
+            evictedAt.clear();
+        }
+    }
+
+    private boolean isStale(Long jamiahId, long builtAtGeneration) {
+        if (builtAtGeneration < evictedBefore) {
+            return true;
+        }
+        Long stamp = evictedAt.get(jamiahId);
+        return stamp != null && stamp > builtAtGeneration;
+    }
+
+    private void pruneExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        snapshots.values().removeIf(snapshot -> snapshot.createdAt.isBefore(cutoff));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /** Copies every mutable DTO so neither the caller nor the cache can change the other's view. */
+    private static RoundDto copy(RoundDto source) {
+        RoundDto dto = new RoundDto();
+        dto.setId(source.getId());
+        dto.setCycleNumber(source.getCycleNumber());
+        dto.setStartDate(source.getStartDate());
+        dto.setCompleted(source.isCompleted());
+        dto.setReceiptConfirmed(source.isReceiptConfirmed());
+        dto.setAllPaid(source.isAllPaid());
+        dto.setExpectedAmount(source.getExpectedAmount());
+        dto.setRecipient(copy(source.getRecipient()));
+        dto.setPayments(copyAll(source.getPayments(), RoundSnapshotCache::copy));
+        dto.setWallets(copyAll(source.getWallets(), RoundSnapshotCache::copy));
+        return dto;
+    }
+
+    private static RoundDto.Recipient copy(RoundDto.Recipient source) {
+        if (source == null) {
+            return null;
+        }
+        RoundDto.Recipient recipient = new RoundDto.Recipient();
+        recipient.setUid(source.getUid());
+        recipient.setUsername(source.getUsername());
+        recipient.setFirstName(source.getFirstName());
+        recipient.setLastName(source.getLastName());
+        return recipient;
+    }
+
+    private static PaymentDto copy(PaymentDto source) {
+        if (source == null) {
+            return null;
+        }
+        PaymentDto payment = new PaymentDto();
+        payment.setId(source.getId());
+        payment.setPaidAt(source.getPaidAt());
+        payment.setAmount(source.getAmount());
+        payment.setRecipientConfirmedAt(source.getRecipientConfirmedAt());
+        payment.setStripePaymentIntentId(source.getStripePaymentIntentId());
+        payment.setClientSecret(source.getClientSecret());
+        payment.setPublishableKey(source.getPublishableKey());
+        payment.setStatus(source.getStatus());
+        if (source.getUser() != null) {
+            PaymentDto.UserRef user = new PaymentDto.UserRef();
+            user.setUid(source.getUser().getUid());
+            user.setUsername(source.getUser().getUsername());
+            user.setFirstName(source.getUser().getFirstName());
+            user.setLastName(source.getUser().getLastName());
+            payment.setUser(user);
+        }
+        return payment;
+    }
+
+    private static WalletDto copy(WalletDto source) {
+        if (source == null) {
+            return null;
+        }
+        WalletDto wallet = new WalletDto();
+        wallet.setJamiahId(source.getJamiahId());
+        wallet.setMemberId(source.getMemberId());
+        wallet.setUsername(source.getUsername());
+        wallet.setBalance(source.getBalance());
+        wallet.setReserved(source.getReserved());
+        wallet.setLastUpdated(source.getLastUpdated());
+        wallet.setKycStatus(source.getKycStatus());
+        wallet.setRequiresOnboarding(source.isRequiresOnboarding());
+        wallet.setLockedForPayments(source.isLockedForPayments());
+        wallet.setLockedForPayouts(source.isLockedForPayouts());
+        return wallet;
+    }
+
+    private static <T> List<T> copyAll(List<T> source, UnaryOperator<T> copier) {
+        if (source == null) {
+            return null;
+        }
+        List<T> copies = new ArrayList<>(source.size());
+        source.forEach(item -> copies.add(copier.apply(item)));
+        return copies;
+    }
+
+    private static final class Snapshot {
+        private final Long jamiahId;
+        private final String publicId;
+        private final String legacyPublicId;
+        private final Set<String> participants;
+        private final RoundDto round;
+        private final Instant createdAt = Instant.now();
+
+        private Snapshot(Long jamiahId, String publicId, Set<String> participants, RoundDto round) {
+            this.jamiahId = jamiahId;
+            this.publicId = publicId;
+            this.legacyPublicId = UUID.nameUUIDFromBytes(
+                    jamiahId.toString().getBytes(StandardCharsets.UTF_8)).toString();
+            this.participants = participants;
+            this.round = round;
+        }
+
+        private boolean matches(String requested) {
+            return requested != null
+                    && (requested.equalsIgnoreCase(publicId) || requested.equalsIgnoreCase(legacyPublicId));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend.jamiah.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class CycleDto {
+    private Long id;
+    private Integer cycleNumber;
+    private LocalDate startDate;
+    private boolean completed;
+    private boolean recipientConfirmed;
+    private List<String> memberOrder;
+    private Recipient recipient;
+
+    @Data
+    public static class Recipient {
+        private Long id;
+        private String uid;
+        private String username;
+        private String firstName;
+        private String lastName;
+    }
+}
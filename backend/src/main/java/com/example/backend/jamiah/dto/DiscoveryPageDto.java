@@ -0,0 +1,21 @@
+package com.example.backend.jamiah.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/** One page of public Jamiah search results with facet counts over all matches. */
+@Data
+public class DiscoveryPageDto {
+    private List<JamiahDto> items;
+
+    private long total;
+
+    private int page;
+
+    private int size;
+
+    /** Match counts per facet value, keyed by facet name. */
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,31 @@
+package com.example.backend.jamiah.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact delta pushed over the Jamiah event stream. Only the fields relevant to the
+ * event type are set.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JamiahEventDto {
+    public enum Type {
+        PAYMENT_UPDATED,
+        ROUND_COMPLETED,
+        ROUND_OPENED,
+        WALLET_UPDATED
+    }
+
+    private Type type;
+    private Long cycleId;
+    private Long paymentId;
+    private String payerUid;
+    private PaymentDto.PaymentStatus status;
+    private String recipientUid;
+    private String memberUid;
+    private BigDecimal balance;
+    private BigDecimal reserved;
+}
@@ -0,0 +1,24 @@
+package com.example.backend.jamiah.dto;
+
+import com.example.backend.jamiah.JamiahJoinRequest;
+import lombok.Data;
+
+/** A member of a Jamiah and how they became one. */
+@Data
+public class MemberDto {
+    private Long id;
+    private String uid;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String profileImageHash;
+    private JoinOrigin joinOrigin;
+    /** Status of the member's join request, {@code null} unless they joined through one. */
+    private JamiahJoinRequest.Status joinRequestStatus;
+
+    public enum JoinOrigin {
+        OWNER,
+        JOIN_REQUEST,
+        DIRECT
+    }
+}
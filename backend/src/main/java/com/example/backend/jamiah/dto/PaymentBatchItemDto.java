@@ -0,0 +1,39 @@
+package com.example.backend.jamiah.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * Outcome of one payment within a batch request. {@code status} mirrors the HTTP status
+ * the single-payment endpoint would have answered with.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentBatchItemDto {
+    private Long paymentId;
+    private int status;
+    private String error;
+    private PaymentDto payment;
+    private WalletDto wallet;
+
+    public static PaymentBatchItemDto success(Long paymentId, PaymentDto payment) {
+        return success(paymentId, payment, null);
+    }
+
+    public static PaymentBatchItemDto success(Long paymentId, PaymentDto payment, WalletDto wallet) {
+        PaymentBatchItemDto dto = new PaymentBatchItemDto();
+        dto.setPaymentId(paymentId);
+        dto.setStatus(200);
+        dto.setPayment(payment);
+        dto.setWallet(wallet);
+        return dto;
+    }
+
+    public static PaymentBatchItemDto failure(Long paymentId, int status, String error) {
+        PaymentBatchItemDto dto = new PaymentBatchItemDto();
+        dto.setPaymentId(paymentId);
+        dto.setStatus(status);
+        dto.setError(error);
+        return dto;
+    }
+}
@@ -29,36 +29,83 @@ public class StripePaymentProvider {
                     + "You can generate API keys from the Stripe Dashboard. See https://stripe.com/docs/api/authentication "
                     + "for details or contact support at https://support.stripe.com/email if you have any questions.";
 
+    private final String apiKey;
     private final String sandboxId;
     private final RequestOptions requestOptions;
+    private final StripeResultCache resultCache;
 
     public StripePaymentProvider(
             @Value("${stripe.api-key:}") String apiKey,
-            @Value("${stripe.sandbox-id:}") String sandboxId) {
-        RequestOptions.RequestOptionsBuilder builder = RequestOptions.builder();
-        builder.setApiKey(apiKey);
-        String normalizedApiKey = builder.getApiKey();
+            @Value("${stripe.sandbox-id:}") String sandboxId,
+            @Value("${stripe.idempotency.cache-ttl-ms:600000}") long resultCacheTtlMs,
+            @Value("${stripe.idempotency.cache-max-entries:10000}") int resultCacheMaxEntries) {
+        this.apiKey = apiKey;
         this.sandboxId = (sandboxId == null || sandboxId.isBlank()) ? null : sandboxId;
-        if (this.sandboxId != null || normalizedApiKey != null) {
-            builder.setAuthenticator(new SandboxAwareAuthenticator(normalizedApiKey, this.sandboxId));
-        }
-        this.requestOptions = builder.build();
+        this.requestOptions = buildRequestOptions(null);
+        this.resultCache = new StripeResultCache(resultCacheTtlMs, resultCacheMaxEntries);
     }
 
     RequestOptions getRequestOptions() {
         return requestOptions;
     }
 
+    /**
+     * Builds request options carrying the given idempotency key so that retried
+     * mutations are deduplicated by Stripe.
+     */
+    RequestOptions getRequestOptions(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return requestOptions;
+        }
+        return buildRequestOptions(idempotencyKey);
+    }
+
+    private RequestOptions buildRequestOptions(String idempotencyKey) {
+        RequestOptions.RequestOptionsBuilder builder = RequestOptions.builder();
+        builder.setApiKey(apiKey);
+        String normalizedApiKey = builder.getApiKey();
+        if (sandboxId != null || normalizedApiKey != null) {
+            builder.setAuthenticator(new SandboxAwareAuthenticator(normalizedApiKey, sandboxId));
+        }
+        if (idempotencyKey != null) {
+            builder.setIdempotencyKey(idempotencyKey);
+        }
+        return builder.build();
+    }
+
     public PaymentIntent createPaymentIntent(Map<String, Object> params) throws StripeException {
         return PaymentIntent.create(params, requestOptions);
     }
 
+    /**
+     * Creates a PaymentIntent under {@code idempotencyKey}. A repeated call with the same key
+     * is answered from the local result cache or, after a miss, deduplicated by Stripe.
+     */
+    public PaymentIntent createPaymentIntent(Map<String, Object> params, String idempotencyKey)
+            throws StripeException {
+        return idempotent(idempotencyKey, PaymentIntent.class,
+                () -> PaymentIntent.create(params, getRequestOptions(idempotencyKey)));
+    }
+
     public PaymentIntent updatePaymentIntent(String paymentIntentId, Map<String, Object> params)
             throws StripeException {
         PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId, requestOptions);
         return paymentIntent.update(params, requestOptions);
     }
 
+    /**
+     * Updates a PaymentIntent under {@code idempotencyKey}. The intent is updated by id
+     * without retrieving it first.
+     */
+    public PaymentIntent updatePaymentIntent(String paymentIntentId, Map<String, Object> params,
+                                             String idempotencyKey) throws StripeException {
+        return idempotent(idempotencyKey, PaymentIntent.class, () -> {
+            PaymentIntent paymentIntent = new PaymentIntent();
+            paymentIntent.setId(paymentIntentId);
+            return paymentIntent.update(params, getRequestOptions(idempotencyKey));
+        });
+    }
+
     public PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException {
         return PaymentIntent.retrieve(paymentIntentId, requestOptions);
     }
@@ -67,6 +114,10 @@ public class StripePaymentProvider {
         return Account.create(params, requestOptions);
     }
 
+    public Account createAccount(Map<String, Object> params, String idempotencyKey) throws StripeException {
+        return idempotent(idempotencyKey, Account.class, () -> Account.create(params, getRequestOptions(idempotencyKey)));
+    }
+
     public Account retrieveAccount(String accountId) throws StripeException {
         return Account.retrieve(accountId, requestOptions);
     }
@@ -83,6 +134,10 @@ public class StripePaymentProvider {
         return Transfer.create(params, requestOptions);
     }
 
+    public Transfer createTransfer(Map<String, Object> params, String idempotencyKey) throws StripeException {
+        return idempotent(idempotencyKey, Transfer.class, () -> Transfer.create(params, getRequestOptions(idempotencyKey)));
+    }
+
     public String getSandboxId() {
         return sandboxId;
     }
@@ -92,6 +147,21 @@ public class StripePaymentProvider {
         return apiKey != null && !apiKey.isBlank();
     }
 
+    private <T> T idempotent(String idempotencyKey, Class<T> type, StripeCall<T> call) throws StripeException {
+        T cached = resultCache.find(idempotencyKey, type);
+        if (cached != null) {
+            return cached;
+        }
+        T result = call.execute();
+        resultCache.store(idempotencyKey, result);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface StripeCall<T> {
+        T execute() throws StripeException;
+    }
+
     static final class SandboxAwareAuthenticator implements Authenticator {
         private final BearerTokenAuthenticator delegate;
         private final String sandboxId;
@@ -0,0 +1,61 @@
+package com.example.backend.payment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the results of recent idempotent Stripe mutations by idempotency key, so a
+ * retried request is answered locally instead of asking Stripe to replay it. Entries
+ * expire well before Stripe forgets the key (24 hours) and the cache is per instance;
+ * a miss simply falls through to Stripe, which deduplicates by the same key.
+ */
+final class StripeResultCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final int maxEntries;
+
+    StripeResultCache(long ttlMs, int maxEntries) {
+        this.ttl = Duration.ofMillis(Math.max(0L, ttlMs));
+        this.maxEntries = maxEntries;
+    }
+
+    <T> T find(String key, Class<T> type) {
+        if (key == null || ttl.isZero()) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt.isBefore(Instant.now())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return type.isInstance(entry.value) ? type.cast(entry.value) : null;
+    }
+
+    void store(String key, Object value) {
+        if (key == null || value == null || ttl.isZero()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            Instant now = Instant.now();
+            entries.values().removeIf(entry -> entry.expiresAt.isBefore(now));
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(key, new Entry(value, Instant.now().plus(ttl)));
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final Instant expiresAt;
+
+        private Entry(Object value, Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
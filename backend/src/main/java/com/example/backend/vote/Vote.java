@@ -16,17 +16,22 @@ public class Vote {
 
     private String title;
 
+    /** Jamiah whose members may vote; {@code null} for votes created before votes were scoped. */
+    @Column(name = "jamiah_id")
+    private Long jamiahId;
+
+    /** Member count when the vote was created; the vote closes once this many members voted. */
+    @Column(name = "eligible_voters")
+    private Integer eligibleVoters;
+
+    @Column(name = "ballot_count", nullable = false)
+    private Integer ballotCount = 0;
+
     @ElementCollection
     @CollectionTable(name = "vote_options", joinColumns = @JoinColumn(name = "vote_id"))
     @Column(name = "option_value")
     private List<String> options = new ArrayList<>();
 
-    @ElementCollection
-    @CollectionTable(name = "vote_ballots", joinColumns = @JoinColumn(name = "vote_id"))
-    @MapKeyColumn(name = "user_id")
-    @Column(name = "choice")
-    private Map<String, String> ballots = new HashMap<>();
-
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime expiresAt;
 
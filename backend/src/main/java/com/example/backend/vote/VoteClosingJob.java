@@ -0,0 +1,67 @@
+package com.example.backend.vote;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Closes and tallies expired votes in batches, one transaction per batch. When a batch
+ * fails, its votes are retried one at a time, so a single broken vote is logged and
+ * skipped instead of keeping the rest of the batch open.
+ */
+@Component
+public class VoteClosingJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VoteClosingJob.class);
+
+    private final VoteService voteService;
+    private final int batchSize;
+
+    public VoteClosingJob(VoteService voteService,
+                          @Value("${votes.closing.batch-size:200}") int batchSize) {
+        this.voteService = voteService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${votes.closing.interval-ms:60000}",
+            initialDelayString = "${votes.closing.interval-ms:60000}")
+    public void closeExpiredVotes() {
+        LocalDateTime now = LocalDateTime.now();
+        int closed = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = voteService.findExpiredIds(now, afterId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            try {
+                closed += voteService.closeExpired(ids, now);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Closing expired votes {} failed, retrying one by one: {}", ids, ex.getMessage());
+                closed += closeOneByOne(ids, now);
+            }
+        } while (ids.size() == batchSize);
+        if (closed > 0) {
+            LOGGER.info("Closed {} expired votes", closed);
+        }
+    }
+
+    private int closeOneByOne(List<Long> ids, LocalDateTime now) {
+        int closed = 0;
+        for (Long id : ids) {
+            try {
+                closed += voteService.closeExpired(List.of(id), now);
+            } catch (RuntimeException ex) {
+                LOGGER.error("Could not close expired vote {}", id, ex);
+            }
+        }
+        return closed;
+    }
+}
@@ -16,22 +16,28 @@ public class VoteController {
     }
 
     @GetMapping
-    public List<Vote> listVotes() {
-        return service.getVotes();
+    public List<VoteDto> listVotes(@RequestParam(required = false) String jamiahId,
+                                   @RequestParam(required = false) String uid,
+                                   @RequestParam(required = false) Boolean closed,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(defaultValue = "50") int size) {
+        return service.getVotes(jamiahId, uid, closed, page, size);
     }
 
     @PostMapping
     public Vote create(@RequestBody CreateVoteRequest request) {
-        return service.createVote(request.getTitle(), request.getOptions());
+        return service.createVote(request.getJamiahId(), request.getUid(), request.getTitle(), request.getOptions());
     }
 
     @PostMapping("/{id}/vote")
-    public Vote vote(@PathVariable Long id, @RequestBody CastVoteRequest request) {
+    public VoteDto vote(@PathVariable Long id, @RequestBody CastVoteRequest request) {
         return service.castVote(id, request.getUserId(), request.getChoice());
     }
 
     @Data
     static class CreateVoteRequest {
+        private String jamiahId;
+        private String uid;
         private String title;
         private List<String> options;
     }
@@ -0,0 +1,25 @@
+package com.example.backend.vote;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of a vote. A vote past its expiry is reported as closed even before
+ * the closing job has tallied it; {@code result} is set once it has.
+ */
+@Data
+public class VoteDto {
+    private Long id;
+    private String title;
+    private List<String> options;
+    /** Ballots per option; options nobody chose are absent. */
+    private Map<String, Long> tallies;
+    private long ballotCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private boolean closed;
+    private String result;
+}
@@ -1,6 +1,81 @@
 package com.example.backend.vote;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface VoteRepository extends JpaRepository<Vote, Long> {
+
+    /** Ids of open votes past their expiry, in id order after {@code afterId}. */
+    @Query("select v.id from Vote v where v.closed = false and v.expiresAt <= :now and v.id > :afterId "
+            + "order by v.id")
+    List<Long> findExpiredOpenIds(@Param("now") LocalDateTime now, @Param("afterId") Long afterId,
+                                  Pageable pageable);
+
+    /**
+     * The given votes that are still open and expired. Rows locked by another instance are
+     * skipped (lock timeout -2 maps to SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select v from Vote v where v.id in :ids and v.closed = false and v.expiresAt <= :now order by v.id")
+    List<Vote> findExpiredOpenForUpdate(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("select v.id from Vote v where v.jamiahId is null order by v.createdAt desc, v.id desc")
+    List<Long> findUnscopedPageIds(Pageable pageable);
+
+    @Query("select v.id from Vote v where v.jamiahId = :jamiahId order by v.createdAt desc, v.id desc")
+    List<Long> findPageIdsByJamiahId(@Param("jamiahId") Long jamiahId, Pageable pageable);
+
+    @Query("select v.id from Vote v where v.jamiahId = :jamiahId and v.closed = :closed "
+            + "order by v.createdAt desc, v.id desc")
+    List<Long> findPageIdsByJamiahIdAndClosed(@Param("jamiahId") Long jamiahId,
+                                              @Param("closed") Boolean closed,
+                                              Pageable pageable);
+
+    @Query("select distinct v from Vote v left join fetch v.options where v.id in :ids")
+    List<Vote> findWithOptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks the vote while a ballot is cast. Ballots of one vote are serialized so its
+     * counter stays exact, and the closing job skips the vote until the ballot is counted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from Vote v where v.id = :id")
+    Optional<Vote> findForBallotById(@Param("id") Long id);
+
+    /** Records the current members of the Jamiah as the vote's voters; returns their number. */
+    @Modifying
+    @Query(value = "insert into vote_voters (vote_id, user_id) "
+            + "select :voteId, u.uid from jamiah_members m join user_profiles u on u.id = m.user_profile_id "
+            + "where m.jamiah_id = :jamiahId and u.uid is not null", nativeQuery = true)
+    int insertVoters(@Param("voteId") Long voteId, @Param("jamiahId") Long jamiahId);
+
+    @Query(value = "select user_id from vote_voters where vote_id = :voteId and user_id = :userId",
+            nativeQuery = true)
+    Optional<String> findVoter(@Param("voteId") Long voteId, @Param("userId") String userId);
+
+    /**
+     * Locks the caller's ballot and returns its choice as the only element, or nothing if
+     * they have not voted yet. Ballots withdrawn before choices were required hold {@code null}.
+     */
+    @Query(value = "select choice from vote_ballots where vote_id = :voteId and user_id = :userId for update",
+            nativeQuery = true)
+    List<String> findBallotChoiceForUpdate(@Param("voteId") Long voteId, @Param("userId") String userId);
+
+    @Modifying
+    @Query(value = "insert into vote_ballots (vote_id, user_id, choice) values (:voteId, :userId, :choice) "
+            + "on duplicate key update choice = :choice", nativeQuery = true)
+    int upsertBallot(@Param("voteId") Long voteId, @Param("userId") String userId, @Param("choice") String choice);
 }
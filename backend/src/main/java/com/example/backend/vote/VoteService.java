@@ -1,55 +1,216 @@
 package com.example.backend.vote;
 
+import com.example.backend.jamiah.Jamiah;
+import com.example.backend.jamiah.JamiahRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class VoteService {
+    static final int MAX_PAGE_SIZE = 100;
+
     private final VoteRepository repository;
+    private final VoteTallyRepository tallyRepository;
+    private final JamiahRepository jamiahRepository;
 
-    public VoteService(VoteRepository repository) {
+    public VoteService(VoteRepository repository,
+                       VoteTallyRepository tallyRepository,
+                       JamiahRepository jamiahRepository) {
         this.repository = repository;
+        this.tallyRepository = tallyRepository;
+        this.jamiahRepository = jamiahRepository;
     }
 
-    public List<Vote> getVotes() {
-        List<Vote> votes = repository.findAll();
-        votes.forEach(this::checkExpiry);
-        return votes;
+    /**
+     * One page of votes, newest first: the votes of a Jamiah the caller belongs to, or the
+     * votes created before votes were scoped when no Jamiah is given. Never writes; expired
+     * votes are closed by {@link VoteClosingJob}.
+     */
+    @Transactional(readOnly = true)
+    public List<VoteDto> getVotes(String jamiahPublicId, String uid, Boolean closed, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize);
+        List<Long> ids;
+        if (jamiahPublicId == null) {
+            ids = repository.findUnscopedPageIds(pageable);
+        } else {
+            Jamiah jamiah = findJamiah(jamiahPublicId);
+            ensureMember(jamiah.getId(), uid);
+            ids = closed == null
+                    ? repository.findPageIdsByJamiahId(jamiah.getId(), pageable)
+                    : repository.findPageIdsByJamiahIdAndClosed(jamiah.getId(), closed, pageable);
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Vote> votes = repository.findWithOptionsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Vote::getId, Function.identity()));
+        Map<Long, Map<String, Long>> tallies = loadTallies(ids);
+        LocalDateTime now = LocalDateTime.now();
+        return ids.stream()
+                .map(id -> toDto(votes.get(id), tallies.getOrDefault(id, Map.of()), now))
+                .collect(Collectors.toList());
     }
 
-    public Vote createVote(String title, List<String> options) {
+    /**
+     * Creates a vote for the members of a Jamiah; only members may create one. The current
+     * members become the vote's voters; members who join later cannot vote on it.
+     */
+    @Transactional
+    public Vote createVote(String jamiahPublicId, String uid, String title, List<String> options) {
+        if (jamiahPublicId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Jamiah id required");
+        }
+        Jamiah jamiah = findJamiah(jamiahPublicId);
+        ensureMember(jamiah.getId(), uid);
         Vote vote = new Vote();
+        vote.setJamiahId(jamiah.getId());
         vote.setTitle(title);
         vote.setOptions(options);
         vote.setCreatedAt(LocalDateTime.now());
         vote.setExpiresAt(LocalDateTime.now().plusDays(5));
-        return repository.save(vote);
+        vote = repository.save(vote);
+        vote.setEligibleVoters(repository.insertVoters(vote.getId(), jamiah.getId()));
+        return vote;
     }
 
-    public Vote castVote(Long id, String userId, String choice) {
-        Vote vote = repository.findById(id).orElseThrow();
-        checkExpiry(vote);
-        if (Boolean.TRUE.equals(vote.getClosed())) {
+    /**
+     * Records or changes the caller's ballot. Touches one ballot row and at most two tally
+     * rows, independent of how many ballots the vote already has. The vote closes as soon
+     * as its ballot counter reaches the number of eligible voters. Only the voters recorded
+     * when the vote was created, who are still members, may cast a ballot, and only for one
+     * of the vote's options; votes created before votes were scoped to a Jamiah take no more
+     * ballots.
+     */
+    @Transactional
+    public VoteDto castVote(Long id, String userId, String choice) {
+        LocalDateTime now = LocalDateTime.now();
+        Vote vote = repository.findForBallotById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (vote.getJamiahId() == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Vote is not open to ballots");
+        }
+        ensureMember(vote.getJamiahId(), userId);
+        if (repository.findVoter(id, userId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not eligible for this vote");
+        }
+        if (Boolean.TRUE.equals(vote.getClosed()) || isExpired(vote, now)) {
             throw new IllegalStateException("Vote already closed");
         }
-        vote.getBallots().put(userId, choice);
-        return repository.save(vote);
+        if (choice == null || choice.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Choice required");
+        }
+        if (!vote.getOptions().contains(choice)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown choice");
+        }
+        List<String> ballot = repository.findBallotChoiceForUpdate(id, userId);
+        boolean firstBallot = ballot.isEmpty();
+        String previous = firstBallot ? null : ballot.get(0);
+        if (!Objects.equals(previous, choice)) {
+            repository.upsertBallot(id, userId, choice);
+            if (previous != null) {
+                tallyRepository.decrement(id, previous);
+            }
+            tallyRepository.increment(id, choice);
+        }
+        Map<String, Long> tallies = loadTallies(List.of(id)).getOrDefault(id, Map.of());
+        if (firstBallot) {
+            vote.setBallotCount(vote.getBallotCount() + 1);
+            if (vote.getEligibleVoters() != null && vote.getBallotCount() >= vote.getEligibleVoters()) {
+                vote.setClosed(true);
+                vote.setResult(result(tallies));
+            }
+        }
+        return toDto(vote, tallies, now);
     }
 
-    private void checkExpiry(Vote vote) {
-        if (Boolean.TRUE.equals(vote.getClosed())) return;
-        if (vote.getExpiresAt() != null && LocalDateTime.now().isAfter(vote.getExpiresAt())) {
-            boolean unanimous = !vote.getBallots().isEmpty() &&
-                    vote.getBallots().values().stream().distinct().count() == 1;
+    /** Ids of up to {@code limit} expired open votes with an id above {@code afterId}, in id order. */
+    @Transactional(readOnly = true)
+    public List<Long> findExpiredIds(LocalDateTime now, long afterId, int limit) {
+        return repository.findExpiredOpenIds(now, afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Tallies the given expired open votes in one transaction from their counts, without
+     * reading ballots. Votes another instance is closing, or that are receiving a ballot,
+     * are skipped. Returns the number of votes closed.
+     */
+    @Transactional
+    public int closeExpired(Collection<Long> voteIds, LocalDateTime now) {
+        List<Vote> expired = repository.findExpiredOpenForUpdate(voteIds, now);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Map<String, Long>> tallies = loadTallies(expired.stream().map(Vote::getId).collect(Collectors.toList()));
+        for (Vote vote : expired) {
             vote.setClosed(true);
-            if (unanimous) {
-                vote.setResult(vote.getBallots().values().stream().findFirst().orElse(null));
-            } else {
-                vote.setResult("REJECTED");
-            }
-            repository.save(vote);
+            vote.setResult(result(tallies.getOrDefault(vote.getId(), Map.of())));
         }
+        return expired.size();
+    }
+
+    /** The common choice when every ballot agrees, otherwise {@code REJECTED}. */
+    static String result(Map<String, Long> tallies) {
+        return tallies.size() == 1 ? tallies.keySet().iterator().next() : "REJECTED";
+    }
+
+    private Map<Long, Map<String, Long>> loadTallies(Collection<Long> voteIds) {
+        Map<Long, Map<String, Long>> tallies = new HashMap<>();
+        for (VoteTally tally : tallyRepository.findCountedByVoteIdIn(voteIds)) {
+            tallies.computeIfAbsent(tally.getVoteId(), voteId -> new HashMap<>())
+                    .put(tally.getOptionValue(), tally.getVotes());
+        }
+        return tallies;
+    }
+
+    private Jamiah findJamiah(String publicId) {
+        UUID uuid = null;
+        try {
+            uuid = UUID.fromString(publicId);
+        } catch (IllegalArgumentException ignored) {
+        }
+        return (uuid != null ? jamiahRepository.findByPublicId(uuid) : Optional.<Jamiah>empty())
+                .or(() -> jamiahRepository.findByLegacyPublicId(publicId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Jamiah not found"));
+    }
+
+    private void ensureMember(Long jamiahId, String uid) {
+        if (uid == null || !jamiahRepository.isMember(jamiahId, uid)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a member of this Jamiah");
+        }
+    }
+
+    private static boolean isExpired(Vote vote, LocalDateTime now) {
+        return vote.getExpiresAt() != null && now.isAfter(vote.getExpiresAt());
+    }
+
+    private VoteDto toDto(Vote vote, Map<String, Long> tallies, LocalDateTime now) {
+        VoteDto dto = new VoteDto();
+        dto.setId(vote.getId());
+        dto.setTitle(vote.getTitle());
+        dto.setOptions(new ArrayList<>(vote.getOptions()));
+        dto.setTallies(new HashMap<>(tallies));
+        dto.setBallotCount(vote.getBallotCount());
+        dto.setCreatedAt(vote.getCreatedAt());
+        dto.setExpiresAt(vote.getExpiresAt());
+        dto.setClosed(Boolean.TRUE.equals(vote.getClosed()) || isExpired(vote, now));
+        dto.setResult(vote.getResult());
+        return dto;
     }
 }
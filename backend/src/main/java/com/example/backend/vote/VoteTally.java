@@ -0,0 +1,34 @@
+package com.example.backend.vote;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/** Number of ballots for one option of a vote, kept current as ballots are cast. */
+@Data
+@Entity
+@Table(name = "vote_tallies")
+@IdClass(VoteTally.Key.class)
+public class VoteTally {
+    @Id
+    @Column(name = "vote_id")
+    private Long voteId;
+
+    @Id
+    @Column(name = "option_value")
+    private String optionValue;
+
+    @Column(name = "votes", nullable = false)
+    private Long votes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long voteId;
+        private String optionValue;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.backend.vote;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VoteTallyRepository extends JpaRepository<VoteTally, VoteTally.Key> {
+
+    @Modifying
+    @Query(value = "insert into vote_tallies (vote_id, option_value, votes) values (:voteId, :option, 1) "
+            + "on duplicate key update votes = votes + 1", nativeQuery = true)
+    int increment(@Param("voteId") Long voteId, @Param("option") String option);
+
+    @Modifying
+    @Query("update VoteTally t set t.votes = t.votes - 1 "
+            + "where t.voteId = :voteId and t.optionValue = :option and t.votes > 0")
+    int decrement(@Param("voteId") Long voteId, @Param("option") String option);
+
+    @Query("select t from VoteTally t where t.voteId in :voteIds and t.votes > 0")
+    List<VoteTally> findCountedByVoteIdIn(@Param("voteIds") Collection<Long> voteIds);
+}
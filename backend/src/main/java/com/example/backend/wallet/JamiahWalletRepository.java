@@ -3,6 +3,8 @@ package com.example.backend.wallet;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
@@ -18,4 +20,10 @@ public interface JamiahWalletRepository extends JpaRepository<JamiahWallet, Jami
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<JamiahWallet> findAllByJamiah_IdAndMember_IdInOrderByMember_Id(Long jamiahId, Collection<Long> memberIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from JamiahWallet w where w.id.memberId = :memberId and w.id.jamiahId in :jamiahIds "
+            + "order by w.id.jamiahId")
+    List<JamiahWallet> findAllByMemberForUpdate(@Param("memberId") Long memberId,
+                                                @Param("jamiahIds") Collection<Long> jamiahIds);
 }
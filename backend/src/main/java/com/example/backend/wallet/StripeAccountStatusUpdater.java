@@ -2,6 +2,7 @@ package com.example.backend.wallet;
 
 import com.example.backend.jamiah.Jamiah;
 import com.example.backend.jamiah.JamiahRepository;
+import com.example.backend.jamiah.JamiahStateVersions;
 import com.stripe.model.Account;
 import org.springframework.stereotype.Component;
 
@@ -14,11 +15,14 @@ public class StripeAccountStatusUpdater {
 
     private final JamiahRepository jamiahRepository;
     private final JamiahWalletRepository walletRepository;
+    private final JamiahStateVersions stateVersions;
 
     public StripeAccountStatusUpdater(JamiahRepository jamiahRepository,
-                                      JamiahWalletRepository walletRepository) {
+                                      JamiahWalletRepository walletRepository,
+                                      JamiahStateVersions stateVersions) {
         this.jamiahRepository = jamiahRepository;
         this.walletRepository = walletRepository;
+        this.stateVersions = stateVersions;
     }
 
     public void applyAccountState(Jamiah jamiah, Account account, Collection<JamiahWallet> wallets) {
@@ -52,12 +56,18 @@ public class StripeAccountStatusUpdater {
         jamiah.setStripeAccountPayoutsLocked(payoutsLocked);
         jamiah.setStripeAccountDisabledReason(disabledReason);
 
+        boolean walletsChanged = false;
         for (JamiahWallet wallet : effectiveWallets) {
+            walletsChanged |= !Objects.equals(wallet.getStripeAccountId(), jamiah.getStripeAccountId())
+                    || !Objects.equals(wallet.getKycStatus(), kycStatus);
             wallet.setStripeAccountId(jamiah.getStripeAccountId());
             wallet.setKycStatus(kycStatus);
             walletRepository.save(wallet);
         }
 
         jamiahRepository.save(jamiah);
+        if (walletsChanged) {
+            stateVersions.touchJamiah(jamiah.getId());
+        }
     }
 }
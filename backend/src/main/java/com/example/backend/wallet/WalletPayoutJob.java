@@ -0,0 +1,154 @@
+package com.example.backend.wallet;
+
+import com.example.backend.payment.StripePaymentProvider;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Transfer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Submits queued withdrawals to Stripe. Payouts are aggregated into one transfer per
+ * connected account and currency, and transfers are paced to the configured rate by a
+ * token bucket. The job never sleeps on the shared scheduler: batches it has no token for
+ * go back to the queue and are picked up by a later run.
+ */
+@Component
+public class WalletPayoutJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WalletPayoutJob.class);
+
+    private final WalletPayoutService payoutService;
+    private final StripePaymentProvider stripePaymentProvider;
+    private final int batchSize;
+    private final TokenBucket rateLimit;
+
+    @Autowired
+    public WalletPayoutJob(WalletPayoutService payoutService,
+                           StripePaymentProvider stripePaymentProvider,
+                           @Value("${stripe.payouts.batch-size:200}") int batchSize,
+                           @Value("${stripe.payouts.transfers-per-second:5}") double transfersPerSecond,
+                           @Value("${stripe.payouts.burst:25}") int burst) {
+        this(payoutService, stripePaymentProvider, batchSize, new TokenBucket(transfersPerSecond, burst, System::nanoTime));
+    }
+
+    WalletPayoutJob(WalletPayoutService payoutService,
+                    StripePaymentProvider stripePaymentProvider,
+                    int batchSize,
+                    TokenBucket rateLimit) {
+        this.payoutService = payoutService;
+        this.stripePaymentProvider = stripePaymentProvider;
+        this.batchSize = batchSize;
+        this.rateLimit = rateLimit;
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.payouts.interval-ms:5000}",
+            initialDelayString = "${stripe.payouts.initial-delay-ms:60000}")
+    public void submitPendingPayouts() {
+        if (!stripePaymentProvider.isConfigured() || !rateLimit.hasToken()) {
+            return;
+        }
+        List<WalletPayoutService.PayoutBatch> batches = payoutService.claimBatches(batchSize);
+        for (WalletPayoutService.PayoutBatch batch : batches) {
+            if (rateLimit.tryAcquire()) {
+                submit(batch);
+            } else {
+                payoutService.requeue(batch.getBatchKey());
+            }
+        }
+    }
+
+    private void submit(WalletPayoutService.PayoutBatch batch) {
+        if (batch.getStripeAccountId() == null || batch.getStripeAccountId().isBlank()) {
+            payoutService.markFailed(batch.getBatchKey(), "Wallet is not connected to Stripe");
+            return;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("amount", toStripeAmount(batch.getAmount()));
+        params.put("currency", batch.getCurrency());
+        params.put("destination", batch.getStripeAccountId());
+        params.put("transfer_group", batch.getBatchKey());
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("jamiahIds", join(batch.getJamiahIds()));
+        metadata.put("payoutCount", String.valueOf(batch.getPayoutIds().size()));
+        params.put("metadata", metadata);
+        try {
+            Transfer transfer = stripePaymentProvider.createTransfer(params, batch.getBatchKey());
+            payoutService.markPaid(batch.getBatchKey(), transfer != null ? transfer.getId() : null);
+        } catch (StripeException ex) {
+            if (isPermanent(ex)) {
+                LOGGER.warn("Stripe rejected payout batch {}: {}", batch.getBatchKey(), ex.getMessage());
+                payoutService.markFailed(batch.getBatchKey(), ex.getMessage());
+            } else {
+                LOGGER.info("Payout batch {} will be retried: {}", batch.getBatchKey(), ex.getMessage());
+                payoutService.release(batch.getBatchKey(), ex.getMessage());
+            }
+        }
+    }
+
+    private boolean isPermanent(StripeException ex) {
+        return ex instanceof InvalidRequestException && !(ex instanceof RateLimitException);
+    }
+
+    private String join(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private long toStripeAmount(BigDecimal amount) {
+        return amount.multiply(BigDecimal.valueOf(100))
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /** Refills at a fixed rate up to {@code capacity} tokens; reading it never blocks. */
+    static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private final LongSupplier nanoTime;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokensPerSecond, int capacity, LongSupplier nanoTime) {
+            this.tokensPerNano = tokensPerSecond > 0 ? tokensPerSecond / 1_000_000_000d : Double.POSITIVE_INFINITY;
+            this.capacity = Math.max(1, capacity);
+            this.nanoTime = nanoTime;
+            this.tokens = this.capacity;
+            this.refilledAt = nanoTime.getAsLong();
+        }
+
+        synchronized boolean hasToken() {
+            refill();
+            return tokens >= 1;
+        }
+
+        synchronized boolean tryAcquire() {
+            refill();
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        private void refill() {
+            long now = nanoTime.getAsLong();
+            tokens = Double.isInfinite(tokensPerNano)
+                    ? capacity
+                    : Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
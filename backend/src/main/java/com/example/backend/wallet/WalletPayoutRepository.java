@@ -0,0 +1,41 @@
+package com.example.backend.wallet;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface WalletPayoutRepository extends JpaRepository<WalletPayout, Long> {
+
+    /**
+     * Pending payouts plus processing payouts whose worker went away. Rows locked by
+     * another instance are skipped (lock timeout -2 maps to SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select p from WalletPayout p where p.status = com.example.backend.wallet.WalletPayout.Status.PENDING "
+            + "or (p.status = com.example.backend.wallet.WalletPayout.Status.PROCESSING and p.updatedAt < :staleBefore) "
+            + "order by p.id")
+    List<WalletPayout> findClaimable(@Param("staleBefore") Instant staleBefore, Pageable pageable);
+
+    List<WalletPayout> findAllByBatchKey(String batchKey);
+
+    /**
+     * The payouts of a batch that are still being submitted, locked so that paying, failing
+     * and releasing a batch never act on the same rows twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from WalletPayout p where p.batchKey = :batchKey "
+            + "and p.status = com.example.backend.wallet.WalletPayout.Status.PROCESSING order by p.id")
+    List<WalletPayout> findProcessingForUpdate(@Param("batchKey") String batchKey);
+
+    Optional<WalletPayout> findFirstByJamiahIdAndMemberIdOrderByCreatedAtDesc(Long jamiahId, Long memberId);
+}
@@ -0,0 +1,239 @@
+package com.example.backend.wallet;
+
+import com.example.backend.jamiah.JamiahEvent;
+import com.example.backend.jamiah.JamiahStateVersions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bookkeeping for queued withdrawals. Each method runs in its own transaction so the
+ * Stripe call made by {@link WalletPayoutJob} happens without holding any row locks.
+ */
+@Service
+@Transactional
+public class WalletPayoutService {
+    private static final BigDecimal ZERO = BigDecimal.ZERO;
+
+    private final WalletPayoutRepository payoutRepository;
+    private final JamiahWalletRepository walletRepository;
+    private final JamiahStateVersions stateVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxAttempts;
+    private final Duration staleAfter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public WalletPayoutService(WalletPayoutRepository payoutRepository,
+                               JamiahWalletRepository walletRepository,
+                               JamiahStateVersions stateVersions,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${stripe.payouts.max-attempts:5}") int maxAttempts,
+                               @Value("${stripe.payouts.stale-after-ms:600000}") long staleAfterMs) {
+        this.payoutRepository = payoutRepository;
+        this.walletRepository = walletRepository;
+        this.stateVersions = stateVersions;
+        this.eventPublisher = eventPublisher;
+        this.maxAttempts = maxAttempts;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+    }
+
+    /**
+     * Claims up to {@code limit} payouts and groups them per connected account and
+     * currency. Payouts that were already part of a batch keep their batch key so a
+     * retry reuses the same Stripe idempotency key.
+     */
+    public List<PayoutBatch> claimBatches(int limit) {
+        List<WalletPayout> claimable = payoutRepository
+                .findClaimable(Instant.now().minus(staleAfter), PageRequest.of(0, limit));
+        if (claimable.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, List<WalletPayout>> batches = new LinkedHashMap<>();
+        Map<String, String> openBatchByAccount = new HashMap<>();
+        for (WalletPayout payout : claimable) {
+            String batchKey = payout.getBatchKey();
+            if (batchKey == null) {
+                String group = payout.getStripeAccountId() + "|" + payout.getCurrency();
+                batchKey = openBatchByAccount.computeIfAbsent(group, ignored -> "payout-" + UUID.randomUUID());
+                payout.setBatchKey(batchKey);
+            }
+            batches.computeIfAbsent(batchKey, ignored -> new ArrayList<>()).add(payout);
+        }
+        List<PayoutBatch> result = new ArrayList<>();
+        for (Map.Entry<String, List<WalletPayout>> entry : batches.entrySet()) {
+            List<WalletPayout> payouts = completeBatch(entry.getKey(), entry.getValue());
+            for (WalletPayout payout : payouts) {
+                payout.setStatus(WalletPayout.Status.PROCESSING);
+                payout.setAttempts(Optional.ofNullable(payout.getAttempts()).orElse(0) + 1);
+            }
+            payoutRepository.saveAll(payouts);
+            result.add(new PayoutBatch(entry.getKey(), payouts));
+        }
+        return result;
+    }
+
+    /**
+     * Records a successful transfer. Only payouts still in {@code PROCESSING} are touched, so
+     * a batch that was failed and credited back in the meantime is never marked as paid.
+     */
+    public void markPaid(String batchKey, String transferId) {
+        Instant now = Instant.now();
+        List<WalletPayout> payouts = payoutRepository.findProcessingForUpdate(batchKey);
+        for (WalletPayout payout : payouts) {
+            payout.setStatus(WalletPayout.Status.PAID);
+            payout.setStripeTransferId(transferId);
+            payout.setSubmittedAt(now);
+            payout.setFailureReason(null);
+        }
+        payoutRepository.saveAll(payouts);
+    }
+
+    /**
+     * Returns a batch to the queue after a transient error. Once the attempts are
+     * exhausted the batch is failed and the wallets are credited again.
+     */
+    public void release(String batchKey, String reason) {
+        List<WalletPayout> payouts = payoutRepository.findProcessingForUpdate(batchKey);
+        boolean exhausted = payouts.stream()
+                .anyMatch(payout -> Optional.ofNullable(payout.getAttempts()).orElse(0) >= maxAttempts);
+        if (exhausted) {
+            fail(payouts, reason);
+            return;
+        }
+        for (WalletPayout payout : payouts) {
+            payout.setStatus(WalletPayout.Status.PENDING);
+            payout.setFailureReason(truncate(reason));
+        }
+        payoutRepository.saveAll(payouts);
+    }
+
+    /**
+     * Puts a claimed batch that was never sent to Stripe back into the queue. The attempt is
+     * not counted and the batch key is dropped, since Stripe has not seen it.
+     */
+    public void requeue(String batchKey) {
+        List<WalletPayout> payouts = payoutRepository.findProcessingForUpdate(batchKey);
+        for (WalletPayout payout : payouts) {
+            payout.setStatus(WalletPayout.Status.PENDING);
+            payout.setAttempts(Math.max(0, Optional.ofNullable(payout.getAttempts()).orElse(0) - 1));
+            if (payout.getAttempts() == 0) {
+                payout.setBatchKey(null);
+            }
+        }
+        payoutRepository.saveAll(payouts);
+    }
+
+    public void markFailed(String batchKey, String reason) {
+        fail(payoutRepository.findProcessingForUpdate(batchKey), reason);
+    }
+
+    /** Fails locked {@code PROCESSING} payouts and credits their amounts back to the wallets. */
+    private void fail(List<WalletPayout> payouts, String reason) {
+        List<WalletPayout> open = payouts.stream()
+                .sorted(Comparator.comparing(WalletPayout::getJamiahId).thenComparing(WalletPayout::getMemberId))
+                .toList();
+        for (WalletPayout payout : open) {
+            JamiahWallet wallet = entityManager.find(JamiahWallet.class,
+                    new JamiahWalletId(payout.getJamiahId(), payout.getMemberId()), LockModeType.PESSIMISTIC_WRITE);
+            if (wallet != null) {
+                BigDecimal balance = Optional.ofNullable(wallet.getBalance()).orElse(ZERO);
+                wallet.setBalance(balance.add(Optional.ofNullable(payout.getAmount()).orElse(ZERO)));
+                walletRepository.save(wallet);
+                stateVersions.touchJamiah(payout.getJamiahId());
+                eventPublisher.publishEvent(JamiahEvent.walletUpdated(payout.getJamiahId(),
+                        wallet.getMember() != null ? wallet.getMember().getUid() : null,
+                        wallet.getBalance(), wallet.getReservedBalance()));
+            }
+            payout.setStatus(WalletPayout.Status.FAILED);
+            payout.setFailureReason(truncate(reason));
+        }
+        payoutRepository.saveAll(open);
+    }
+
+    private List<WalletPayout> completeBatch(String batchKey, List<WalletPayout> claimed) {
+        if (claimed.stream().allMatch(payout -> payout.getStatus() == WalletPayout.Status.PENDING
+                && payout.getAttempts() != null && payout.getAttempts() == 0)) {
+            return claimed;
+        }
+        // A retried batch must be resubmitted with exactly the same members, otherwise Stripe
+        // rejects the reused idempotency key.
+        Map<Long, WalletPayout> members = new LinkedHashMap<>();
+        claimed.forEach(payout -> members.put(payout.getId(), payout));
+        for (WalletPayout payout : payoutRepository.findAllByBatchKey(batchKey)) {
+            if (payout.getStatus() == WalletPayout.Status.PENDING
+                    || payout.getStatus() == WalletPayout.Status.PROCESSING) {
+                members.putIfAbsent(payout.getId(), payout);
+            }
+        }
+        return new ArrayList<>(members.values());
+    }
+
+    private String truncate(String reason) {
+        return reason != null && reason.length() > 255 ? reason.substring(0, 255) : reason;
+    }
+
+    public static final class PayoutBatch {
+        private final String batchKey;
+        private final String stripeAccountId;
+        private final String currency;
+        private final BigDecimal amount;
+        private final List<Long> payoutIds;
+        private final List<Long> jamiahIds;
+
+        PayoutBatch(String batchKey, List<WalletPayout> payouts) {
+            this.batchKey = batchKey;
+            WalletPayout first = payouts.get(0);
+            this.stripeAccountId = first.getStripeAccountId();
+            this.currency = first.getCurrency();
+            this.amount = payouts.stream()
+                    .map(payout -> Optional.ofNullable(payout.getAmount()).orElse(ZERO))
+                    .reduce(ZERO, BigDecimal::add);
+            this.payoutIds = payouts.stream().map(WalletPayout::getId).toList();
+            this.jamiahIds = payouts.stream().map(WalletPayout::getJamiahId).distinct().toList();
+        }
+
+        public String getBatchKey() {
+            return batchKey;
+        }
+
+        public String getStripeAccountId() {
+            return stripeAccountId;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public List<Long> getPayoutIds() {
+            return payoutIds;
+        }
+
+        public List<Long> getJamiahIds() {
+            return jamiahIds;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.example.backend.UserProfile;
 import com.example.backend.UserProfileRepository;
 import com.example.backend.jamiah.Jamiah;
 import com.example.backend.jamiah.JamiahRepository;
+import com.example.backend.jamiah.JamiahEvent;
+import com.example.backend.jamiah.JamiahStateVersions;
 import com.example.backend.payment.StripePaymentProvider;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Account;
@@ -14,6 +16,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +32,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -42,8 +46,11 @@ public class WalletService {
     private final JamiahWalletRepository walletRepository;
     private final UserProfileRepository userRepository;
     private final WalletTopUpRepository walletTopUpRepository;
+    private final WalletPayoutRepository walletPayoutRepository;
     private final StripePaymentProvider stripePaymentProvider;
     private final StripeAccountStatusUpdater stripeAccountStatusUpdater;
+    private final JamiahStateVersions stateVersions;
+    private final ApplicationEventPublisher eventPublisher;
     private final String defaultAccountReturnUrl;
     private final String defaultAccountRefreshUrl;
     private final String publishableKey;
@@ -55,8 +62,11 @@ public class WalletService {
                          JamiahWalletRepository walletRepository,
                          UserProfileRepository userRepository,
                          WalletTopUpRepository walletTopUpRepository,
+                         WalletPayoutRepository walletPayoutRepository,
                          StripePaymentProvider stripePaymentProvider,
                          StripeAccountStatusUpdater stripeAccountStatusUpdater,
+                         JamiahStateVersions stateVersions,
+                         ApplicationEventPublisher eventPublisher,
                          @Value("${stripe.connect.account-return-url:}") String defaultAccountReturnUrl,
                          @Value("${stripe.connect.account-refresh-url:}") String defaultAccountRefreshUrl,
                          @Value("${stripe.publishable-key:}") String publishableKey) {
@@ -64,8 +74,11 @@ public class WalletService {
         this.walletRepository = walletRepository;
         this.userRepository = userRepository;
         this.walletTopUpRepository = walletTopUpRepository;
+        this.walletPayoutRepository = walletPayoutRepository;
         this.stripePaymentProvider = stripePaymentProvider;
         this.stripeAccountStatusUpdater = stripeAccountStatusUpdater;
+        this.stateVersions = stateVersions;
+        this.eventPublisher = eventPublisher;
         this.defaultAccountReturnUrl = normalizeUrl(defaultAccountReturnUrl);
         this.defaultAccountRefreshUrl = normalizeUrl(defaultAccountRefreshUrl);
         this.publishableKey = publishableKey;
@@ -84,7 +97,7 @@ public class WalletService {
         UserProfile member = ensureMembership(callerUid, jamiahWithMembers);
         JamiahWallet wallet = walletRepository
                 .findByJamiah_IdAndMember_Id(jamiahWithMembers.getId(), member.getId())
-                .orElseGet(() -> walletRepository.save(createWalletEntity(jamiahWithMembers, member)));
+                .orElseGet(() -> insertEmptyWallet(jamiahWithMembers, member));
         Account account = null;
         if (isStripePaymentMethod(jamiahWithMembers)) {
             ensureStripeConsent(jamiahWithMembers);
@@ -141,7 +154,8 @@ public class WalletService {
         }
         PaymentIntent paymentIntent;
         try {
-            paymentIntent = stripePaymentProvider.createPaymentIntent(params);
+            paymentIntent = stripePaymentProvider.createPaymentIntent(params,
+                    topUpKey(jamiahWithMembers, member, amount));
         } catch (StripeException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, ex.getMessage(), ex);
         }
@@ -181,7 +195,7 @@ public class WalletService {
         ensureWalletAvailability(wallet, amount);
         BigDecimal reserved = Optional.ofNullable(wallet.getReservedBalance()).orElse(ZERO);
         wallet.setReservedBalance(reserved.add(amount));
-        return walletRepository.save(wallet);
+        return saveWallet(wallet);
     }
 
     public JamiahWallet credit(Jamiah jamiah, UserProfile member, BigDecimal amount) {
@@ -192,7 +206,43 @@ public class WalletService {
         if (amount == null || amount.compareTo(ZERO) <= 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Positive amount required");
         }
-        JamiahWallet wallet = lock(jamiah, member);
+        return creditLocked(lock(jamiah, member), amount, reserveForPayment);
+    }
+
+    /**
+     * Locks the wallets of {@code member} in all given Jamiahs with a single statement, in
+     * id order so concurrent batches cannot deadlock. Missing wallets are created and locked.
+     * Returns the wallets keyed by Jamiah id.
+     */
+    public Map<Long, JamiahWallet> lockAll(Collection<Jamiah> jamiahs, UserProfile member) {
+        if (jamiahs == null || jamiahs.isEmpty()) {
+            return Map.of();
+        }
+        if (member == null || member.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Member profile incomplete");
+        }
+        Map<Long, Jamiah> byId = jamiahs.stream()
+                .collect(Collectors.toMap(Jamiah::getId, jamiah -> jamiah, (first, second) -> first, TreeMap::new));
+        Map<Long, JamiahWallet> locked = new LinkedHashMap<>();
+        for (JamiahWallet wallet : walletRepository.findAllByMemberForUpdate(member.getId(), byId.keySet())) {
+            locked.put(wallet.getJamiahId(), wallet);
+        }
+        Map<Long, JamiahWallet> result = new LinkedHashMap<>();
+        for (Jamiah jamiah : byId.values()) {
+            JamiahWallet wallet = locked.get(jamiah.getId());
+            result.put(jamiah.getId(), wallet != null ? prepareLocked(wallet, jamiah, member) : lock(jamiah, member));
+        }
+        return result;
+    }
+
+    /**
+     * Credits a wallet that the current transaction already holds the lock on, see
+     * {@link #lockAll(Collection, UserProfile)}.
+     */
+    public JamiahWallet creditLocked(JamiahWallet wallet, BigDecimal amount, boolean reserveForPayment) {
+        if (amount == null || amount.compareTo(ZERO) <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Positive amount required");
+        }
         if (Boolean.TRUE.equals(wallet.getLockedForPayments())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Wallet is locked for outgoing payments");
         }
@@ -202,7 +252,7 @@ public class WalletService {
             BigDecimal reserved = Optional.ofNullable(wallet.getReservedBalance()).orElse(ZERO);
             wallet.setReservedBalance(reserved.add(amount));
         }
-        return walletRepository.save(wallet);
+        return saveWallet(wallet);
     }
 
     public Map<Long, JamiahWallet> transfer(Jamiah jamiah,
@@ -239,7 +289,7 @@ public class WalletService {
             }
             payerWallet.setReservedBalance(reserved.subtract(amount));
             payerWallet.setBalance(balance.subtract(amount));
-            payerWallet = walletRepository.save(payerWallet);
+            payerWallet = saveWallet(payerWallet);
             updated.put(payer.getId(), payerWallet);
             totalIncoming = totalIncoming.add(amount);
         }
@@ -251,7 +301,7 @@ public class WalletService {
             }
             BigDecimal balance = Optional.ofNullable(recipientWallet.getBalance()).orElse(ZERO);
             recipientWallet.setBalance(balance.add(totalIncoming));
-            recipientWallet = walletRepository.save(recipientWallet);
+            recipientWallet = saveWallet(recipientWallet);
             updated.put(recipient.getId(), recipientWallet);
         }
         return updated;
@@ -277,7 +327,7 @@ public class WalletService {
                     }
                     return wallet;
                 })
-                .orElseGet(() -> walletRepository.save(createWalletEntity(jamiah, member)));
+                .orElseGet(() -> insertEmptyWallet(jamiah, member));
     }
 
     public JamiahWallet provisionWallet(Jamiah jamiah, UserProfile member) {
@@ -288,7 +338,7 @@ public class WalletService {
             account = ensureStripeAccount(wallet, jamiah, member);
         }
         if (account == null && wallet.getStripeAccountId() != null) {
-            walletRepository.save(wallet);
+            saveWallet(wallet);
         }
         return wallet;
     }
@@ -341,6 +391,9 @@ public class WalletService {
         }
         Jamiah jamiahWithMembers = jamiahRepository.findWithMembersById(jamiah.getId()).orElse(jamiah);
         UserProfile member = ensureMembership(callerUid, jamiahWithMembers);
+        if (!stripePaymentProvider.isConfigured()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Stripe is not configured");
+        }
         JamiahWallet wallet = lock(jamiahWithMembers, member);
         BigDecimal balance = Optional.ofNullable(wallet.getBalance()).orElse(ZERO);
         BigDecimal reserved = Optional.ofNullable(wallet.getReservedBalance()).orElse(ZERO);
@@ -348,27 +401,25 @@ public class WalletService {
         if (available.compareTo(amount) < 0) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient available balance");
         }
-        if (stripePaymentProvider.isConfigured()
-                && (wallet.getStripeAccountId() == null || wallet.getStripeAccountId().isBlank())) {
+        if (wallet.getStripeAccountId() == null || wallet.getStripeAccountId().isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Wallet is not connected to Stripe");
         }
-        Map<String, Object> transferParams = new HashMap<>();
-        transferParams.put("amount", toStripeAmount(amount));
-        transferParams.put("currency", DEFAULT_CURRENCY);
-        transferParams.put("destination", wallet.getStripeAccountId());
-        Map<String, String> metadata = new HashMap<>();
-        metadata.put("jamiahId", jamiahWithMembers.getId().toString());
-        metadata.put("memberId", member.getId().toString());
-        transferParams.put("metadata", metadata);
-        try {
-            stripePaymentProvider.createTransfer(transferParams);
-        } catch (StripeException ex) {
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, ex.getMessage(), ex);
-        }
         wallet.setBalance(balance.subtract(amount));
-        walletRepository.save(wallet);
+        saveWallet(wallet);
+        WalletPayout payout = new WalletPayout();
+        payout.setJamiahId(jamiahWithMembers.getId());
+        payout.setMemberId(member.getId());
+        payout.setAmount(amount);
+        payout.setCurrency(DEFAULT_CURRENCY);
+        payout.setStripeAccountId(normalize(wallet.getStripeAccountId()));
+        payout.setStatus(WalletPayout.Status.PENDING);
+        payout = walletPayoutRepository.save(payout);
         Account account = ensureStripeAccount(wallet, jamiahWithMembers, member);
-        return buildStatus(jamiahWithMembers, member, wallet, account, returnUrl, refreshUrl, createDashboardSession);
+        WalletStatusResponse response = buildStatus(jamiahWithMembers, member, wallet, account, returnUrl, refreshUrl,
+                createDashboardSession);
+        response.setPayoutId(payout.getId());
+        response.setPayoutStatus(payout.getStatus().name());
+        return response;
     }
 
     public WalletStatusResponse getStatus(String jamiahPublicId,
@@ -384,7 +435,7 @@ public class WalletService {
         UserProfile member = ensureMembership(callerUid, jamiahWithMembers);
         JamiahWallet wallet = walletRepository
                 .findByJamiah_IdAndMember_Id(jamiahWithMembers.getId(), member.getId())
-                .orElseGet(() -> walletRepository.save(createWalletEntity(jamiahWithMembers, member)));
+                .orElseGet(() -> insertEmptyWallet(jamiahWithMembers, member));
         wallet = applyPendingTopUps(jamiahWithMembers, member, wallet);
         Account account = ensureStripeAccount(wallet, jamiahWithMembers, member);
         WalletStatusResponse response = buildStatus(jamiahWithMembers, member, wallet, account, returnUrl, refreshUrl,
@@ -402,7 +453,7 @@ public class WalletService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         JamiahWallet wallet = walletRepository
                 .findByJamiah_IdAndMember_Id(jamiah.getId(), member.getId())
-                .orElseGet(() -> walletRepository.save(createWalletEntity(jamiah, member)));
+                .orElseGet(() -> insertEmptyWallet(jamiah, member));
         wallet = updateTopUpFromStripe(topUp, jamiah, member, wallet);
         Account account = ensureStripeAccount(wallet, jamiah, member);
         WalletStatusResponse response = buildStatus(jamiah, member, wallet, account, null, null, false);
@@ -438,6 +489,24 @@ public class WalletService {
         return member;
     }
 
+    private JamiahWallet saveWallet(JamiahWallet wallet) {
+        Long jamiahId = wallet.getJamiahId();
+        JamiahWallet saved = walletRepository.save(wallet);
+        stateVersions.touchJamiah(jamiahId);
+        UserProfile member = wallet.getMember();
+        eventPublisher.publishEvent(JamiahEvent.walletUpdated(jamiahId, member != null ? member.getUid() : null,
+                wallet.getBalance(), wallet.getReservedBalance()));
+        return saved;
+    }
+
+    /**
+     * Inserts the empty wallet a read needs. Nothing observable changed, so unlike
+     * {@link #saveWallet} this neither bumps the ETag version nor publishes an event.
+     */
+    private JamiahWallet insertEmptyWallet(Jamiah jamiah, UserProfile member) {
+        return walletRepository.save(createWalletEntity(jamiah, member));
+    }
+
     private JamiahWallet createWalletEntity(Jamiah jamiah, UserProfile member) {
         JamiahWallet wallet = new JamiahWallet();
         wallet.setJamiah(jamiah);
@@ -458,18 +527,22 @@ public class WalletService {
             entityManager.persist(wallet);
             entityManager.flush();
             entityManager.lock(wallet, LockModeType.PESSIMISTIC_WRITE);
-        } else {
-            wallet.setJamiah(jamiah);
-            wallet.setMember(member);
-            if (wallet.getReservedBalance() == null) {
-                wallet.setReservedBalance(ZERO);
-            }
-            if (wallet.getLockedForPayments() == null) {
-                wallet.setLockedForPayments(false);
-            }
-            if (wallet.getLockedForPayouts() == null) {
-                wallet.setLockedForPayouts(false);
-            }
+            return wallet;
+        }
+        return prepareLocked(wallet, jamiah, member);
+    }
+
+    private JamiahWallet prepareLocked(JamiahWallet wallet, Jamiah jamiah, UserProfile member) {
+        wallet.setJamiah(jamiah);
+        wallet.setMember(member);
+        if (wallet.getReservedBalance() == null) {
+            wallet.setReservedBalance(ZERO);
+        }
+        if (wallet.getLockedForPayments() == null) {
+            wallet.setLockedForPayments(false);
+        }
+        if (wallet.getLockedForPayouts() == null) {
+            wallet.setLockedForPayouts(false);
         }
         return wallet;
     }
@@ -502,7 +575,7 @@ public class WalletService {
             wallet = lock(jamiah, member);
             BigDecimal balance = Optional.ofNullable(wallet.getBalance()).orElse(ZERO);
             wallet.setBalance(balance.add(Optional.ofNullable(topUp.getAmount()).orElse(ZERO)));
-            wallet = walletRepository.save(wallet);
+            wallet = saveWallet(wallet);
             topUp.setApplied(true);
             topUp.setRolledBack(false);
             topUp.setAppliedAt(Instant.now());
@@ -510,7 +583,7 @@ public class WalletService {
             wallet = lock(jamiah, member);
             BigDecimal balance = Optional.ofNullable(wallet.getBalance()).orElse(ZERO);
             wallet.setBalance(balance.subtract(Optional.ofNullable(topUp.getAmount()).orElse(ZERO)));
-            wallet = walletRepository.save(wallet);
+            wallet = saveWallet(wallet);
             topUp.setRolledBack(true);
         } else if (canceled) {
             topUp.setApplied(true);
@@ -543,7 +616,7 @@ public class WalletService {
                 walletUpdated = true;
             }
             if (walletUpdated) {
-                walletRepository.save(wallet);
+                saveWallet(wallet);
             }
             return null;
         }
@@ -586,7 +659,8 @@ public class WalletService {
             params.put("business_profile", businessProfile);
         }
         try {
-            Account account = stripePaymentProvider.createAccount(params);
+            Account account = stripePaymentProvider.createAccount(params,
+                    "wallet-" + jamiah.getId() + "-" + member.getId() + "-account");
             String accountId = account.getId();
             jamiah.setStripeAccountId(accountId);
             wallet.setStripeAccountId(accountId);
@@ -597,6 +671,16 @@ public class WalletService {
         }
     }
 
+    /**
+     * The top-up row only exists once its PaymentIntent does, so the key is derived from the
+     * wallet and the sequence number the new top-up will get. Callers hold the wallet lock,
+     * which keeps the sequence stable until the top-up is saved.
+     */
+    private String topUpKey(Jamiah jamiah, UserProfile member, BigDecimal amount) {
+        long sequence = walletTopUpRepository.countByJamiahIdAndMemberId(jamiah.getId(), member.getId()) + 1;
+        return "wallet-" + jamiah.getId() + "-" + member.getId() + "-topup-" + sequence + "-" + toStripeAmount(amount);
+    }
+
     private boolean isStripePaymentMethod(Jamiah jamiah) {
         return jamiah == null || jamiah.getPaymentMethod() == null
                 || "STRIPE".equalsIgnoreCase(jamiah.getPaymentMethod().trim());
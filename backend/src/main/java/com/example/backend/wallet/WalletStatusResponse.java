@@ -28,6 +28,8 @@ public class WalletStatusResponse {
     private String paymentIntentId;
     private String paymentIntentClientSecret;
     private String paymentIntentStatus;
+    private Long payoutId;
+    private String payoutStatus;
 
     public Long getJamiahId() {
         return jamiahId;
@@ -220,4 +222,20 @@ public class WalletStatusResponse {
     public void setPaymentIntentStatus(String paymentIntentStatus) {
         this.paymentIntentStatus = paymentIntentStatus;
     }
+
+    public Long getPayoutId() {
+        return payoutId;
+    }
+
+    public void setPayoutId(Long payoutId) {
+        this.payoutId = payoutId;
+    }
+
+    public String getPayoutStatus() {
+        return payoutStatus;
+    }
+
+    public void setPayoutStatus(String payoutStatus) {
+        this.payoutStatus = payoutStatus;
+    }
 }
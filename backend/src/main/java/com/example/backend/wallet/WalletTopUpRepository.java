@@ -11,4 +11,6 @@ public interface WalletTopUpRepository extends JpaRepository<WalletTopUp, Long>
     Optional<WalletTopUp> findByStripePaymentIntentId(String paymentIntentId);
 
     Optional<WalletTopUp> findFirstByJamiahIdAndMemberIdOrderByCreatedAtDesc(Long jamiahId, Long memberId);
+
+    long countByJamiahIdAndMemberId(Long jamiahId, Long memberId);
 }
@@ -0,0 +1,23 @@
+CREATE TABLE jamiah_wallet_payouts (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    jamiah_id BIGINT NOT NULL,
+    member_id BIGINT NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    stripe_account_id VARCHAR(255),
+    status VARCHAR(32) NOT NULL DEFAULT 'PENDING',
+    batch_key VARCHAR(64),
+    stripe_transfer_id VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    failure_reason VARCHAR(255),
+    submitted_at TIMESTAMP NULL DEFAULT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_jamiah_wallet_payouts_jamiah FOREIGN KEY (jamiah_id) REFERENCES jamiah (id) ON DELETE CASCADE,
+    CONSTRAINT fk_jamiah_wallet_payouts_member FOREIGN KEY (member_id) REFERENCES user_profiles (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_jamiah_wallet_payouts_status ON jamiah_wallet_payouts (status, id);
+CREATE INDEX idx_jamiah_wallet_payouts_batch ON jamiah_wallet_payouts (batch_key);
+CREATE INDEX idx_jamiah_wallet_payouts_member ON jamiah_wallet_payouts (jamiah_id, member_id);
@@ -0,0 +1,8 @@
+-- Jamiah level ETag versions live in their own table so bumping them never locks the
+-- jamiah row that joins, settings changes and wallet updates also touch.
+CREATE TABLE jamiah_state_versions (
+    jamiah_id BIGINT NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+ALTER TABLE jamiah_cycles ADD COLUMN state_version BIGINT NOT NULL DEFAULT 0;
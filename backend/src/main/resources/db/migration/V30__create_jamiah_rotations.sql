@@ -0,0 +1,52 @@
+-- Payout order stored once per rotation instead of being copied into every round.
+CREATE TABLE jamiah_rotations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    jamiah_id BIGINT NOT NULL,
+    first_cycle_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_jamiah_rotations_jamiah FOREIGN KEY (jamiah_id) REFERENCES jamiah (id)
+);
+
+CREATE TABLE jamiah_rotation_order (
+    rotation_id BIGINT NOT NULL,
+    order_index INT NOT NULL,
+    member_uid VARCHAR(255),
+    PRIMARY KEY (rotation_id, order_index),
+    CONSTRAINT fk_jamiah_rotation_order_rotation FOREIGN KEY (rotation_id) REFERENCES jamiah_rotations (id) ON DELETE CASCADE
+);
+
+ALTER TABLE jamiah_cycles ADD COLUMN rotation_id BIGINT;
+ALTER TABLE jamiah_cycles ADD COLUMN round_index INT;
+
+-- A series starts with round 1 (or with the first round a Jamiah has); later rounds copied its order.
+INSERT INTO jamiah_rotations (jamiah_id, first_cycle_id)
+SELECT c.jamiah_id, c.id
+FROM jamiah_cycles c
+WHERE c.cycle_number = 1
+   OR NOT EXISTS (SELECT 1 FROM jamiah_cycles p WHERE p.jamiah_id = c.jamiah_id AND p.id < c.id);
+
+INSERT INTO jamiah_rotation_order (rotation_id, order_index, member_uid)
+SELECT r.id, o.order_index, o.member_uid
+FROM jamiah_rotations r
+JOIN jamiah_cycle_order o ON o.cycle_id = r.first_cycle_id;
+
+UPDATE jamiah_cycles c
+SET rotation_id = (
+    SELECT r.id FROM jamiah_rotations r
+    WHERE r.first_cycle_id = (
+        SELECT MAX(r2.first_cycle_id) FROM jamiah_rotations r2
+        WHERE r2.jamiah_id = c.jamiah_id AND r2.first_cycle_id <= c.id));
+
+UPDATE jamiah_cycles c
+SET round_index = (
+    SELECT MIN(o.order_index) FROM jamiah_rotation_order o
+    JOIN user_profiles u ON u.uid = o.member_uid
+    WHERE o.rotation_id = c.rotation_id AND u.id = c.recipient_id);
+
+ALTER TABLE jamiah_rotations DROP COLUMN first_cycle_id;
+
+ALTER TABLE jamiah_cycles
+    ADD CONSTRAINT fk_jamiah_cycles_rotation FOREIGN KEY (rotation_id) REFERENCES jamiah_rotations (id);
+
+DROP TABLE jamiah_cycle_order;
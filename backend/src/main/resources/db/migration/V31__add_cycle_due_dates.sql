@@ -0,0 +1,24 @@
+-- Deadline after which the round scheduler opens the next round, and whether it was opened.
+ALTER TABLE jamiah_cycles ADD COLUMN due_date DATE;
+ALTER TABLE jamiah_cycles ADD COLUMN advanced BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Jamiahs without a rate interval run weekly, as RateInterval.orDefault decides.
+UPDATE jamiah_cycles c
+SET due_date = CASE
+        WHEN (SELECT j.rate_interval FROM jamiah j WHERE j.id = c.jamiah_id) = 'MONTHLY'
+            THEN TIMESTAMPADD(MONTH, 1, c.start_date)
+        ELSE TIMESTAMPADD(WEEK, 1, c.start_date)
+    END
+WHERE c.start_date IS NOT NULL;
+
+-- Completed rounds already opened their successor; the derived table keeps MySQL from
+-- rejecting a subquery on the table being updated.
+UPDATE jamiah_cycles
+SET advanced = TRUE
+WHERE completed = TRUE
+   OR id IN (SELECT t.id FROM (
+        SELECT p.id FROM jamiah_cycles p
+        JOIN jamiah_cycles n ON n.rotation_id = p.rotation_id AND n.round_index = p.round_index + 1
+    ) t);
+
+CREATE INDEX idx_jamiah_cycles_due ON jamiah_cycles (advanced, due_date);
@@ -0,0 +1,16 @@
+-- Open payments are found through (confirmed, cycle_id); legacy rows without a flag are open.
+UPDATE jamiah_payments SET confirmed = FALSE WHERE confirmed IS NULL;
+CREATE INDEX idx_jamiah_payments_confirmed_cycle ON jamiah_payments (confirmed, cycle_id);
+
+CREATE TABLE payment_reminders (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    member_uid VARCHAR(255) NOT NULL,
+    reminder_date DATE NOT NULL,
+    jamiah_id BIGINT NOT NULL,
+    cycle_id BIGINT NOT NULL,
+    open_payments INT NOT NULL,
+    overdue BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payment_reminders_member_day UNIQUE (member_uid, reminder_date)
+);
@@ -0,0 +1,3 @@
+-- Expired open votes are found by the vote closing job through (closed, expires_at).
+UPDATE votes SET closed = FALSE WHERE closed IS NULL;
+CREATE INDEX idx_votes_closed_expires ON votes (closed, expires_at);
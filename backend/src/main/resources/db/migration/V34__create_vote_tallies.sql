@@ -0,0 +1,14 @@
+-- Per-option ballot counts, maintained together with vote_ballots when a ballot is cast.
+CREATE TABLE vote_tallies (
+    vote_id BIGINT NOT NULL,
+    option_value VARCHAR(255) NOT NULL,
+    votes BIGINT NOT NULL,
+    PRIMARY KEY (vote_id, option_value),
+    CONSTRAINT fk_vote_tallies_vote FOREIGN KEY (vote_id) REFERENCES votes(id) ON DELETE CASCADE
+);
+
+INSERT INTO vote_tallies (vote_id, option_value, votes)
+SELECT vote_id, choice, COUNT(*)
+FROM vote_ballots
+WHERE choice IS NOT NULL
+GROUP BY vote_id, choice;
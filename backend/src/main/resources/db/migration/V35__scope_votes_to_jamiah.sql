@@ -0,0 +1,11 @@
+-- Votes belong to a Jamiah; votes created before keep a NULL jamiah_id.
+ALTER TABLE votes ADD COLUMN jamiah_id BIGINT;
+ALTER TABLE votes ADD COLUMN eligible_voters INT;
+ALTER TABLE votes ADD COLUMN ballot_count INT NOT NULL DEFAULT 0;
+
+UPDATE votes v
+SET ballot_count = (SELECT COUNT(*) FROM vote_ballots b WHERE b.vote_id = v.id);
+
+ALTER TABLE votes
+    ADD CONSTRAINT fk_votes_jamiah FOREIGN KEY (jamiah_id) REFERENCES jamiah (id) ON DELETE CASCADE;
+CREATE INDEX idx_votes_jamiah_closed ON votes (jamiah_id, closed);
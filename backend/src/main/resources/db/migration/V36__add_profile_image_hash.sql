@@ -0,0 +1,4 @@
+-- Profile images move to the blob store; the row keeps the SHA-256 of the image.
+-- profile_image stays until LegacyProfileImageMigration has moved every stored image.
+ALTER TABLE user_profiles ADD COLUMN profile_image_hash CHAR(64);
+CREATE INDEX idx_user_profiles_image_hash ON user_profiles (profile_image_hash);
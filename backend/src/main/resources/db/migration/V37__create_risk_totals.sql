@@ -0,0 +1,18 @@
+CREATE INDEX idx_risk_status_category ON risks(status, risk_category);
+
+-- Count, value and expected loss of risks per category and status, maintained as risks are
+-- written. Missing categories and statuses are stored as empty strings.
+CREATE TABLE risk_totals (
+    risk_category VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    risk_count BIGINT NOT NULL,
+    total_value DECIMAL(19,2) NOT NULL,
+    expected_loss DECIMAL(19,4) NOT NULL,
+    PRIMARY KEY (risk_category, status)
+);
+
+INSERT INTO risk_totals (risk_category, status, risk_count, total_value, expected_loss)
+SELECT COALESCE(risk_category, ''), COALESCE(status, ''), COUNT(*),
+       COALESCE(SUM(`value`), 0), COALESCE(SUM(`value` * COALESCE(risk_probability, 0)), 0)
+FROM risks
+GROUP BY COALESCE(risk_category, ''), COALESCE(status, '');
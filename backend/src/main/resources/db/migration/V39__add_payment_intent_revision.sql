@@ -0,0 +1,4 @@
+-- Counts the amount updates sent for a payment's PaymentIntent. The count is part of the
+-- idempotency key of the next update, so returning to an earlier amount is not answered
+-- from Stripe's cached response of the previous update to that amount.
+ALTER TABLE jamiah_payments ADD COLUMN intent_revision INT NOT NULL DEFAULT 0;
@@ -0,0 +1,21 @@
+-- The members allowed to vote, fixed when the vote is created. eligible_voters is their
+-- count, so a vote closes early only after exactly these members have voted.
+CREATE TABLE vote_voters (
+    vote_id BIGINT NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (vote_id, user_id),
+    CONSTRAINT fk_vote_voters_vote FOREIGN KEY (vote_id) REFERENCES votes(id) ON DELETE CASCADE
+);
+
+-- Existing scoped votes: current members plus everyone who already cast a ballot.
+INSERT INTO vote_voters (vote_id, user_id)
+SELECT v.id, u.uid
+FROM votes v
+JOIN jamiah_members m ON m.jamiah_id = v.jamiah_id
+JOIN user_profiles u ON u.id = m.user_profile_id
+WHERE u.uid IS NOT NULL
+UNION
+SELECT b.vote_id, b.user_id
+FROM vote_ballots b
+JOIN votes v ON v.id = b.vote_id
+WHERE v.jamiah_id IS NOT NULL;
@@ -0,0 +1,107 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "profile-images.max-pixels=1000000")
+@Transactional
+class ProfileImageServiceTest {
+
+    @Autowired
+    ProfileImageService service;
+
+    @Autowired
+    UserProfileRepository repository;
+
+    private String createUser() {
+        UserProfile user = new UserProfile();
+        user.setUid(UUID.randomUUID().toString());
+        user.setUsername("img-" + user.getUid());
+        return repository.save(user).getUid();
+    }
+
+    private MockMultipartFile png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return new MockMultipartFile("file", "avatar.png", MediaType.IMAGE_PNG_VALUE, out.toByteArray());
+    }
+
+    @Test
+    void uploadsAreStoredByHashWithAThumbnail() throws Exception {
+        String uid = createUser();
+        MockMultipartFile file = png(400, 200);
+
+        service.upload(uid, file);
+
+        ProfileImageService.ProfileImage original = service.find(uid, false).orElseThrow();
+        assertEquals(64, original.getEtag().length());
+        assertEquals(file.getSize(), original.getResource().contentLength());
+        assertEquals(original.getEtag(), repository.findByUid(uid).orElseThrow().getProfileImageHash());
+
+        ProfileImageService.ProfileImage thumbnail = service.find(uid, true).orElseThrow();
+        assertEquals(MediaType.IMAGE_PNG, thumbnail.getContentType());
+        try (InputStream in = thumbnail.getResource().getInputStream()) {
+            BufferedImage image = ImageIO.read(in);
+            assertEquals(128, image.getWidth());
+            assertEquals(64, image.getHeight());
+        }
+    }
+
+    /** Blobs are released after commit, so this test lets every service call commit on its own. */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void sharedContentIsKeptUntilTheLastProfileDropsIt() throws Exception {
+        String first = createUser();
+        String second = createUser();
+        MockMultipartFile file = png(300, 300);
+        service.upload(first, file);
+        service.upload(second, file);
+
+        service.delete(first);
+
+        assertTrue(service.find(first, false).isEmpty());
+        ProfileImageService.ProfileImage kept = service.find(second, false).orElseThrow();
+        assertTrue(kept.getResource().exists());
+
+        service.delete(second);
+        assertFalse(kept.getResource().exists());
+    }
+
+    @Test
+    void replacedContentIsKeptUntilTheTransactionCommits() throws Exception {
+        String uid = createUser();
+        service.upload(uid, png(300, 200));
+        ProfileImageService.ProfileImage first = service.find(uid, false).orElseThrow();
+
+        service.upload(uid, png(200, 300));
+
+        // Still inside the test transaction, which is rolled back afterwards.
+        assertTrue(first.getResource().exists());
+    }
+
+    @Test
+    void imagesAboveThePixelLimitAreRejected() throws Exception {
+        String uid = createUser();
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> service.upload(uid, png(1001, 1000)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertNull(repository.findByUid(uid).orElseThrow().getProfileImageHash());
+    }
+}
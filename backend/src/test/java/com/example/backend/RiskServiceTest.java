@@ -0,0 +1,78 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class RiskServiceTest {
+
+    @Autowired
+    RiskService service;
+
+    @Test
+    void totalsFollowCreateUpdateAndDelete() {
+        String category = "category-" + UUID.randomUUID();
+        Risk first = service.create(risk(category, RiskStatus.PUBLISHED, "100", 0.5));
+        service.create(risk(category, RiskStatus.PUBLISHED, "50", 0.1));
+
+        RiskTotal published = total(category, RiskStatus.PUBLISHED);
+        assertEquals(2L, published.getRiskCount());
+        assertEquals(0, new BigDecimal("150").compareTo(published.getTotalValue()));
+        assertEquals(0, new BigDecimal("55").compareTo(published.getExpectedLoss()));
+
+        service.update(first.getId(), risk(category, RiskStatus.DEAL, "200", 0.25));
+        assertEquals(1L, total(category, RiskStatus.PUBLISHED).getRiskCount());
+        RiskTotal deal = total(category, RiskStatus.DEAL);
+        assertEquals(0, new BigDecimal("200").compareTo(deal.getTotalValue()));
+        assertEquals(0, new BigDecimal("50").compareTo(deal.getExpectedLoss()));
+
+        service.delete(first.getId());
+        assertNull(total(category, RiskStatus.DEAL));
+    }
+
+    @Test
+    void listsFilteredPagesWithPublisherNames() {
+        String category = "category-" + UUID.randomUUID();
+        Risk withPublisher = risk(category, RiskStatus.PUBLISHED, "10", null);
+        withPublisher.setPublisher(new Publisher("publisher-uid", "Publisher", null, null));
+        Risk published = service.create(withPublisher);
+        service.create(risk(category, RiskStatus.DRAFT, "20", null));
+        service.create(risk(category, RiskStatus.PUBLISHED, "30", null));
+
+        List<RiskDto> page = service.list(RiskStatus.PUBLISHED, category, null, 0, 1);
+        assertEquals(1, page.size());
+        assertEquals(0, new BigDecimal("30").compareTo(page.get(0).getValue()));
+        assertEquals(2, service.list(RiskStatus.PUBLISHED, category, null, 0, 10).size());
+        assertEquals(3, service.list(null, category, null, 0, 10).size());
+
+        List<RiskDto> byPublisher = service.list(null, category, published.getPublisher().getId(), 0, 10);
+        assertEquals(1, byPublisher.size());
+        assertEquals("Publisher", byPublisher.get(0).getPublisherName());
+    }
+
+    private RiskTotal total(String category, RiskStatus status) {
+        return service.totals().stream()
+                .filter(total -> total.getRiskCategory().equals(category) && total.getStatus().equals(status.name()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Risk risk(String category, RiskStatus status, String value, Double probability) {
+        Risk risk = new Risk();
+        risk.setName("Risk");
+        risk.setRiskCategory(category);
+        risk.setStatus(status);
+        risk.setValue(new BigDecimal(value));
+        risk.setRiskProbability(probability);
+        return risk;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class UserProfileControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ProfileImageService imageService;
+
+    @Autowired
+    UserProfileRepository repository;
+
+    private String createUserWithImage(byte[] image) {
+        UserProfile user = new UserProfile();
+        user.setUid(UUID.randomUUID().toString());
+        user.setUsername("img-" + user.getUid());
+        String uid = repository.save(user).getUid();
+        imageService.upload(uid, new MockMultipartFile("file", "avatar.png", MediaType.IMAGE_PNG_VALUE, image));
+        return uid;
+    }
+
+    private byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void imageIsRevalidatedByItsHash() throws Exception {
+        String uid = createUserWithImage(png(200, 100));
+        String hash = repository.findByUid(uid).orElseThrow().getProfileImageHash();
+
+        MvcResult first = mockMvc.perform(get("/api/userProfiles/uid/{uid}/image", uid))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.IMAGE_PNG_VALUE))
+                .andReturn();
+
+        mockMvc.perform(get("/api/userProfiles/uid/{uid}/image", uid)
+                        .header(HttpHeaders.IF_NONE_MATCH, first.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/userProfiles/uid/{uid}/image/thumbnail", uid)
+                        .header(HttpHeaders.IF_NONE_MATCH, first.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "-thumb\""));
+    }
+
+    @Test
+    void rangeRequestsReturnThePartialContent() throws Exception {
+        byte[] image = png(200, 100);
+        String uid = createUserWithImage(image);
+
+        MvcResult partial = mockMvc.perform(get("/api/userProfiles/uid/{uid}/image", uid)
+                        .header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + image.length))
+                .andReturn();
+
+        assertArrayEquals(Arrays.copyOfRange(image, 0, 10), partial.getResponse().getContentAsByteArray());
+    }
+}
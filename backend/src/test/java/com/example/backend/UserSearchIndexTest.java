@@ -0,0 +1,97 @@
+package com.example.backend;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Transactional
+class UserSearchIndexTest {
+
+    @Autowired
+    UserSearchIndex index;
+
+    @Autowired
+    UserProfileRepository repository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void searchesByPrefixWithoutAQuery() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        UserProfile amina = save("amina" + tag, "Amina", "Okafor-" + tag);
+        save("amadou" + tag, "Amadou", "Diallo-" + tag);
+        index.rebuild();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(2, index.search(tag, 20).size());
+        assertEquals(2, index.search("am " + tag, 20).size());
+        List<MemberSummary> byName = index.search("amin " + tag, 20);
+        assertEquals(1, byName.size());
+        assertEquals(amina.getUid(), byName.get(0).getUid());
+        assertEquals(1, index.search("AMADOU" + tag, 20).size());
+        assertEquals(1, index.search(tag, 1).size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void writesReplaceAndRemoveEntries() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        index.put(new MemberSummary(-1L, "uid-" + tag, "before" + tag, "Jo", tag, null));
+        assertEquals(1, index.search("before" + tag, 20).size());
+
+        index.put(new MemberSummary(-1L, "uid-" + tag, "after" + tag, "Jo", tag, null));
+        assertTrue(index.search("before" + tag, 20).isEmpty());
+        assertEquals(1, index.search("after" + tag, 20).size());
+
+        index.remove(-1L);
+        assertTrue(index.search(tag, 20).isEmpty());
+    }
+
+    @Test
+    void writesDuringARebuildWinOverTheRowsItRead() {
+        UserProfileRepository rows = mock(UserProfileRepository.class);
+        UserSearchIndex rebuilt = new UserSearchIndex(rows);
+        MemberSummary deleted = new MemberSummary(1L, "uid-1", "deleted", "Del", "Eted", null);
+        MemberSummary renamed = new MemberSummary(2L, "uid-2", "oldname", "Re", "Named", null);
+        when(rows.findSummariesAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            // Both rows were read just before another request deleted and renamed them.
+            rebuilt.remove(1L);
+            rebuilt.put(new MemberSummary(2L, "uid-2", "newname", "Re", "Named", null));
+            return List.of(deleted, renamed);
+        });
+
+        rebuilt.rebuild();
+
+        assertTrue(rebuilt.search("deleted", 20).isEmpty());
+        assertTrue(rebuilt.search("oldname", 20).isEmpty());
+        assertEquals(1, rebuilt.search("newname", 20).size());
+    }
+
+    private UserProfile save(String username, String firstName, String lastName) {
+        UserProfile user = new UserProfile();
+        user.setUid(UUID.randomUUID().toString());
+        user.setUsername(username);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return repository.saveAndFlush(user);
+    }
+}
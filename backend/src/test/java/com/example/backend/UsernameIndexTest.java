@@ -0,0 +1,60 @@
+package com.example.backend;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class UsernameIndexTest {
+
+    @Autowired
+    UsernameIndex index;
+
+    @Autowired
+    UserProfileRepository repository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void freeNamesAreAnsweredWithoutAQuery() {
+        String taken = "taken-" + UUID.randomUUID();
+        UserProfile user = new UserProfile();
+        user.setUid(UUID.randomUUID().toString());
+        user.setUsername(taken);
+        repository.saveAndFlush(user);
+        index.rebuild();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 100; i++) {
+            assertFalse(index.isTaken("free-" + UUID.randomUUID()));
+        }
+        assertTrue(statistics.getPrepareStatementCount() <= 5,
+                "free names used " + statistics.getPrepareStatementCount() + " statements");
+
+        assertTrue(index.isTaken(taken));
+    }
+
+    @Test
+    void storedNamesAreTakenRightAway() {
+        index.rebuild();
+        String name = "added-" + UUID.randomUUID();
+
+        index.add(name);
+
+        assertTrue(index.isTaken(name));
+        index.remove(name);
+        assertFalse(index.isTaken(name));
+    }
+}
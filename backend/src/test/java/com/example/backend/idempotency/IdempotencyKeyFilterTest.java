@@ -0,0 +1,144 @@
+package com.example.backend.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class IdempotencyKeyFilterTest {
+
+    @Autowired
+    IdempotencyKeyFilter filter;
+
+    private CountingController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        controller = new CountingController();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filter).build();
+    }
+
+    @Test
+    void duplicateRequestIsReplayedWithoutExecutingAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/payments/confirm").param("uid", "payer")
+                        .header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentIds\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.call").value(1));
+
+        mockMvc.perform(post("/api/payments/confirm").param("uid", "payer")
+                        .header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentIds\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyKeyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.call").value(1));
+
+        assertEquals(1, controller.calls.get());
+    }
+
+    @Test
+    void keyReusedForDifferentBodyIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/payments/confirm").param("uid", "payer")
+                        .header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentIds\":[1]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/payments/confirm").param("uid", "payer")
+                        .header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentIds\":[2]}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, controller.calls.get());
+    }
+
+    @Test
+    void duplicateArrivingWhileTheFirstRunsWaitsForItsResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        CompletableFuture<MvcResult> first = CompletableFuture.supplyAsync(() -> confirmReceipt(key));
+        assertTrue(controller.entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<MvcResult> second = CompletableFuture.supplyAsync(() -> confirmReceipt(key));
+        // Give the duplicate time to find the claim and start polling the store.
+        Thread.sleep(300);
+        assertFalse(second.isDone());
+
+        controller.release.countDown();
+        MvcResult original = first.get(10, TimeUnit.SECONDS);
+        MvcResult duplicate = second.get(10, TimeUnit.SECONDS);
+
+        assertEquals(200, original.getResponse().getStatus());
+        assertEquals(200, duplicate.getResponse().getStatus());
+        assertEquals("true", duplicate.getResponse().getHeader(IdempotencyKeyFilter.REPLAYED_HEADER));
+        assertEquals(original.getResponse().getContentAsString(), duplicate.getResponse().getContentAsString());
+        assertEquals(1, controller.calls.get());
+    }
+
+    private MvcResult confirmReceipt(String key) {
+        try {
+            return mockMvc.perform(post("/api/payments/confirm-receipt").param("uid", "recipient")
+                            .header(IdempotencyKeyFilter.HEADER, key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"cycleId\":1}"))
+                    .andReturn();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** Not a stereotype, so component scanning leaves it to the standalone setup. */
+    @RequestMapping("/api/payments")
+    static class CountingController {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @PostMapping("/confirm")
+        @ResponseBody
+        Map<String, Object> confirm(@RequestParam String uid, @RequestBody Map<String, Object> body) {
+            return Map.of("call", calls.incrementAndGet(), "uid", uid);
+        }
+
+        @PostMapping("/confirm-receipt")
+        @ResponseBody
+        Map<String, Object> confirmReceipt(@RequestParam String uid, @RequestBody Map<String, Object> body)
+                throws InterruptedException {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Map.of("call", calls.incrementAndGet(), "uid", uid);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.backend.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new IdempotencyStore(repository, transactionManager, 86_400_000L, 3_600_000L, 0L, 10L);
+    }
+
+    @Test
+    void claimsLastUntilTheClaimExpiry() throws Exception {
+        when(repository.findByIdempotencyKeyAndRequestMethodAndRequestPath("key", "POST", "/api/payments/confirm"))
+                .thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        IdempotencyStore.Claim claim = store.claim("key", "POST", "/api/payments/confirm", "hash");
+
+        assertEquals(IdempotencyStore.Claim.Outcome.ACQUIRED, claim.getOutcome());
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(saved.capture());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(59))));
+    }
+
+    @Test
+    void runningClaimIsReportedBusyAndNeverTakenOver() throws Exception {
+        IdempotencyRecord running = new IdempotencyRecord();
+        running.setId(1L);
+        running.setRequestHash("hash");
+        running.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+        running.setExpiresAt(Instant.now().plus(Duration.ofMinutes(30)));
+        when(repository.findByIdempotencyKeyAndRequestMethodAndRequestPath("key", "POST", "/api/payments/confirm"))
+                .thenReturn(Optional.of(running));
+
+        IdempotencyStore.Claim claim = store.claim("key", "POST", "/api/payments/confirm", "hash");
+
+        assertEquals(IdempotencyStore.Claim.Outcome.BUSY, claim.getOutcome());
+        verify(repository, never()).deleteById(anyLong());
+        verify(repository, never()).saveAndFlush(any());
+    }
+}
@@ -22,6 +22,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -39,6 +40,15 @@ class JamiahControllerTest {
     @Autowired
     UserProfileRepository userRepository;
 
+    @Autowired
+    JamiahService jamiahService;
+
+    @Autowired
+    JamiahStateVersions stateVersions;
+
+    @Autowired
+    org.springframework.transaction.PlatformTransactionManager transactionManager;
+
     private String newUid() {
         return "u-" + java.util.UUID.randomUUID();
     }
@@ -404,4 +414,204 @@ class JamiahControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(created.getId().toString()));
     }
+
+    @Test
+    void walletsAnswerNotModifiedUntilMembershipChanges() throws Exception {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+
+        JamiahDto dto = new JamiahDto();
+        dto.setName("Conditional");
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize(3);
+        dto.setCycleCount(1);
+        dto.setRateAmount(new BigDecimal("5"));
+        dto.setRateInterval(RateInterval.MONTHLY);
+        dto.setStartDate(LocalDate.now());
+
+        String response = mockMvc.perform(post("/api/jamiahs?uid=" + ownerUid)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andReturn().getResponse().getContentAsString();
+        JamiahDto created = objectMapper.readValue(response, JamiahDto.class);
+        String walletsUrl = "/api/jamiahs/" + created.getId() + "/wallets?uid=" + ownerUid;
+
+        String etag = mockMvc.perform(get(walletsUrl))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(walletsUrl).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String joinerUid = newUid();
+        createUser(joinerUid, "joiner");
+        mockMvc.perform(post("/api/jamiahs/" + created.getId() + "/join-public")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"uid\":\"" + joinerUid + "\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(walletsUrl).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void conditionalRequestsAreAuthorizedBeforeAnswering304() throws Exception {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String memberUid = newUid();
+        createUser(memberUid, "member");
+        String strangerUid = newUid();
+        createUser(strangerUid, "stranger");
+        JamiahDto created = createConditionalJamiah(ownerUid);
+        mockMvc.perform(post("/api/jamiahs/" + created.getId() + "/join-public")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"uid\":\"" + memberUid + "\"}"))
+                .andExpect(status().isOk());
+        JamiahCycle cycle = jamiahService.startCycle(created.getId().toString(), ownerUid,
+                new java.util.ArrayList<>(java.util.List.of(memberUid, ownerUid)));
+        String base = "/api/jamiahs/" + created.getId();
+
+        String walletsTag = etag(base + "/wallets?uid=" + ownerUid);
+        mockMvc.perform(get(base + "/wallets?uid=" + strangerUid).header("If-None-Match", walletsTag))
+                .andExpect(status().isForbidden());
+
+        String summaryTag = etag(base + "/cycles/summary?uid=" + ownerUid);
+        mockMvc.perform(get(base + "/cycles/summary?uid=" + memberUid).header("If-None-Match", summaryTag))
+                .andExpect(status().isForbidden());
+
+        String roundUrl = base + "/cycles/" + cycle.getId() + "/round?uid=";
+        String roundTag = etag(roundUrl + memberUid);
+        mockMvc.perform(get(roundUrl + memberUid).header("If-None-Match", roundTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(roundUrl + strangerUid).header("If-None-Match", roundTag))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(base + "/cycles/" + cycle.getId() + "/payments?uid=" + strangerUid)
+                        .header("If-None-Match", roundTag))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void roundTagsChangeOnlyForTheTouchedRound() throws Exception {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String memberUid = newUid();
+        createUser(memberUid, "member");
+        JamiahDto created = createConditionalJamiah(ownerUid);
+        mockMvc.perform(post("/api/jamiahs/" + created.getId() + "/join-public")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"uid\":\"" + memberUid + "\"}"))
+                .andExpect(status().isOk());
+        JamiahCycle cycle = jamiahService.startCycle(created.getId().toString(), ownerUid,
+                new java.util.ArrayList<>(java.util.List.of(memberUid, ownerUid)));
+        Jamiah jamiah = repository.findByPublicId(created.getId()).orElseThrow();
+        String roundUrl = "/api/jamiahs/" + created.getId() + "/cycles/" + cycle.getId() + "/round?uid=" + ownerUid;
+        String walletsUrl = "/api/jamiahs/" + created.getId() + "/wallets?uid=" + ownerUid;
+
+        String roundTag = etag(roundUrl);
+        String walletsTag = etag(walletsUrl);
+        stateVersions.touchJamiah(jamiah.getId());
+        mockMvc.perform(get(roundUrl).header("If-None-Match", roundTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(walletsUrl).header("If-None-Match", walletsTag))
+                .andExpect(status().isOk());
+
+        stateVersions.touchCycle(jamiah.getId(), cycle.getId());
+        mockMvc.perform(get(roundUrl).header("If-None-Match", roundTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(roundTag)));
+    }
+
+    @Test
+    void stateVersionsAreBumpedOnceAfterCommitOnly() throws Exception {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        JamiahDto created = createConditionalJamiah(ownerUid);
+        Jamiah jamiah = repository.findByPublicId(created.getId()).orElseThrow();
+        String publicId = created.getId().toString();
+        String before = stateVersions.jamiahTag(publicId, ownerUid);
+
+        org.springframework.transaction.support.TransactionTemplate transaction =
+                new org.springframework.transaction.support.TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            stateVersions.touchJamiah(jamiah.getId());
+            stateVersions.touchAll(jamiah.getId());
+            status.setRollbackOnly();
+        });
+        org.junit.jupiter.api.Assertions.assertEquals(before, stateVersions.jamiahTag(publicId, ownerUid));
+
+        transaction.executeWithoutResult(status -> {
+            stateVersions.touchJamiah(jamiah.getId());
+            stateVersions.touchJamiah(jamiah.getId());
+            org.junit.jupiter.api.Assertions.assertEquals(before, stateVersions.jamiahTag(publicId, ownerUid));
+        });
+        long previous = Long.parseLong(before.replaceAll("[^0-9]", ""));
+        org.junit.jupiter.api.Assertions.assertEquals("\"j" + (previous + 1) + "\"",
+                stateVersions.jamiahTag(publicId, ownerUid));
+        org.junit.jupiter.api.Assertions.assertNull(stateVersions.jamiahTag(publicId, newUid()));
+    }
+
+    private JamiahDto createConditionalJamiah(String ownerUid) throws Exception {
+        JamiahDto dto = new JamiahDto();
+        dto.setName("Conditional");
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize(3);
+        dto.setCycleCount(1);
+        dto.setRateAmount(new BigDecimal("5"));
+        dto.setRateInterval(RateInterval.MONTHLY);
+        dto.setStartDate(LocalDate.now());
+
+        String response = mockMvc.perform(post("/api/jamiahs?uid=" + ownerUid)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, JamiahDto.class);
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    @Test
+    void cyclesAreListedAsDtos() throws Exception {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String memberUid = newUid();
+        createUser(memberUid, "member");
+
+        JamiahDto dto = new JamiahDto();
+        dto.setName("Cycles");
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize(3);
+        dto.setCycleCount(1);
+        dto.setRateAmount(new BigDecimal("5"));
+        dto.setRateInterval(RateInterval.MONTHLY);
+        dto.setStartDate(LocalDate.now());
+
+        String response = mockMvc.perform(post("/api/jamiahs?uid=" + ownerUid)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andReturn().getResponse().getContentAsString();
+        JamiahDto created = objectMapper.readValue(response, JamiahDto.class);
+        mockMvc.perform(post("/api/jamiahs/" + created.getId() + "/join-public")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"uid\":\"" + memberUid + "\"}"))
+                .andExpect(status().isOk());
+        jamiahService.startCycle(created.getId().toString(), ownerUid,
+                new java.util.ArrayList<>(java.util.List.of(memberUid, ownerUid)));
+
+        mockMvc.perform(get("/api/jamiahs/" + created.getId() + "/cycles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].cycleNumber").value(1))
+                .andExpect(jsonPath("$[0].recipient.uid").value(memberUid))
+                .andExpect(jsonPath("$[0].memberOrder[0]").value(memberUid))
+                .andExpect(jsonPath("$[0].memberOrder[1]").value(ownerUid))
+                .andExpect(jsonPath("$[0].payments").doesNotExist())
+                .andExpect(jsonPath("$[0].jamiah").doesNotExist());
+    }
 }
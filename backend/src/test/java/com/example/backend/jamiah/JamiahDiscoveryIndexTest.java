@@ -0,0 +1,147 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.UserProfile;
+import com.example.backend.jamiah.dto.DiscoveryPageDto;
+import com.example.backend.jamiah.dto.JamiahDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JamiahDiscoveryIndexTest {
+
+    @Mock
+    private JamiahRepository repository;
+
+    private JamiahDiscoveryIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new JamiahDiscoveryIndex(repository, new BigDecimal[]{new BigDecimal("50"), new BigDecimal("100")});
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        index.rebuild();
+        index.put(jamiah(1L, "Family savings", "Monthly pot", "de", "40", RateInterval.MONTHLY, 5, 2));
+        index.put(jamiah(2L, "Neighbours", "Savings for the street", "de", "80", RateInterval.WEEKLY, null, 3));
+        index.put(jamiah(3L, "Students", "Books and rent", "en", "20", RateInterval.MONTHLY, 3, 3));
+
+        DiscoveryPageDto result = index.search("sav", null, null, null, null, null, 0, 20);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of("Family savings", "Neighbours"),
+                result.getItems().stream().map(JamiahDto::getName).toList());
+        assertEquals(2L, result.getFacets().get("language").get("de"));
+        assertEquals(1L, result.getFacets().get("rate").get("0-50"));
+        assertEquals(1L, result.getFacets().get("rate").get("50-100"));
+        assertEquals(1L, result.getFacets().get("freeSeats").get("unlimited"));
+    }
+
+    @Test
+    void filtersByFacetsAndPages() {
+        index.rebuild();
+        index.put(jamiah(1L, "Family savings", null, "de", "40", RateInterval.MONTHLY, 5, 2));
+        index.put(jamiah(2L, "Neighbours", null, "de", "80", RateInterval.WEEKLY, null, 3));
+        index.put(jamiah(3L, "Students", null, "en", "20", RateInterval.MONTHLY, 3, 3));
+
+        assertEquals(1, index.search(null, "EN", null, null, null, null, 0, 20).getTotal());
+        assertEquals(2, index.search(null, null, RateInterval.MONTHLY, null, null, null, 0, 20).getTotal());
+        assertEquals(1, index.search(null, null, null, new BigDecimal("50"), null, null, 0, 20).getTotal());
+        assertEquals(2, index.search(null, null, null, null, null, 1, 0, 20).getTotal());
+
+        DiscoveryPageDto second = index.search(null, null, null, null, null, null, 1, 2);
+        assertEquals(3, second.getTotal());
+        assertEquals(1, second.getItems().size());
+    }
+
+    @Test
+    void writesReplaceEntriesAndPrivateJamiahsDropOut() {
+        index.rebuild();
+        Jamiah jamiah = jamiah(1L, "Old name", null, "de", "40", RateInterval.MONTHLY, 5, 1);
+        index.put(jamiah);
+
+        jamiah.setName("New name");
+        index.put(jamiah);
+        assertTrue(index.search("old", null, null, null, null, null, 0, 20).getItems().isEmpty());
+        assertEquals(1, index.search("new", null, null, null, null, null, 0, 20).getTotal());
+
+        jamiah.setIsPublic(false);
+        index.put(jamiah);
+        assertTrue(index.search(null, null, null, null, null, null, 0, 20).getItems().isEmpty());
+    }
+
+    @Test
+    void writesInsideATransactionApplyOnlyAfterItCommits() {
+        index.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.put(jamiah(1L, "Pending", null, "de", "40", RateInterval.MONTHLY, 5, 1));
+            assertEquals(0, index.search("pending", null, null, null, null, null, 0, 20).getTotal());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, index.search("pending", null, null, null, null, null, 0, 20).getTotal());
+    }
+
+    @Test
+    void searchesTheDatabaseUntilTheFirstBuild() {
+        Object[] row = {7L, UUID.randomUUID(), "owner", "Cold start", null, "de", 4, 6, 2,
+                new BigDecimal("25"), RateInterval.WEEKLY, null, null, 2};
+        when(repository.findPublicListingRowsAfter(anyLong(), any())).thenReturn(List.<Object[]>of(row));
+
+        assertEquals(1, index.search("cold", null, null, null, null, null, 0, 20).getTotal());
+        assertEquals(List.of("Cold start"), index.all().stream().map(JamiahDto::getName).toList());
+    }
+
+    @Test
+    void rebuildLoadsPublicJamiahsFromTheDatabase() {
+        UUID publicId = UUID.randomUUID();
+        Object[] row = {7L, publicId, "owner", "Rebuilt", "From rows", "tr", 4, 6, 2,
+                new BigDecimal("25"), RateInterval.WEEKLY, null, null, 2};
+        when(repository.findPublicListingRowsAfter(anyLong(), any())).thenReturn(List.<Object[]>of(row));
+
+        index.rebuild();
+
+        DiscoveryPageDto result = index.search("rebuilt", "tr", null, null, null, 4, 0, 20);
+        assertEquals(1, result.getTotal());
+        assertEquals(publicId, result.getItems().get(0).getId());
+        assertEquals(2, result.getItems().get(0).getCurrentMembers());
+    }
+
+    private static Jamiah jamiah(Long id, String name, String description, String language, String rate,
+                                 RateInterval interval, Integer maxMembers, int members) {
+        Jamiah jamiah = new Jamiah();
+        jamiah.setId(id);
+        jamiah.setPublicId(UUID.randomUUID());
+        jamiah.setName(name);
+        jamiah.setDescription(description);
+        jamiah.setLanguage(language);
+        jamiah.setIsPublic(true);
+        jamiah.setRateAmount(new BigDecimal(rate));
+        jamiah.setRateInterval(interval);
+        jamiah.setMaxMembers(maxMembers);
+        for (int i = 0; i < members; i++) {
+            UserProfile member = new UserProfile();
+            member.setUid("member-" + id + "-" + i);
+            jamiah.getMembers().add(member);
+        }
+        return jamiah;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.jamiah.dto.PaymentDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JamiahEventBroadcasterTest {
+
+    private final Deque<RecordingEmitter> emitters = new ArrayDeque<>();
+    private JamiahEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(emitter -> emitter.release.countDown());
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void deliversEventsToTheirAudience() throws Exception {
+        broadcaster = broadcaster(10_000, 100);
+        RecordingEmitter owner = subscribe("owner", true, false);
+        RecordingEmitter member = subscribe("member", false, false);
+        RecordingEmitter other = subscribe("other", false, false);
+
+        broadcaster.onEvent(JamiahEvent.walletUpdated(1L, "member", BigDecimal.TEN, BigDecimal.ZERO));
+        broadcaster.onEvent(JamiahEvent.paymentUpdated(1L, 5L, 7L, "other", PaymentDto.PaymentStatus.PAID_SELF_CONFIRMED));
+
+        await(() -> owner.sent.size() == 2 && member.sent.size() == 2 && other.sent.size() == 1);
+        assertTrue(owner.sent.get(0).contains("WALLET_UPDATED"));
+        assertTrue(other.sent.get(0).contains("PAYMENT_UPDATED"));
+    }
+
+    @Test
+    void slowSubscriberDoesNotHoldUpOthersAndIsDroppedAfterTheSendTimeout() throws Exception {
+        broadcaster = broadcaster(50, 100);
+        RecordingEmitter slow = subscribe("slow", false, true);
+        RecordingEmitter fast = subscribe("fast", false, false);
+
+        broadcaster.onEvent(JamiahEvent.roundOpened(1L, 5L, "fast"));
+
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+        await(() -> fast.sent.size() == 1);
+        Thread.sleep(100);
+        broadcaster.heartbeat();
+
+        assertTrue(slow.failed);
+        assertEquals(1, broadcaster.subscriberCount(1L));
+        await(() -> fast.sent.size() == 2);
+        assertTrue(fast.sent.get(1).contains("ping"));
+    }
+
+    @Test
+    void overflowingQueueDropsTheSubscriber() throws Exception {
+        broadcaster = broadcaster(10_000, 2);
+        RecordingEmitter slow = subscribe("slow", false, true);
+
+        broadcaster.onEvent(JamiahEvent.roundOpened(1L, 5L, "slow"));
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            broadcaster.onEvent(JamiahEvent.roundOpened(1L, 5L, "slow"));
+        }
+
+        assertTrue(slow.failed);
+        assertEquals(0, broadcaster.subscriberCount(1L));
+    }
+
+    @Test
+    void membershipChangesCloseStreamsOfFormerMembers() {
+        broadcaster = broadcaster(10_000, 100);
+        RecordingEmitter owner = subscribe("owner", true, false);
+        RecordingEmitter staying = subscribe("staying", false, false);
+        RecordingEmitter leaving = subscribe("leaving", false, false);
+
+        broadcaster.onMembershipChanged(new JamiahMembershipChanged(1L, "owner", Set.of("staying")));
+
+        assertTrue(leaving.completed);
+        assertFalse(staying.completed);
+        assertEquals(2, broadcaster.subscriberCount(1L));
+
+        broadcaster.onMembershipChanged(JamiahMembershipChanged.deleted(1L));
+        assertTrue(owner.completed);
+        assertEquals(0, broadcaster.subscriberCount(1L));
+    }
+
+    private JamiahEventBroadcaster broadcaster(long sendTimeoutMs, int maxQueued) {
+        return new JamiahEventBroadcaster(60_000, 0, sendTimeoutMs, maxQueued, 2) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                return emitters.peekLast();
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(String uid, boolean owner, boolean blocking) {
+        RecordingEmitter emitter = new RecordingEmitter(blocking);
+        emitters.add(emitter);
+        broadcaster.subscribe(1L, uid, owner);
+        return emitter;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean completed;
+        private volatile boolean failed;
+
+        private RecordingEmitter(boolean blocking) {
+            this.release = new CountDownLatch(blocking ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed = true;
+        }
+    }
+}
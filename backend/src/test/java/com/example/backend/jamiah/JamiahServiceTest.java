@@ -27,7 +27,8 @@ import static org.junit.jupiter.api.Assertions.*;
         "spring.datasource.url=jdbc:h2:mem:jamiahservicetest;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
         "spring.flyway.url=jdbc:h2:mem:jamiahservicetest;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
 })
-@Import({JamiahService.class, JamiahMapperImpl.class})
+@Import({JamiahService.class, JamiahMapperImpl.class, RoundSnapshotCache.class, JamiahStateVersions.class,
+        JamiahDiscoveryIndex.class})
 class JamiahServiceTest {
 
     @MockBean
@@ -398,7 +399,41 @@ class JamiahServiceTest {
         userRepository.save(u2);
         service.joinPublic(created.getId().toString(), "uid2");
 
-        java.util.List<UserProfile> members = service.getMembers(created.getId().toString());
+        java.util.List<com.example.backend.jamiah.dto.MemberDto> members = service.getMembers(created.getId().toString());
         assertEquals(2, members.size());
+        assertEquals(java.util.List.of("uid1", "uid2"),
+                members.stream().map(com.example.backend.jamiah.dto.MemberDto::getUid).toList());
+        assertEquals(com.example.backend.jamiah.dto.MemberDto.JoinOrigin.DIRECT, members.get(0).getJoinOrigin());
+    }
+
+    @Test
+    void getMembersReportsHowEachMemberJoined() {
+        UserProfile owner = new UserProfile();
+        owner.setUsername("a-owner");
+        owner.setUid("origin-owner");
+        userRepository.save(owner);
+        UserProfile applicant = new UserProfile();
+        applicant.setUsername("b-applicant");
+        applicant.setUid("origin-applicant");
+        userRepository.save(applicant);
+
+        JamiahDto dto = new JamiahDto();
+        dto.setName("Origins");
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize(3);
+        dto.setCycleCount(1);
+        dto.setRateAmount(new BigDecimal("5"));
+        dto.setRateInterval(RateInterval.MONTHLY);
+        JamiahDto created = service.createJamiah("origin-owner", dto);
+        String publicId = created.getId().toString();
+        com.example.backend.jamiah.dto.JoinRequestDto request = service.requestJoinPublic(publicId, "origin-applicant", "hi");
+        service.handleJoinRequest(publicId, request.getId(), "origin-owner", true);
+
+        java.util.List<com.example.backend.jamiah.dto.MemberDto> members = service.getMembers(publicId);
+
+        assertEquals(2, members.size());
+        assertEquals(com.example.backend.jamiah.dto.MemberDto.JoinOrigin.OWNER, members.get(0).getJoinOrigin());
+        assertEquals(com.example.backend.jamiah.dto.MemberDto.JoinOrigin.JOIN_REQUEST, members.get(1).getJoinOrigin());
+        assertEquals(JamiahJoinRequest.Status.APPROVED, members.get(1).getJoinRequestStatus());
     }
 }
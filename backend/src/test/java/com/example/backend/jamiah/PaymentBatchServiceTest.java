@@ -0,0 +1,233 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.UserProfile;
+import com.example.backend.UserProfileRepository;
+import com.example.backend.jamiah.dto.JamiahDto;
+import com.example.backend.jamiah.dto.PaymentBatchItemDto;
+import com.example.backend.payment.StripePaymentProvider;
+import com.example.backend.wallet.JamiahWallet;
+import com.example.backend.wallet.JamiahWalletRepository;
+import com.example.backend.wallet.WalletService;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.model.PaymentIntent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Transactional
+class PaymentBatchServiceTest {
+    @Autowired
+    PaymentBatchService batchService;
+    @Autowired
+    JamiahService service;
+    @Autowired
+    JamiahRepository jamiahRepository;
+    @Autowired
+    JamiahPaymentRepository paymentRepository;
+    @Autowired
+    UserProfileRepository userRepository;
+    @Autowired
+    JamiahWalletRepository walletRepository;
+    @Autowired
+    WalletService walletService;
+
+    @MockBean
+    StripePaymentProvider stripePaymentProvider;
+
+    @BeforeEach
+    void setupStripeMocks() throws Exception {
+        when(stripePaymentProvider.retrievePaymentIntent(any())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(0, String.class);
+            if (id.startsWith("pi_broken")) {
+                throw new ApiConnectionException("Stripe unavailable");
+            }
+            PaymentIntent paymentIntent = mock(PaymentIntent.class);
+            when(paymentIntent.getId()).thenReturn(id);
+            when(paymentIntent.getStatus()).thenReturn(id.startsWith("pi_pending") ? "processing" : "succeeded");
+            when(paymentIntent.getAmount()).thenReturn(500L);
+            return paymentIntent;
+        });
+        when(stripePaymentProvider.createPaymentIntent(any(), any())).thenAnswer(invocation -> {
+            PaymentIntent paymentIntent = mock(PaymentIntent.class);
+            String id = "pi_" + UUID.randomUUID();
+            when(paymentIntent.getId()).thenReturn(id);
+            when(paymentIntent.getClientSecret()).thenReturn(id + "_secret");
+            return paymentIntent;
+        });
+    }
+
+    @Test
+    void confirmingAMixedBatchReportsEachItemAndCreditsOnlySettledPayments() {
+        String ownerUid = newUid();
+        createUser(ownerUid);
+        String payerUid = newUid();
+        UserProfile payer = createUser(payerUid);
+        String otherUid = newUid();
+        createUser(otherUid);
+
+        JamiahPayment first = payment(ownerUid, payerUid, "pi_first");
+        JamiahPayment second = payment(ownerUid, payerUid, "pi_second");
+        JamiahPayment pending = payment(ownerUid, payerUid, "pi_pending");
+        JamiahPayment notInitiated = payment(ownerUid, payerUid, null);
+        JamiahPayment foreign = payment(ownerUid, otherUid, "pi_foreign");
+        Long unknown = Long.MAX_VALUE;
+
+        List<PaymentBatchItemDto> results = batchService.confirmPayments(
+                List.of(first.getId(), pending.getId(), unknown, second.getId(), notInitiated.getId(), foreign.getId()),
+                payerUid);
+
+        assertEquals(List.of(first.getId(), pending.getId(), unknown, second.getId(), notInitiated.getId(), foreign.getId()),
+                results.stream().map(PaymentBatchItemDto::getPaymentId).toList());
+        assertEquals(List.of(200, 400, 404, 200, 400, 404),
+                results.stream().map(PaymentBatchItemDto::getStatus).toList());
+        assertEquals("PaymentIntent not completed", results.get(1).getError());
+        assertEquals("Payment has not been initiated", results.get(4).getError());
+        assertNotNull(results.get(0).getWallet());
+        assertBigDecimalEquals("5", results.get(0).getWallet().getBalance());
+
+        assertTrue(paymentRepository.findById(first.getId()).orElseThrow().getConfirmed());
+        assertTrue(paymentRepository.findById(second.getId()).orElseThrow().getConfirmed());
+        assertFalse(paymentRepository.findById(pending.getId()).orElseThrow().getConfirmed());
+        assertFalse(paymentRepository.findById(notInitiated.getId()).orElseThrow().getConfirmed());
+
+        JamiahWallet firstWallet = walletRepository.findByJamiah_IdAndMember_Id(first.getJamiahId(), payer.getId())
+                .orElseThrow();
+        assertBigDecimalEquals("5", firstWallet.getBalance());
+        assertBigDecimalEquals("5", firstWallet.getReservedBalance());
+        JamiahWallet secondWallet = walletRepository.findByJamiah_IdAndMember_Id(second.getJamiahId(), payer.getId())
+                .orElseThrow();
+        assertBigDecimalEquals("5", secondWallet.getBalance());
+        assertTrue(walletRepository.findByJamiah_IdAndMember_Id(pending.getJamiahId(), payer.getId())
+                .map(wallet -> wallet.getBalance().signum() == 0)
+                .orElse(true));
+    }
+
+    @Test
+    void stripeFailuresOnlyFailTheirOwnItems() {
+        String ownerUid = newUid();
+        createUser(ownerUid);
+        String payerUid = newUid();
+        UserProfile payer = createUser(payerUid);
+
+        JamiahPayment broken = payment(ownerUid, payerUid, "pi_broken");
+        JamiahPayment settled = payment(ownerUid, payerUid, "pi_settled");
+
+        List<PaymentBatchItemDto> results = batchService.confirmPayments(
+                List.of(broken.getId(), settled.getId()), payerUid);
+
+        assertEquals(List.of(502, 200), results.stream().map(PaymentBatchItemDto::getStatus).toList());
+        assertEquals("Stripe unavailable", results.get(0).getError());
+        assertFalse(paymentRepository.findById(broken.getId()).orElseThrow().getConfirmed());
+        assertTrue(paymentRepository.findById(settled.getId()).orElseThrow().getConfirmed());
+        assertBigDecimalEquals("5", walletRepository.findByJamiah_IdAndMember_Id(settled.getJamiahId(), payer.getId())
+                .orElseThrow().getBalance());
+    }
+
+    @Test
+    void lockedWalletsRejectOnlyTheirPayments() {
+        String ownerUid = newUid();
+        createUser(ownerUid);
+        String payerUid = newUid();
+        UserProfile payer = createUser(payerUid);
+
+        JamiahPayment locked = payment(ownerUid, payerUid, "pi_locked");
+        JamiahPayment open = payment(ownerUid, payerUid, "pi_open");
+        JamiahWallet wallet = walletService.getOrCreateWallet(
+                jamiahRepository.findById(locked.getJamiahId()).orElseThrow(), payer);
+        wallet.setLockedForPayments(true);
+        walletRepository.save(wallet);
+
+        List<PaymentBatchItemDto> results = batchService.confirmPayments(
+                List.of(open.getId(), locked.getId()), payerUid);
+
+        assertEquals(List.of(200, 409), results.stream().map(PaymentBatchItemDto::getStatus).toList());
+        assertEquals("Wallet is locked for outgoing payments", results.get(1).getError());
+        assertFalse(paymentRepository.findById(locked.getId()).orElseThrow().getConfirmed());
+        assertTrue(paymentRepository.findById(open.getId()).orElseThrow().getConfirmed());
+    }
+
+    @Test
+    void initiationKeepsRequestOrderAndReportsEachItem() {
+        String ownerUid = newUid();
+        createUser(ownerUid);
+        String payerUid = newUid();
+        createUser(payerUid);
+
+        JamiahPayment first = payment(ownerUid, payerUid, null);
+        JamiahPayment second = payment(ownerUid, payerUid, null);
+        JamiahPayment broken = payment(ownerUid, payerUid, "pi_broken");
+
+        List<PaymentBatchItemDto> results = batchService.initiatePayments(
+                List.of(second.getId(), broken.getId(), first.getId(), second.getId()), payerUid);
+
+        assertEquals(List.of(second.getId(), broken.getId(), first.getId()),
+                results.stream().map(PaymentBatchItemDto::getPaymentId).toList());
+        assertEquals(List.of(200, 502, 200), results.stream().map(PaymentBatchItemDto::getStatus).toList());
+        assertNotNull(results.get(0).getPayment().getClientSecret());
+        assertEquals(results.get(2).getPayment().getStripePaymentIntentId(),
+                paymentRepository.findById(first.getId()).orElseThrow().getStripePaymentIntentId());
+        assertEquals("pi_broken", paymentRepository.findById(broken.getId()).orElseThrow().getStripePaymentIntentId());
+    }
+
+    /** Starts a Jamiah of {@code ownerUid} with {@code payerUid} as member and returns the payer's payment. */
+    private JamiahPayment payment(String ownerUid, String payerUid, String paymentIntentId) {
+        UserProfile payer = userRepository.findByUid(payerUid).orElseThrow();
+        JamiahDto dto = new JamiahDto();
+        dto.setName("Batch Test");
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize(3);
+        dto.setCycleCount(1);
+        dto.setRateAmount(new BigDecimal("5"));
+        dto.setRateInterval(RateInterval.MONTHLY);
+        JamiahDto created = service.createJamiah(ownerUid, dto);
+        Jamiah jamiah = jamiahRepository.findByPublicId(created.getId()).orElseThrow();
+        jamiah = jamiahRepository.findWithMembersById(jamiah.getId()).orElse(jamiah);
+        jamiah.getMembers().add(payer);
+        payer.getJamiahs().add(jamiah);
+        jamiahRepository.save(jamiah);
+
+        JamiahCycle cycle = service.startCycle(created.getId().toString(), ownerUid,
+                new ArrayList<>(List.of(ownerUid, payerUid)));
+        Long jamiahId = jamiah.getId();
+        JamiahPayment payment = paymentRepository.findByJamiahIdAndCycleIdAndPayerUid(jamiahId, cycle.getId(), payerUid)
+                .orElseGet(JamiahPayment::new);
+        payment.setJamiahId(jamiahId);
+        payment.setCycleId(cycle.getId());
+        payment.setPayerUid(payerUid);
+        payment.setAmount(new BigDecimal("5"));
+        payment.setStripePaymentIntentId(paymentIntentId);
+        return paymentRepository.save(payment);
+    }
+
+    private String newUid() {
+        return "u-" + UUID.randomUUID();
+    }
+
+    private UserProfile createUser(String uid) {
+        UserProfile user = new UserProfile();
+        user.setUid(uid);
+        user.setUsername("user-" + uid);
+        return userRepository.save(user);
+    }
+
+    private void assertBigDecimalEquals(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual));
+    }
+}
@@ -52,6 +52,10 @@ public class PaymentServiceTest {
     JamiahWalletRepository walletRepository;
     @Autowired
     WalletService walletService;
+    @Autowired
+    PaymentReminderService reminderService;
+    @Autowired
+    jakarta.persistence.EntityManager entityManager;
 
     @MockBean
     StripePaymentProvider stripePaymentProvider;
@@ -63,13 +67,13 @@ public class PaymentServiceTest {
         Account account = org.mockito.Mockito.mock(Account.class);
         org.mockito.Mockito.when(account.getId()).thenReturn("acct_test");
         org.mockito.Mockito.when(account.getDetailsSubmitted()).thenReturn(true);
-        org.mockito.Mockito.when(stripePaymentProvider.createAccount(org.mockito.Mockito.any()))
+        org.mockito.Mockito.when(stripePaymentProvider.createAccount(org.mockito.Mockito.any(), org.mockito.Mockito.any()))
                 .thenReturn(account);
         org.mockito.Mockito.when(stripePaymentProvider.retrieveAccount(org.mockito.Mockito.any()))
                 .thenReturn(account);
         org.mockito.Mockito.when(stripePaymentProvider.createTransfer(org.mockito.Mockito.any()))
                 .thenReturn(org.mockito.Mockito.mock(Transfer.class));
-        org.mockito.Mockito.when(stripePaymentProvider.createPaymentIntent(org.mockito.Mockito.any()))
+        org.mockito.Mockito.when(stripePaymentProvider.createPaymentIntent(org.mockito.Mockito.any(), org.mockito.Mockito.any()))
                 .thenAnswer(invocation -> {
                     PaymentIntent paymentIntent = org.mockito.Mockito.mock(PaymentIntent.class);
                     String id = "pi_test_" + paymentIntentCounter.incrementAndGet();
@@ -143,7 +147,7 @@ public class PaymentServiceTest {
         walletService.topUp(created.getId().toString(), ownerUid, new BigDecimal("5"), null, null, false);
 
         org.mockito.ArgumentCaptor<Map<String, Object>> captor = org.mockito.ArgumentCaptor.forClass(Map.class);
-        verify(stripePaymentProvider).createPaymentIntent(captor.capture());
+        verify(stripePaymentProvider).createPaymentIntent(captor.capture(), org.mockito.Mockito.any());
 
         Map<String, Object> params = captor.getValue();
         assertEquals("acct_test", params.get("on_behalf_of"));
@@ -198,6 +202,10 @@ public class PaymentServiceTest {
                 .orElse(null);
         assertNotNull(next);
         assertEquals(completed.getStartDate().plusMonths(1), next.getStartDate());
+        assertEquals(completed.getRotation().getId(), next.getRotation().getId());
+        assertEquals(1, next.getRoundIndex());
+        assertEquals(order(ownerUid, memberUid), next.getMemberOrder());
+        assertEquals(memberUid, next.getRecipient().getUid());
     }
 
     @Test
@@ -584,4 +592,249 @@ public class PaymentServiceTest {
         assertEquals(2, s.getReceiptCount());
         assertEquals(recipientUid, s.getRecipientUid());
     }
+
+    @Test
+    void cycleSummariesAggregateEveryCycleInOneStatement() {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String recipientUid = newUid();
+        UserProfile recipient = createUser(recipientUid, "rec");
+        String memberUid = newUid();
+        UserProfile member = createUser(memberUid, "m");
+
+        JamiahDto created = createJamiah(ownerUid);
+        Jamiah jamiah = loadJamiah(created.getId());
+        jamiah.getMembers().add(recipient);
+        recipient.getJamiahs().add(jamiah);
+        jamiah.getMembers().add(member);
+        member.getJamiahs().add(jamiah);
+        jamiahRepository.save(jamiah);
+
+        JamiahCycle first = service.startCycle(created.getId().toString(), ownerUid,
+                order(recipientUid, memberUid, ownerUid));
+        paymentService.advanceDueRounds(first.getDueDate(), 1000);
+        JamiahCycle second = cycleRepository.findByJamiahId(jamiah.getId()).stream()
+                .filter(c -> c.getCycleNumber() == 2)
+                .findFirst()
+                .orElseThrow();
+        JamiahCycle third = new JamiahCycle();
+        third.setJamiah(jamiah);
+        third.setCycleNumber(3);
+        third.setStartDate(second.getDueDate());
+        cycleRepository.save(third);
+
+        storePayment(jamiah.getId(), first.getId(), ownerUid, true, true);
+        storePayment(jamiah.getId(), first.getId(), memberUid, true, false);
+        storePayment(jamiah.getId(), first.getId(), recipientUid, true, true);
+        storePayment(jamiah.getId(), second.getId(), ownerUid, true, false);
+        storePayment(jamiah.getId(), second.getId(), recipientUid, false, false);
+        storePayment(jamiah.getId(), second.getId(), memberUid, true, true);
+        storePayment(jamiah.getId(), third.getId(), ownerUid, true, false);
+        entityManager.flush();
+        entityManager.clear();
+
+        org.hibernate.stat.Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(org.hibernate.SessionFactory.class).getStatistics();
+        statistics.clear();
+        java.util.List<CycleSummaryView> views = cycleRepository.findSummariesByJamiahId(jamiah.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(java.util.List.of(1, 2, 3), views.stream().map(CycleSummaryView::getCycleNumber).toList());
+        CycleSummaryView one = views.get(0);
+        assertEquals(recipientUid, one.getRecipientUid());
+        assertEquals(2L, one.getOrderedPayers());
+        assertEquals(2L, one.getPaidCount());
+        assertEquals(1L, one.getReceiptCount());
+        CycleSummaryView two = views.get(1);
+        assertEquals(memberUid, two.getRecipientUid());
+        assertEquals(2L, two.getOrderedPayers());
+        assertEquals(1L, two.getPaidCount());
+        assertEquals(0L, two.getReceiptCount());
+        CycleSummaryView three = views.get(2);
+        assertNull(three.getRecipientUid());
+        assertEquals(0L, three.getOrderedPayers());
+        assertEquals(3L, three.getMemberCount());
+        assertEquals(1L, three.getPaidCount());
+
+        CycleSummaryDto summary = paymentService.getCycleSummaries(created.getId().toString(), ownerUid).get(2);
+        assertEquals(3, summary.getTotalPayers());
+    }
+
+    private void storePayment(Long jamiahId, Long cycleId, String payerUid, boolean confirmed, boolean receipt) {
+        JamiahPayment payment = paymentRepository.findAllByJamiahIdAndCycleId(jamiahId, cycleId).stream()
+                .filter(p -> payerUid.equals(p.getPayerUid()))
+                .findFirst()
+                .orElseGet(JamiahPayment::new);
+        payment.setJamiahId(jamiahId);
+        payment.setCycleId(cycleId);
+        payment.setPayerUid(payerUid);
+        payment.setAmount(new BigDecimal("5"));
+        payment.setConfirmed(confirmed);
+        payment.setRecipientConfirmed(receipt);
+        paymentRepository.save(payment);
+    }
+
+    @Test
+    void roundViewsLoadWithTwoStatements() {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String recipientUid = newUid();
+        UserProfile recipient = createUser(recipientUid, "rec");
+        String memberUid = newUid();
+        UserProfile member = createUser(memberUid, "m");
+
+        JamiahDto created = createJamiah(ownerUid);
+        Jamiah jamiah = loadJamiah(created.getId());
+        jamiah.getMembers().add(recipient);
+        recipient.getJamiahs().add(jamiah);
+        jamiah.getMembers().add(member);
+        member.getJamiahs().add(jamiah);
+        jamiahRepository.save(jamiah);
+
+        JamiahCycle cycle = service.startCycle(created.getId().toString(), ownerUid,
+                order(recipientUid, memberUid, ownerUid));
+        paymentService.getRound(created.getId().toString(), cycle.getId(), ownerUid);
+        entityManager.flush();
+        entityManager.clear();
+
+        org.hibernate.stat.Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(org.hibernate.SessionFactory.class).getStatistics();
+        statistics.clear();
+        RoundDto round = paymentService.getRound(created.getId().toString(), cycle.getId(), ownerUid);
+        assertEquals(2, round.getPayments().size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "getRound used " + statistics.getPrepareStatementCount() + " statements");
+
+        entityManager.clear();
+        statistics.clear();
+        assertEquals(2, paymentService.getPayments(created.getId().toString(), cycle.getId(), ownerUid).size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "getPayments used " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void openPaymentsAreInsertedWithOneStatementPerChunk() {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String memberUid = newUid();
+        UserProfile member = createUser(memberUid, "m");
+
+        JamiahDto created = createJamiah(ownerUid);
+        Jamiah jamiah = loadJamiah(created.getId());
+        jamiah.getMembers().add(member);
+        member.getJamiahs().add(jamiah);
+        jamiahRepository.save(jamiah);
+
+        JamiahCycle cycle = service.startCycle(created.getId().toString(), ownerUid, order(ownerUid, memberUid));
+        int existing = paymentRepository.findAllByJamiahIdAndCycleId(jamiah.getId(), cycle.getId()).size();
+        entityManager.flush();
+        entityManager.clear();
+
+        java.util.List<String> payers = new java.util.ArrayList<>();
+        for (int i = 0; i < 504; i++) {
+            payers.add(newUid());
+        }
+        org.hibernate.stat.Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(org.hibernate.SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(3, paymentRepository.insertOpenPayments(jamiah.getId(), cycle.getId(), new BigDecimal("5"),
+                payers.subList(0, 3)));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(501, paymentRepository.insertOpenPayments(jamiah.getId(), cycle.getId(), new BigDecimal("5"),
+                payers.subList(3, 504)));
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        java.util.List<JamiahPayment> payments = paymentRepository.findAllByJamiahIdAndCycleId(jamiah.getId(), cycle.getId());
+        assertEquals(existing + 504, payments.size());
+        JamiahPayment inserted = payments.stream()
+                .filter(p -> payers.get(0).equals(p.getPayerUid()))
+                .findFirst()
+                .orElseThrow();
+        assertBigDecimalEquals("5", inserted.getAmount());
+        assertFalse(Boolean.TRUE.equals(inserted.getConfirmed()));
+    }
+
+    @Test
+    void dueRoundsAdvanceOnce() {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String memberUid = newUid();
+        UserProfile member = createUser(memberUid, "m");
+
+        JamiahDto created = createJamiah(ownerUid);
+        Jamiah jamiah = loadJamiah(created.getId());
+        jamiah.getMembers().add(member);
+        member.getJamiahs().add(jamiah);
+        jamiahRepository.save(jamiah);
+
+        JamiahCycle cycle = service.startCycle(created.getId().toString(), ownerUid, order(ownerUid, memberUid));
+        assertEquals(cycle.getStartDate().plusMonths(1), cycle.getDueDate());
+        paymentService.advanceDueRounds(cycle.getDueDate().minusDays(1), 1000);
+        assertEquals(1, cycleRepository.findByJamiahId(jamiah.getId()).size());
+
+        assertTrue(paymentService.advanceDueRounds(cycle.getDueDate(), 1000) >= 1);
+        java.util.List<JamiahCycle> cycles = cycleRepository.findByJamiahId(jamiah.getId());
+        assertEquals(2, cycles.size());
+        JamiahCycle next = cycles.stream().filter(c -> c.getCycleNumber() == 2).findFirst().orElseThrow();
+        assertEquals(memberUid, next.getRecipient().getUid());
+        assertEquals(cycle.getDueDate(), next.getStartDate());
+        assertEquals(1, paymentRepository.findAllByJamiahIdAndCycleId(jamiah.getId(), next.getId()).size());
+
+        paymentService.advanceDueRounds(cycle.getDueDate(), 1000);
+        assertEquals(2, cycleRepository.findByJamiahId(jamiah.getId()).size());
+    }
+
+    @Test
+    void roundsWithoutARateIntervalRunWeekly() {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String memberUid = newUid();
+        UserProfile member = createUser(memberUid, "m");
+
+        JamiahDto created = createJamiah(ownerUid);
+        Jamiah jamiah = loadJamiah(created.getId());
+        jamiah.getMembers().add(member);
+        member.getJamiahs().add(jamiah);
+        jamiah.setRateInterval(null);
+        jamiahRepository.save(jamiah);
+
+        JamiahCycle cycle = service.startCycle(created.getId().toString(), ownerUid, order(ownerUid, memberUid));
+        assertEquals(cycle.getStartDate().plusWeeks(1), cycle.getDueDate());
+
+        paymentService.advanceDueRounds(cycle.getDueDate(), 1000);
+        JamiahCycle next = cycleRepository.findByJamiahId(jamiah.getId()).stream()
+                .filter(c -> c.getCycleNumber() == 2).findFirst().orElseThrow();
+        assertEquals(next.getStartDate().plusWeeks(1), next.getDueDate());
+    }
+
+    @Test
+    void remindersAreWrittenOncePerMemberAndDay() {
+        String ownerUid = newUid();
+        createUser(ownerUid, "owner");
+        String memberUid = newUid();
+        UserProfile member = createUser(memberUid, "m");
+
+        JamiahDto created = createJamiah(ownerUid);
+        Jamiah jamiah = loadJamiah(created.getId());
+        jamiah.getMembers().add(member);
+        member.getJamiahs().add(jamiah);
+        jamiahRepository.save(jamiah);
+
+        JamiahCycle cycle = service.startCycle(created.getId().toString(), ownerUid, order(ownerUid, memberUid));
+        assertFalse(reminderService.findRemindableCycleIds(cycle.getStartDate(), 0L, 1000).contains(cycle.getId()));
+        java.time.LocalDate overdueDay = cycle.getDueDate().plusDays(1);
+        assertTrue(reminderService.findRemindableCycleIds(overdueDay, 0L, 1000).contains(cycle.getId()));
+
+        assertEquals(1, reminderService.remind(java.util.List.of(cycle.getId()), overdueDay));
+        assertEquals(0, reminderService.remind(java.util.List.of(cycle.getId()), overdueDay));
+
+        java.util.List<PaymentReminder> reminders = reminderService.getReminders(memberUid);
+        assertEquals(1, reminders.size());
+        assertEquals(cycle.getId(), reminders.get(0).getCycleId());
+        assertEquals(1, reminders.get(0).getOpenPayments());
+        assertTrue(reminders.get(0).getOverdue());
+        assertTrue(reminderService.getReminders(ownerUid).isEmpty());
+    }
 }
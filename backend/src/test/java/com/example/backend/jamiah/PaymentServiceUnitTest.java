@@ -15,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -46,6 +47,10 @@ class PaymentServiceUnitTest {
     private StripePaymentProvider stripePaymentProvider;
     @Mock
     private WalletService walletService;
+    @Mock
+    private JamiahStateVersions stateVersions;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private PaymentService paymentService;
@@ -59,6 +64,10 @@ class PaymentServiceUnitTest {
                 userRepository,
                 stripePaymentProvider,
                 walletService,
+                new RoundSnapshotCache(0, 0),
+                stateVersions,
+                new JamiahEventBroadcaster(0L, 0L, 10_000L, 100, 1),
+                eventPublisher,
                 "pk_test"
         );
     }
@@ -235,7 +244,7 @@ class PaymentServiceUnitTest {
         PaymentIntent createdIntent = mock(PaymentIntent.class);
         when(createdIntent.getId()).thenReturn("pi_new");
         when(createdIntent.getClientSecret()).thenReturn("secret");
-        when(stripePaymentProvider.createPaymentIntent(anyMap())).thenReturn(createdIntent);
+        when(stripePaymentProvider.createPaymentIntent(anyMap(), anyString())).thenReturn(createdIntent);
 
         UserProfile payerProfile = new UserProfile();
         payerProfile.setUid(callerUid);
@@ -244,7 +253,7 @@ class PaymentServiceUnitTest {
         paymentService.initiatePayment(paymentId, callerUid);
 
         ArgumentCaptor<Map<String, Object>> paramsCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(stripePaymentProvider).createPaymentIntent(paramsCaptor.capture());
+        verify(stripePaymentProvider).createPaymentIntent(paramsCaptor.capture(), eq("payment-7-intent-1000"));
         assertEquals(List.of("card"), paramsCaptor.getValue().get("payment_method_types"));
     }
 
@@ -298,7 +307,7 @@ class PaymentServiceUnitTest {
         PaymentIntent updatedIntent = mock(PaymentIntent.class);
         when(updatedIntent.getId()).thenReturn("pi_existing");
         when(updatedIntent.getClientSecret()).thenReturn("updated_secret");
-        when(stripePaymentProvider.updatePaymentIntent(eq("pi_existing"), anyMap())).thenReturn(updatedIntent);
+        when(stripePaymentProvider.updatePaymentIntent(eq("pi_existing"), anyMap(), anyString())).thenReturn(updatedIntent);
 
         UserProfile payerProfile = new UserProfile();
         payerProfile.setUid(callerUid);
@@ -307,8 +316,17 @@ class PaymentServiceUnitTest {
         paymentService.initiatePayment(paymentId, callerUid);
 
         ArgumentCaptor<Map<String, Object>> paramsCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(stripePaymentProvider).updatePaymentIntent(eq("pi_existing"), paramsCaptor.capture());
+        verify(stripePaymentProvider).updatePaymentIntent(eq("pi_existing"), paramsCaptor.capture(),
+                eq("payment-intent-pi_existing-rev-0-amount-1000"));
         assertEquals(List.of("card"), paramsCaptor.getValue().get("payment_method_types"));
+        assertEquals(1, payment.getIntentRevision().intValue());
+
+        // The intent went back to its old amount in between; updating to 10 again needs a new key.
+        paymentService.initiatePayment(paymentId, callerUid);
+
+        verify(stripePaymentProvider).updatePaymentIntent(eq("pi_existing"), anyMap(),
+                eq("payment-intent-pi_existing-rev-1-amount-1000"));
+        assertEquals(2, payment.getIntentRevision().intValue());
     }
 
     @Test
@@ -0,0 +1,129 @@
+package com.example.backend.jamiah;
+
+import com.example.backend.jamiah.dto.PaymentDto;
+import com.example.backend.jamiah.dto.RoundDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RoundSnapshotCacheTest {
+
+    private final RoundSnapshotCache cache = new RoundSnapshotCache(60_000, 100);
+
+    @Test
+    void returnsStoredRoundsToParticipantsOnly() {
+        Jamiah jamiah = jamiah(1L);
+        cache.store(cache.currentGeneration(), jamiah, Set.of("member"), round(10L, "member"));
+
+        RoundDto hit = cache.find(10L, jamiah.getPublicId().toString(), "member");
+        assertNotNull(hit);
+        assertEquals("member", hit.getPayments().get(0).getUser().getUid());
+        assertNull(cache.find(10L, jamiah.getPublicId().toString(), "stranger"));
+        assertNull(cache.find(10L, UUID.randomUUID().toString(), "member"));
+        assertNull(cache.find(11L, jamiah.getPublicId().toString(), "member"));
+    }
+
+    @Test
+    void copiesAreIndependentOfTheCachedRound() {
+        Jamiah jamiah = jamiah(1L);
+        RoundDto round = round(10L, "member");
+        cache.store(cache.currentGeneration(), jamiah, Set.of("member"), round);
+        round.getPayments().get(0).setStatus(PaymentDto.PaymentStatus.RECEIPT_CONFIRMED);
+
+        RoundDto first = cache.find(10L, jamiah.getPublicId().toString(), "member");
+        first.getPayments().get(0).setStatus(PaymentDto.PaymentStatus.PAID_SELF_CONFIRMED);
+        first.getPayments().get(0).getUser().setUsername("changed");
+        first.getRecipient().setUid("changed");
+
+        RoundDto second = cache.find(10L, jamiah.getPublicId().toString(), "member");
+        assertNotSame(first.getPayments().get(0), second.getPayments().get(0));
+        assertEquals(PaymentDto.PaymentStatus.UNPAID, second.getPayments().get(0).getStatus());
+        assertEquals("member-name", second.getPayments().get(0).getUser().getUsername());
+        assertEquals("recipient", second.getRecipient().getUid());
+    }
+
+    @Test
+    void evictionsRemoveTheCycleOrAllCyclesOfTheJamiah() {
+        Jamiah jamiah = jamiah(1L);
+        String publicId = jamiah.getPublicId().toString();
+        cache.store(cache.currentGeneration(), jamiah, Set.of("member"), round(10L, "member"));
+        cache.store(cache.currentGeneration(), jamiah, Set.of("member"), round(11L, "member"));
+
+        cache.evictCycle(1L, 10L);
+        assertNull(cache.find(10L, publicId, "member"));
+        assertNotNull(cache.find(11L, publicId, "member"));
+
+        cache.evictJamiah(1L);
+        assertNull(cache.find(11L, publicId, "member"));
+    }
+
+    @Test
+    void buildsStartedBeforeAnEvictionOfTheirJamiahAreNotStored() {
+        Jamiah jamiah = jamiah(1L);
+        long generation = cache.currentGeneration();
+        cache.evictCycle(1L, 10L);
+
+        cache.store(generation, jamiah, Set.of("member"), round(10L, "member"));
+
+        assertNull(cache.find(10L, jamiah.getPublicId().toString(), "member"));
+    }
+
+    @Test
+    void evictionsOfOtherJamiahsDoNotAffectInFlightBuilds() {
+        Jamiah first = jamiah(1L);
+        Jamiah second = jamiah(2L);
+        cache.store(cache.currentGeneration(), second, Set.of("member"), round(20L, "member"));
+        long generation = cache.currentGeneration();
+
+        cache.evictJamiah(2L);
+        cache.store(generation, first, Set.of("member"), round(10L, "member"));
+
+        assertNotNull(cache.find(10L, first.getPublicId().toString(), "member"));
+        assertNull(cache.find(20L, second.getPublicId().toString(), "member"));
+    }
+
+    @Test
+    void zeroTtlDisablesTheCache() {
+        RoundSnapshotCache disabled = new RoundSnapshotCache(0, 0);
+        Jamiah jamiah = jamiah(1L);
+        disabled.store(disabled.currentGeneration(), jamiah, Set.of("member"), round(10L, "member"));
+
+        assertNull(disabled.find(10L, jamiah.getPublicId().toString(), "member"));
+    }
+
+    private static Jamiah jamiah(Long id) {
+        Jamiah jamiah = new Jamiah();
+        jamiah.setId(id);
+        jamiah.setPublicId(UUID.randomUUID());
+        return jamiah;
+    }
+
+    private static RoundDto round(Long cycleId, String payerUid) {
+        PaymentDto.UserRef user = new PaymentDto.UserRef();
+        user.setUid(payerUid);
+        user.setUsername(payerUid + "-name");
+        PaymentDto payment = new PaymentDto();
+        payment.setId(cycleId * 100);
+        payment.setUser(user);
+        payment.setAmount(new BigDecimal("5"));
+        payment.setStatus(PaymentDto.PaymentStatus.UNPAID);
+        RoundDto.Recipient recipient = new RoundDto.Recipient();
+        recipient.setUid("recipient");
+
+        RoundDto round = new RoundDto();
+        round.setId(cycleId);
+        round.setCycleNumber(1);
+        round.setRecipient(recipient);
+        round.setPayments(new ArrayList<>(List.of(payment)));
+        return round;
+    }
+}
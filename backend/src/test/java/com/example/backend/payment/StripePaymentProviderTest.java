@@ -13,15 +13,17 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 
 class StripePaymentProviderTest {
 
     @Test
     void createPaymentIntentUsesSandboxHeaderWhenConfigured() throws StripeException {
-        StripePaymentProvider provider = new StripePaymentProvider("sk_test", "sbx_123");
+        StripePaymentProvider provider = new StripePaymentProvider("sk_test", "sbx_123", 0, 0);
         Map<String, Object> params = Map.of("amount", 1000L);
 
         try (MockedStatic<PaymentIntent> paymentIntent = Mockito.mockStatic(PaymentIntent.class)) {
@@ -40,7 +42,7 @@ class StripePaymentProviderTest {
 
     @Test
     void retrievePaymentIntentOmitsSandboxHeaderWhenNotConfigured() throws StripeException {
-        StripePaymentProvider provider = new StripePaymentProvider("sk_test", null);
+        StripePaymentProvider provider = new StripePaymentProvider("sk_test", null, 0, 0);
 
         try (MockedStatic<PaymentIntent> paymentIntent = Mockito.mockStatic(PaymentIntent.class)) {
             paymentIntent.when(() -> PaymentIntent.retrieve(eq("pi_123"), any(RequestOptions.class)))
@@ -58,7 +60,7 @@ class StripePaymentProviderTest {
 
     @Test
     void updatePaymentIntentPropagatesSandboxHeader() throws StripeException {
-        StripePaymentProvider provider = new StripePaymentProvider("sk_test", "sbx_456");
+        StripePaymentProvider provider = new StripePaymentProvider("sk_test", "sbx_456", 0, 0);
         Map<String, Object> params = Map.of("description", "test");
 
         try (MockedStatic<PaymentIntent> paymentIntentStatic = Mockito.mockStatic(PaymentIntent.class)) {
@@ -80,6 +82,27 @@ class StripePaymentProviderTest {
         }
     }
 
+    @Test
+    void createPaymentIntentWithKeyIsAnsweredFromCacheOnRetry() throws StripeException {
+        StripePaymentProvider provider = new StripePaymentProvider("sk_test", null, 60000, 100);
+        Map<String, Object> params = Map.of("amount", 1000L);
+        PaymentIntent created = Mockito.mock(PaymentIntent.class);
+
+        try (MockedStatic<PaymentIntent> paymentIntent = Mockito.mockStatic(PaymentIntent.class)) {
+            paymentIntent.when(() -> PaymentIntent.create(eq(params), any(RequestOptions.class)))
+                    .thenAnswer(invocation -> {
+                        RequestOptions options = invocation.getArgument(1);
+                        assertEquals("payment-7-intent-1000", options.getIdempotencyKey());
+                        return created;
+                    });
+
+            assertSame(created, provider.createPaymentIntent(params, "payment-7-intent-1000"));
+            assertSame(created, provider.createPaymentIntent(params, "payment-7-intent-1000"));
+
+            paymentIntent.verify(() -> PaymentIntent.create(eq(params), any(RequestOptions.class)), times(1));
+        }
+    }
+
     private void assertSandboxBehavior(RequestOptions options, String apiKey, String sandboxId) throws StripeException {
         Authenticator authenticator = options.getAuthenticator();
         assertNotNull(authenticator);
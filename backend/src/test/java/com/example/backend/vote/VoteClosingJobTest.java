@@ -0,0 +1,51 @@
+package com.example.backend.vote;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VoteClosingJobTest {
+
+    @Mock
+    private VoteService voteService;
+
+    @Test
+    void failingBatchIsRetriedPerVoteAndTheJobContinues() {
+        VoteClosingJob job = new VoteClosingJob(voteService, 3);
+        when(voteService.findExpiredIds(any(), eq(0L), eq(3))).thenReturn(List.of(1L, 2L, 3L));
+        when(voteService.findExpiredIds(any(), eq(3L), eq(3))).thenReturn(List.of(4L));
+        when(voteService.closeExpired(eq(List.of(1L, 2L, 3L)), any())).thenThrow(new IllegalStateException("broken"));
+        when(voteService.closeExpired(eq(List.of(1L)), any())).thenReturn(1);
+        when(voteService.closeExpired(eq(List.of(2L)), any())).thenThrow(new IllegalStateException("broken"));
+        when(voteService.closeExpired(eq(List.of(3L)), any())).thenReturn(1);
+        when(voteService.closeExpired(eq(List.of(4L)), any())).thenReturn(1);
+
+        job.closeExpiredVotes();
+
+        verify(voteService).closeExpired(eq(List.of(3L)), any());
+        verify(voteService).closeExpired(eq(List.of(4L)), any());
+    }
+
+    @Test
+    void stopsAfterAShortBatch() {
+        VoteClosingJob job = new VoteClosingJob(voteService, 2);
+        when(voteService.findExpiredIds(any(), anyLong(), anyInt())).thenReturn(List.of(5L));
+        when(voteService.closeExpired(eq(List.of(5L)), any())).thenReturn(1);
+
+        job.closeExpiredVotes();
+
+        verify(voteService).findExpiredIds(any(), eq(0L), eq(2));
+        verify(voteService).closeExpired(eq(List.of(5L)), any());
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.backend.vote;
+
+import com.example.backend.UserProfile;
+import com.example.backend.UserProfileRepository;
+import com.example.backend.jamiah.JamiahService;
+import com.example.backend.jamiah.RateInterval;
+import com.example.backend.jamiah.dto.JamiahDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class VoteServiceTest {
+
+    @Autowired
+    VoteService service;
+
+    @Autowired
+    VoteRepository repository;
+
+    @Autowired
+    JamiahService jamiahService;
+
+    @Autowired
+    UserProfileRepository userRepository;
+
+    private String jamiahId;
+    private String owner;
+    private final List<String> members = new java.util.ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        owner = createUser();
+        jamiahId = createJamiah(owner);
+        for (int i = 0; i < 4; i++) {
+            String uid = createUser();
+            jamiahService.joinPublic(jamiahId, uid);
+            members.add(uid);
+        }
+    }
+
+    private String createUser() {
+        UserProfile user = new UserProfile();
+        user.setUid(UUID.randomUUID().toString());
+        user.setUsername("voter-" + user.getUid());
+        return userRepository.save(user).getUid();
+    }
+
+    private String createJamiah(String ownerUid) {
+        JamiahDto dto = new JamiahDto();
+        dto.setName("Vote Test");
+        dto.setIsPublic(true);
+        dto.setMaxGroupSize(5);
+        dto.setCycleCount(1);
+        dto.setRateAmount(new BigDecimal("5"));
+        dto.setRateInterval(RateInterval.MONTHLY);
+        return jamiahService.createJamiah(ownerUid, dto).getId().toString();
+    }
+
+    private Vote expiredVote(String... choices) {
+        Vote vote = service.createVote(jamiahId, owner, "Expired", List.of("yes", "no"));
+        for (int i = 0; i < choices.length; i++) {
+            service.castVote(vote.getId(), members.get(i), choices[i]);
+        }
+        vote.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        return repository.saveAndFlush(vote);
+    }
+
+    @Test
+    void listingReportsExpiredVotesWithoutClosingThem() {
+        Vote vote = expiredVote("yes");
+
+        VoteDto listed = service.getVotes(jamiahId, owner, null, 0, 100).stream()
+                .filter(dto -> dto.getId().equals(vote.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        assertTrue(listed.isClosed());
+        assertNull(listed.getResult());
+        assertEquals(1, listed.getBallotCount());
+        assertEquals(1L, listed.getTallies().get("yes"));
+        assertFalse(repository.findById(vote.getId()).orElseThrow().getClosed());
+    }
+
+    @Test
+    void expiredVotesAreTalliedInBatches() {
+        Vote unanimous = expiredVote("yes", "yes");
+        Vote split = expiredVote("yes", "no");
+        Vote open = service.createVote(jamiahId, owner, "Open", List.of("yes", "no"));
+
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0L;
+        List<Long> batch;
+        while (!(batch = service.findExpiredIds(now, afterId, 1)).isEmpty()) {
+            assertEquals(1, service.closeExpired(batch, now));
+            afterId = batch.get(0);
+        }
+
+        assertEquals("yes", repository.findById(unanimous.getId()).orElseThrow().getResult());
+        assertEquals("REJECTED", repository.findById(split.getId()).orElseThrow().getResult());
+        assertTrue(repository.findById(split.getId()).orElseThrow().getClosed());
+        assertFalse(repository.findById(open.getId()).orElseThrow().getClosed());
+    }
+
+    @Test
+    void changingABallotMovesItsCount() {
+        Vote vote = service.createVote(jamiahId, owner, "Recast", List.of("yes", "no"));
+        service.castVote(vote.getId(), members.get(0), "yes");
+        service.castVote(vote.getId(), members.get(1), "yes");
+        VoteDto recast = service.castVote(vote.getId(), members.get(1), "no");
+
+        assertEquals(2, recast.getBallotCount());
+        assertEquals(1L, recast.getTallies().get("yes"));
+        assertEquals(1L, recast.getTallies().get("no"));
+
+        VoteDto again = service.castVote(vote.getId(), members.get(1), "no");
+        assertEquals(2, again.getBallotCount());
+    }
+
+    @Test
+    void ballotsNeedOneOfTheOptionsAndCountOncePerVoter() {
+        Vote vote = service.createVote(jamiahId, owner, "Options", List.of("yes", "no"));
+        String voter = members.get(0);
+        for (String choice : new String[]{null, " ", "maybe"}) {
+            ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                    () -> service.castVote(vote.getId(), voter, choice));
+            assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        }
+
+        service.castVote(vote.getId(), voter, "yes");
+        service.castVote(vote.getId(), voter, "no");
+        VoteDto last = service.castVote(vote.getId(), voter, "yes");
+
+        assertEquals(1, last.getBallotCount());
+        assertFalse(last.isClosed());
+        assertEquals(1L, last.getTallies().get("yes"));
+        assertNull(last.getTallies().get("no"));
+    }
+
+    @Test
+    void voteClosesOnceEveryMemberVoted() {
+        Vote vote = service.createVote(jamiahId, owner, "Everyone", List.of("yes", "no"));
+        assertEquals(5, vote.getEligibleVoters());
+
+        for (String member : members) {
+            assertFalse(service.castVote(vote.getId(), member, "yes").isClosed());
+        }
+        VoteDto last = service.castVote(vote.getId(), owner, "yes");
+
+        assertTrue(last.isClosed());
+        assertEquals("yes", last.getResult());
+        assertThrows(IllegalStateException.class, () -> service.castVote(vote.getId(), owner, "no"));
+    }
+
+    @Test
+    void outsidersCannotSeeOrCastVotes() {
+        Vote vote = service.createVote(jamiahId, owner, "Members only", List.of("yes", "no"));
+        String outsider = createUser();
+
+        ResponseStatusException listing = assertThrows(ResponseStatusException.class,
+                () -> service.getVotes(jamiahId, outsider, null, 0, 10));
+        assertEquals(HttpStatus.FORBIDDEN, listing.getStatusCode());
+        ResponseStatusException ballot = assertThrows(ResponseStatusException.class,
+                () -> service.castVote(vote.getId(), outsider, "yes"));
+        assertEquals(HttpStatus.FORBIDDEN, ballot.getStatusCode());
+    }
+
+    @Test
+    void membersJoiningAfterTheVoteCannotCastOrCloseIt() {
+        Vote vote = service.createVote(jamiahId, owner, "Snapshot", List.of("yes", "no"));
+        String latecomer = createUser();
+        jamiahService.joinPublic(jamiahId, latecomer);
+
+        ResponseStatusException ballot = assertThrows(ResponseStatusException.class,
+                () -> service.castVote(vote.getId(), latecomer, "yes"));
+        assertEquals(HttpStatus.FORBIDDEN, ballot.getStatusCode());
+
+        for (String member : members) {
+            service.castVote(vote.getId(), member, "yes");
+        }
+        assertEquals(4, repository.findById(vote.getId()).orElseThrow().getBallotCount());
+        assertFalse(repository.findById(vote.getId()).orElseThrow().getClosed());
+        assertTrue(service.castVote(vote.getId(), owner, "yes").isClosed());
+    }
+
+    @Test
+    void unscopedVotesTakeNoBallots() {
+        Vote legacy = new Vote();
+        legacy.setTitle("Legacy");
+        legacy.setOptions(List.of("yes", "no"));
+        legacy.setCreatedAt(LocalDateTime.now());
+        legacy.setExpiresAt(LocalDateTime.now().plusDays(1));
+        Vote saved = repository.saveAndFlush(legacy);
+
+        ResponseStatusException ballot = assertThrows(ResponseStatusException.class,
+                () -> service.castVote(saved.getId(), owner, "yes"));
+        assertEquals(HttpStatus.FORBIDDEN, ballot.getStatusCode());
+    }
+}
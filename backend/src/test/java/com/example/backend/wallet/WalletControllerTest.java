@@ -59,7 +59,8 @@ class WalletControllerTest {
         when(accountLink.getUrl()).thenReturn("https://stripe.test/onboarding");
 
         when(stripePaymentProvider.isConfigured()).thenReturn(true);
-        when(stripePaymentProvider.createAccount(org.mockito.Mockito.any())).thenReturn(account);
+        when(stripePaymentProvider.createAccount(org.mockito.Mockito.any(), org.mockito.Mockito.any()))
+                .thenReturn(account);
         when(stripePaymentProvider.retrieveAccount(org.mockito.Mockito.any())).thenReturn(account);
         when(stripePaymentProvider.createAccountLink(org.mockito.Mockito.any())).thenReturn(accountLink);
         when(stripePaymentProvider.getSandboxId()).thenReturn(null);
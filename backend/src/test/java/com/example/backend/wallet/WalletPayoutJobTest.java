@@ -0,0 +1,112 @@
+package com.example.backend.wallet;
+
+import com.example.backend.payment.StripePaymentProvider;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.model.Transfer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WalletPayoutJobTest {
+
+    @Mock
+    private WalletPayoutService payoutService;
+
+    @Mock
+    private StripePaymentProvider stripePaymentProvider;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private WalletPayoutJob job;
+
+    @BeforeEach
+    void setup() {
+        job = new WalletPayoutJob(payoutService, stripePaymentProvider, 10,
+                new WalletPayoutJob.TokenBucket(1, 2, clock::get));
+    }
+
+    @Test
+    void requeuesBatchesBeyondTheBurstInsteadOfWaiting() throws Exception {
+        when(stripePaymentProvider.isConfigured()).thenReturn(true);
+        Transfer transfer = mock(Transfer.class);
+        when(transfer.getId()).thenReturn("tr_1");
+        when(stripePaymentProvider.createTransfer(any(), anyString())).thenReturn(transfer);
+        when(payoutService.claimBatches(anyInt())).thenReturn(List.of(batch("b1"), batch("b2"), batch("b3")));
+
+        job.submitPendingPayouts();
+
+        verify(payoutService).markPaid("b1", "tr_1");
+        verify(payoutService).markPaid("b2", "tr_1");
+        verify(payoutService).requeue("b3");
+        verify(stripePaymentProvider, never()).createTransfer(any(), eq("b3"));
+    }
+
+    @Test
+    void skipsTheTickWhenNoTokenIsLeft() throws Exception {
+        when(stripePaymentProvider.isConfigured()).thenReturn(true);
+        when(payoutService.claimBatches(anyInt())).thenReturn(List.of(batch("b1"), batch("b2")));
+        when(stripePaymentProvider.createTransfer(any(), anyString())).thenReturn(null);
+        job.submitPendingPayouts();
+
+        job.submitPendingPayouts();
+        verify(payoutService).claimBatches(anyInt());
+
+        clock.addAndGet(1_000_000_000L);
+        job.submitPendingPayouts();
+        verify(payoutService, times(2)).claimBatches(anyInt());
+    }
+
+    @Test
+    void transientErrorsReleaseTheBatch() throws Exception {
+        when(stripePaymentProvider.isConfigured()).thenReturn(true);
+        when(payoutService.claimBatches(anyInt())).thenReturn(List.of(batch("b1")));
+        when(stripePaymentProvider.createTransfer(any(), anyString()))
+                .thenThrow(new ApiConnectionException("connection reset"));
+
+        job.submitPendingPayouts();
+
+        verify(payoutService).release("b1", "connection reset");
+        verify(payoutService, never()).markFailed(anyString(), anyString());
+    }
+
+    @Test
+    void tokenBucketRefillsUpToItsCapacity() {
+        WalletPayoutJob.TokenBucket bucket = new WalletPayoutJob.TokenBucket(2, 1, clock::get);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        clock.addAndGet(5_000_000_000L);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.hasToken());
+    }
+
+    private static WalletPayoutService.PayoutBatch batch(String batchKey) {
+        WalletPayout payout = new WalletPayout();
+        payout.setId((long) batchKey.hashCode());
+        payout.setJamiahId(1L);
+        payout.setMemberId(2L);
+        payout.setAmount(new BigDecimal("12.50"));
+        payout.setCurrency("eur");
+        payout.setStripeAccountId("acct_test");
+        return new WalletPayoutService.PayoutBatch(batchKey, List.of(payout));
+    }
+}
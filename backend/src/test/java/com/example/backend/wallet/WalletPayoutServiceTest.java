@@ -0,0 +1,204 @@
+package com.example.backend.wallet;
+
+import com.example.backend.UserProfile;
+import com.example.backend.UserProfileRepository;
+import com.example.backend.jamiah.Jamiah;
+import com.example.backend.jamiah.JamiahRepository;
+import com.example.backend.jamiah.JamiahService;
+import com.example.backend.jamiah.RateInterval;
+import com.example.backend.jamiah.dto.JamiahDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "stripe.payouts.max-attempts=2")
+@Transactional
+class WalletPayoutServiceTest {
+
+    @Autowired
+    WalletPayoutService service;
+
+    @Autowired
+    WalletPayoutRepository payoutRepository;
+
+    @Autowired
+    JamiahWalletRepository walletRepository;
+
+    @Autowired
+    JamiahRepository jamiahRepository;
+
+    @Autowired
+    JamiahService jamiahService;
+
+    @Autowired
+    UserProfileRepository userRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    private JamiahWallet wallet;
+
+    @BeforeEach
+    void setup() {
+        UserProfile owner = new UserProfile();
+        owner.setUid("u-" + UUID.randomUUID());
+        owner.setUsername("payout-" + owner.getUid());
+        userRepository.save(owner);
+
+        JamiahDto dto = new JamiahDto();
+        dto.setName("Payout Test");
+        dto.setIsPublic(false);
+        dto.setMaxGroupSize(3);
+        dto.setCycleCount(1);
+        dto.setRateAmount(new BigDecimal("5"));
+        dto.setRateInterval(RateInterval.MONTHLY);
+        dto.setStartDate(LocalDate.now());
+        Jamiah jamiah = jamiahRepository.findByPublicId(jamiahService.createJamiah(owner.getUid(), dto).getId())
+                .orElseThrow();
+
+        wallet = walletRepository.findById(new JamiahWalletId(jamiah.getId(), owner.getId())).orElseGet(() -> {
+            JamiahWallet created = new JamiahWallet();
+            created.setJamiah(jamiah);
+            created.setMember(owner);
+            return created;
+        });
+        wallet.setBalance(new BigDecimal("100.00"));
+        wallet.setStripeAccountId("acct-" + UUID.randomUUID());
+        wallet = walletRepository.saveAndFlush(wallet);
+    }
+
+    @Test
+    void claimGroupsPayoutsPerAccountAndMarksThemProcessing() {
+        WalletPayout first = payout("10.00");
+        WalletPayout second = payout("15.00");
+
+        WalletPayoutService.PayoutBatch batch = claim(first);
+
+        assertEquals(List.of(first.getId(), second.getId()), batch.getPayoutIds());
+        assertEquals(0, new BigDecimal("25.00").compareTo(batch.getAmount()));
+        WalletPayout claimed = reload(first);
+        assertEquals(WalletPayout.Status.PROCESSING, claimed.getStatus());
+        assertEquals(1, claimed.getAttempts());
+        assertEquals(batch.getBatchKey(), claimed.getBatchKey());
+    }
+
+    @Test
+    void markPaidRecordsTheTransfer() {
+        WalletPayout payout = payout("10.00");
+        WalletPayoutService.PayoutBatch batch = claim(payout);
+
+        service.markPaid(batch.getBatchKey(), "tr_1");
+
+        WalletPayout paid = reload(payout);
+        assertEquals(WalletPayout.Status.PAID, paid.getStatus());
+        assertEquals("tr_1", paid.getStripeTransferId());
+        assertNotNull(paid.getSubmittedAt());
+    }
+
+    @Test
+    void releaseKeepsTheBatchKeyForTheRetry() {
+        WalletPayout payout = payout("10.00");
+        String batchKey = claim(payout).getBatchKey();
+
+        service.release(batchKey, "timeout");
+
+        WalletPayout released = reload(payout);
+        assertEquals(WalletPayout.Status.PENDING, released.getStatus());
+        assertEquals("timeout", released.getFailureReason());
+        assertEquals(batchKey, claim(payout).getBatchKey());
+        assertEquals(2, reload(payout).getAttempts());
+    }
+
+    @Test
+    void exhaustedRetriesFailTheBatchAndCreditTheWallet() {
+        WalletPayout payout = payout("10.00");
+        String batchKey = claim(payout).getBatchKey();
+        service.release(batchKey, "timeout");
+        claim(payout);
+
+        service.release(batchKey, "timeout again");
+
+        assertEquals(WalletPayout.Status.FAILED, reload(payout).getStatus());
+        assertEquals(0, new BigDecimal("110.00").compareTo(reloadWallet().getBalance()));
+
+        service.markPaid(batchKey, "tr_late");
+        assertEquals(WalletPayout.Status.FAILED, reload(payout).getStatus());
+        assertNull(reload(payout).getStripeTransferId());
+    }
+
+    @Test
+    void stalledBatchIsReclaimedWithTheSameKeyAfterACrash() {
+        WalletPayout payout = payout("10.00");
+        String batchKey = claim(payout).getBatchKey();
+        entityManager.flush();
+        entityManager.createNativeQuery("update jamiah_wallet_payouts set updated_at = ? where id = ?")
+                .setParameter(1, Timestamp.from(Instant.now().minus(1, ChronoUnit.HOURS)))
+                .setParameter(2, payout.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        WalletPayoutService.PayoutBatch retried = claim(payout);
+
+        assertEquals(batchKey, retried.getBatchKey());
+        assertEquals(2, reload(payout).getAttempts());
+    }
+
+    @Test
+    void requeueDoesNotCountTheAttempt() {
+        WalletPayout payout = payout("10.00");
+        String batchKey = claim(payout).getBatchKey();
+
+        service.requeue(batchKey);
+
+        WalletPayout requeued = reload(payout);
+        assertEquals(WalletPayout.Status.PENDING, requeued.getStatus());
+        assertEquals(0, requeued.getAttempts());
+        assertNull(requeued.getBatchKey());
+    }
+
+    private WalletPayout payout(String amount) {
+        WalletPayout payout = new WalletPayout();
+        payout.setJamiahId(wallet.getId().getJamiahId());
+        payout.setMemberId(wallet.getId().getMemberId());
+        payout.setAmount(new BigDecimal(amount));
+        payout.setCurrency("eur");
+        payout.setStripeAccountId(wallet.getStripeAccountId());
+        payout.setStatus(WalletPayout.Status.PENDING);
+        payout.setAttempts(0);
+        return payoutRepository.saveAndFlush(payout);
+    }
+
+    private WalletPayoutService.PayoutBatch claim(WalletPayout payout) {
+        List<WalletPayoutService.PayoutBatch> batches = service.claimBatches(1000);
+        entityManager.flush();
+        return batches.stream()
+                .filter(batch -> batch.getPayoutIds().contains(payout.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private WalletPayout reload(WalletPayout payout) {
+        entityManager.flush();
+        entityManager.clear();
+        return payoutRepository.findById(payout.getId()).orElseThrow();
+    }
+
+    private JamiahWallet reloadWallet() {
+        entityManager.flush();
+        entityManager.clear();
+        return walletRepository.findById(wallet.getId()).orElseThrow();
+    }
+}
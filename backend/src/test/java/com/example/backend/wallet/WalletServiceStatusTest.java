@@ -4,6 +4,7 @@ import com.example.backend.UserProfile;
 import com.example.backend.UserProfileRepository;
 import com.example.backend.jamiah.Jamiah;
 import com.example.backend.jamiah.JamiahRepository;
+import com.example.backend.jamiah.JamiahStateVersions;
 import com.example.backend.payment.StripePaymentProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,13 +12,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,9 +39,15 @@ class WalletServiceStatusTest {
     @Mock
     private WalletTopUpRepository walletTopUpRepository;
     @Mock
+    private WalletPayoutRepository walletPayoutRepository;
+    @Mock
     private StripePaymentProvider stripePaymentProvider;
     @Mock
     private StripeAccountStatusUpdater stripeAccountStatusUpdater;
+    @Mock
+    private JamiahStateVersions stateVersions;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private WalletService walletService;
@@ -46,8 +59,11 @@ class WalletServiceStatusTest {
                 walletRepository,
                 userRepository,
                 walletTopUpRepository,
+                walletPayoutRepository,
                 stripePaymentProvider,
                 stripeAccountStatusUpdater,
+                stateVersions,
+                eventPublisher,
                 "",
                 "",
                 ""
@@ -95,6 +111,33 @@ class WalletServiceStatusTest {
                 response.getStatusMessage());
     }
 
+    @Test
+    void withdrawalIsRejectedWithoutDebitingWhenStripeNotConfigured() {
+        UUID publicId = UUID.randomUUID();
+        Jamiah jamiah = new Jamiah();
+        jamiah.setId(1L);
+        jamiah.setPublicId(publicId);
+        jamiah.setOwnerId("member-1");
+
+        UserProfile member = new UserProfile();
+        member.setUid("member-1");
+        setUserProfileId(member, 11L);
+        jamiah.getMembers().add(member);
+
+        when(jamiahRepository.findByPublicId(publicId)).thenReturn(Optional.of(jamiah));
+        when(jamiahRepository.findWithMembersById(1L)).thenReturn(Optional.of(jamiah));
+        when(userRepository.findByUid("member-1")).thenReturn(Optional.of(member));
+        when(stripePaymentProvider.isConfigured()).thenReturn(false);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> walletService.withdraw(publicId.toString(), "member-1", BigDecimal.ONE, null, null, false));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals("Stripe is not configured", ex.getReason());
+        verify(walletRepository, never()).save(any());
+        verify(walletPayoutRepository, never()).save(any());
+    }
+
     private void setUserProfileId(UserProfile profile, long id) {
         try {
             java.lang.reflect.Field field = UserProfile.class.getDeclaredField("id");
@@ -23,7 +23,7 @@ export const ChatSidebar = () => {
     React.useEffect(() => {
         const loadImage = async () => {
             if (auth.currentUser) {
-                const url = await fetchProfileImage(auth.currentUser.uid);
+                const url = await fetchProfileImage(auth.currentUser.uid, true);
                 if (url) {
                     setAvatarUrl(url);
                 }
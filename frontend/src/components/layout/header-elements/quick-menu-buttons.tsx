@@ -35,7 +35,7 @@ export const QuickMenuButtons = (props: AuthenticationButtonsProps) => {
     React.useEffect(() => {
         const loadImage = async () => {
             if (props.isLoggedIn && auth.currentUser) {
-                const url = await fetchProfileImage(auth.currentUser.uid);
+                const url = await fetchProfileImage(auth.currentUser.uid, true);
                 if (url) {
                     setAvatarUrl(url);
                 }
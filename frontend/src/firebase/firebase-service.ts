@@ -84,9 +84,11 @@ export const deleteProfileImage = async (uid: string): Promise<boolean> => {
     }
 };
 
-export const fetchProfileImage = async (uid: string): Promise<string | null> => {
+export const fetchProfileImage = async (uid: string, thumbnail = false): Promise<string | null> => {
     try {
-        const resp = await fetch(`${API_BASE_URL}/api/userProfiles/uid/${uid}/image?t=${Date.now()}`);
+        // The server answers with an ETag and no-cache, so the browser revalidates instead of refetching.
+        const path = thumbnail ? 'image/thumbnail' : 'image';
+        const resp = await fetch(`${API_BASE_URL}/api/userProfiles/uid/${uid}/${path}`);
         if (resp.status === 204 || !resp.ok) {
             return null;
         }
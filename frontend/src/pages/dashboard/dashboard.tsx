@@ -299,7 +299,10 @@ export const Dashboard = () => {
       setVotesLoading(true);
       setVotesError(null);
       try {
-        const response = await fetch(`${API_BASE_URL}/api/votes`);
+        const scope = groupId
+          ? `?jamiahId=${encodeURIComponent(groupId)}&uid=${encodeURIComponent(currentUid ?? '')}`
+          : '';
+        const response = await fetch(`${API_BASE_URL}/api/votes${scope}`);
         if (!response.ok) {
           throw new Error('failed to load votes');
         }
@@ -325,7 +328,7 @@ export const Dashboard = () => {
     return () => {
       isMounted = false;
     };
-  }, []);
+  }, [groupId, currentUid]);
 
   const stats = useMemo(
     () => [
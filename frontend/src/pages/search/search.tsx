@@ -30,6 +30,9 @@ import { createChat, sendMessage } from '../../store/slices/my-bids';
 import { ChatStatusEnum } from '../../enums/ChatStatus.enum';
 import { MessageTypeEnum } from '../../enums/MessageTypeEnum';
 
+const DISCOVERY_PAGE_SIZE = 60;
+const SEARCH_DEBOUNCE_MS = 250;
+
 export const SearchPage = () => {
   const [publicGroups, setPublicGroups] = useState<Jamiah[]>([]);
   const [myGroups, setMyGroups] = useState<Jamiah[]>([]);
@@ -47,11 +50,31 @@ export const SearchPage = () => {
   const dispatch: AppDispatch = useDispatch();
 
   useEffect(() => {
-    fetch(`${API_BASE_URL}/api/jamiahs/public`)
-      .then(res => res.json())
-      .then(setPublicGroups)
-      .catch(() => setPublicGroups([]));
-  }, []);
+    const params = new URLSearchParams({ size: String(DISCOVERY_PAGE_SIZE) });
+    const query = search.trim();
+    if (query) {
+      params.set('q', query);
+    }
+    let cancelled = false;
+    const timer = setTimeout(() => {
+      fetch(`${API_BASE_URL}/api/jamiahs/discover?${params.toString()}`)
+        .then(res => res.json())
+        .then((page: { items?: Jamiah[] }) => {
+          if (!cancelled) {
+            setPublicGroups(page.items ?? []);
+          }
+        })
+        .catch(() => {
+          if (!cancelled) {
+            setPublicGroups([]);
+          }
+        });
+    }, query ? SEARCH_DEBOUNCE_MS : 0);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [search]);
 
   useEffect(() => {
     if (!uid) {
@@ -189,10 +212,6 @@ export const SearchPage = () => {
     pg => !joinedIds.has(pg.id as string) && pg.ownerId !== uid
   );
 
-  const filteredPublicGroups = availablePublicGroups.filter(pg =>
-    pg.name.toLowerCase().includes(search.toLowerCase())
-  );
-
   return (
     <Box p={4}>
       <Box display="flex" alignItems="center" gap={2} mb={2}>
@@ -210,7 +229,7 @@ export const SearchPage = () => {
         </Button>
       </Box>
       <Grid container spacing={4}>
-        {filteredPublicGroups.map(pg => {
+        {availablePublicGroups.map(pg => {
           const rawStatus = statusMap[pg.id as string] ?? 'none';
           const joined = joinedIds.has(pg.id as string) || rawStatus === 'accepted';
           const pending = rawStatus === 'pending';
@@ -18,7 +18,8 @@ interface Vote {
   id: number;
   title: string;
   options: string[];
-  ballots: Record<string, string>;
+  tallies: Record<string, number>;
+  ballotCount: number;
   closed: boolean;
   result?: string;
   expiresAt: string;
@@ -43,7 +44,8 @@ export const Votes = () => {
   const uid = auth.currentUser?.uid || '';
 
   const loadVotes = () => {
-    fetch(`${API_BASE_URL}/api/votes`)
+    const scope = groupId ? `?jamiahId=${encodeURIComponent(groupId)}&uid=${encodeURIComponent(uid)}` : '';
+    fetch(`${API_BASE_URL}/api/votes${scope}`)
       .then(r => r.json())
       .then(data => setVotes(data));
   };
@@ -104,7 +106,7 @@ export const Votes = () => {
     fetch(`${API_BASE_URL}/api/votes`, {
       method: 'POST',
       headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify({ title: newTitle, options })
+      body: JSON.stringify({ title: newTitle, options, jamiahId: groupId, uid })
     }).then(() => {
       setCreateModalOpen(false);
       setNewTitle('');